@@ -7,6 +7,7 @@ plugins {
     id("maven-publish")
     id("fabric-loom") version "1.9-SNAPSHOT"
     id("babric-loom-extension") version "1.9.2"
+    id("me.champeau.jmh") version "0.7.2" apply false
 }
 
 // https://stackoverflow.com/a/40101046 - Even with kotlin, gradle can't get it's shit together.
@@ -19,6 +20,9 @@ allprojects {
     apply(plugin = "fabric-loom")
     apply(plugin = "babric-loom-extension")
 
+    // Benchmarks live in src/jmh and are run with the jmh task
+    if (file("src/jmh").isDirectory) apply(plugin = "me.champeau.jmh")
+
     java.sourceCompatibility = JavaVersion.VERSION_17
     java.targetCompatibility = JavaVersion.VERSION_17
 
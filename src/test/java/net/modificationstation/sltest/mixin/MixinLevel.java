@@ -4,9 +4,13 @@ import net.minecraft.class_519;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.dimension.DimensionData;
+import net.modificationstation.sltest.worldgen.WorldgenDeterminismTest;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import javax.swing.*;
 import java.awt.image.BufferedImage;
@@ -16,6 +20,12 @@ import java.awt.image.DataBufferInt;
 public abstract class MixinLevel {
     @Shadow public abstract class_519 method_1781();
 
+    @Inject(method = "method_1781", at = @At("HEAD"), cancellable = true)
+    private void overrideBiomeSource(CallbackInfoReturnable<class_519> info) {
+        class_519 biomeSource = WorldgenDeterminismTest.BIOME_SOURCE.get();
+        if (biomeSource != null) info.setReturnValue(biomeSource);
+    }
+
     /*@Inject(
         method = "<init>(Lnet/minecraft/level/dimension/DimensionData;Ljava/lang/String;J)V",
         at = @At("TAIL")
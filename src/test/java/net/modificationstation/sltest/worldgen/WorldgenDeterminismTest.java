@@ -0,0 +1,133 @@
+package net.modificationstation.sltest.worldgen;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.loader.api.FabricLoader;
+import net.mine_diver.unsafeevents.listener.EventListener;
+import net.minecraft.class_519;
+import net.minecraft.class_538;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.dimension.Dimension;
+import net.modificationstation.sltest.SLTest;
+import net.modificationstation.stationapi.api.event.world.WorldEvent;
+import net.modificationstation.stationapi.api.world.BlockStateView;
+import net.modificationstation.stationapi.api.world.HeightLimitView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Checks that world generation only depends on the seed and the chunk's position
+ * when the first overworld of a launch is loaded, and crashes the game if it doesn't.
+ *
+ * <p>Terrain, surface rules included, is generated around the origin once with a single world source
+ * and once with several world sources on different threads. Vanilla biome sources aren't thread-safe,
+ * so each worker thread also gets its own, see {@link #BIOME_SOURCE}.
+ *
+ * <p>On the client, population is checked too. It writes into the world, so two scratch worlds
+ * that are never saved load the same chunks far from the origin, in the same order, and the
+ * chunks all of whose neighbours populated are compared. The second world's source generates
+ * other chunks first, so that anything it keeps between chunks would show up.
+ */
+public class WorldgenDeterminismTest {
+    /**
+     * The biome source {@link World#method_1781()} returns on the current thread instead of the world's.
+     */
+    public static final ThreadLocal<class_519> BIOME_SOURCE = new ThreadLocal<>();
+
+    private static final int RADIUS = 8;
+    private static final int THREADS = 4;
+    private static final int POPULATION_RADIUS = 4;
+    /**
+     * Far enough from the origin that no one has been there in the test world.
+     */
+    private static final int POPULATION_CENTER = 50_000;
+
+    private boolean done;
+
+    @EventListener
+    public void check(WorldEvent.Init event) {
+        World world = event.world;
+        if (done || world.method_1781().getClass() != class_519.class) return;
+        done = true;
+
+        List<String> mismatches = new ArrayList<>();
+        checkTerrain(world, mismatches);
+        if (FabricLoader.getInstance().getEnvironmentType() == EnvType.CLIENT) checkPopulation(world, mismatches);
+        if (!mismatches.isEmpty())
+            throw new IllegalStateException("World generation isn't deterministic, " + mismatches.size() + " chunks differ: " + String.join("; ", mismatches.subList(0, Math.min(10, mismatches.size()))));
+        SLTest.LOGGER.info("World generation is deterministic");
+    }
+
+    private static void checkTerrain(World world, List<String> mismatches) {
+        int side = RADIUS * 2;
+        Chunk[] serial = new Chunk[side * side];
+        class_538 serialSource = new class_538(world, world.getSeed());
+        for (int i = 0; i < serial.length; i++)
+            serial[i] = serialSource.method_1806(i % side - RADIUS, i / side - RADIUS);
+
+        Chunk[] parallel = new Chunk[serial.length];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = IntStream.range(0, THREADS).mapToObj(thread -> executor.submit(() -> {
+                BIOME_SOURCE.set(new class_519(world));
+                try {
+                    class_538 source = new class_538(world, world.getSeed());
+                    // interleaved, so neighbouring chunks are generated at the same time
+                    for (int i = thread; i < parallel.length; i += THREADS)
+                        parallel[i] = source.method_1806(i % side - RADIUS, i / side - RADIUS);
+                } finally {
+                    BIOME_SOURCE.remove();
+                }
+            })).collect(Collectors.toList());
+            for (Future<?> future : futures) future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Parallel world generation failed", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < serial.length; i++)
+            if (!equal(world, serial[i], parallel[i]))
+                mismatches.add("terrain of " + (i % side - RADIUS) + ", " + (i / side - RADIUS));
+    }
+
+    private static void checkPopulation(World world, List<String> mismatches) {
+        if (world.dimension.getClass() != Dimension.method_1767(0).getClass()) return;
+        World first = new World(world, Dimension.method_1767(0));
+        World second = new World(world, Dimension.method_1767(0));
+        // generated and populated before the checked chunks, and far enough from them not to populate into them
+        for (int x = -2; x <= 2; x++)
+            for (int z = -2; z <= 2; z++)
+                second.method_214(-POPULATION_CENTER + x, -POPULATION_CENTER + z);
+
+        int min = POPULATION_CENTER - POPULATION_RADIUS;
+        int max = POPULATION_CENTER + POPULATION_RADIUS;
+        for (int x = min; x <= max; x++)
+            for (int z = min; z <= max; z++) {
+                first.method_214(x, z);
+                second.method_214(x, z);
+            }
+        // the chunks on the edge are missing population from outside
+        for (int x = min + 1; x < max; x++)
+            for (int z = min + 1; z < max; z++)
+                if (!equal(world, first.method_214(x, z), second.method_214(x, z)))
+                    mismatches.add("population of " + x + ", " + z);
+    }
+
+    private static boolean equal(World world, Chunk first, Chunk second) {
+        BlockStateView a = (BlockStateView) first, b = (BlockStateView) second;
+        int bottom = ((HeightLimitView) world).getBottomY();
+        int top = ((HeightLimitView) world).getTopY();
+        for (int y = bottom; y < top; y++)
+            for (int x = 0; x < 16; x++)
+                for (int z = 0; z < 16; z++)
+                    if (a.getBlockState(x, y, z) != b.getBlockState(x, y, z)) return false;
+        return true;
+    }
+}
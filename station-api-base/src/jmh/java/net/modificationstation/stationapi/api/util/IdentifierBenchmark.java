@@ -0,0 +1,71 @@
+package net.modificationstation.stationapi.api.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing identifiers through {@link Identifier#of(String)}, which looks them up
+ * in {@link IdentifierTable} first, with the Caffeine-only path it had before,
+ * on several threads parsing the same few thousand identifiers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class IdentifierBenchmark {
+    private record CacheKey(Namespace namespace, String path) {}
+
+    @Param("4096")
+    public int identifiers;
+
+    private String[] strings;
+    private final Cache<CacheKey, Identifier> cache = Caffeine.newBuilder().softValues().build();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        strings = new String[identifiers];
+        for (int i = 0; i < identifiers; i++)
+            strings[i] = (i % 4 == 0 ? "" : "mod" + i % 16 + ":") + "block/thing_" + i;
+        for (String string : strings) {
+            Identifier.of(string);
+            caffeine(string);
+        }
+    }
+
+    @Benchmark
+    public Identifier internTable(Cursor cursor) {
+        return Identifier.of(next(cursor));
+    }
+
+    @Benchmark
+    public Identifier caffeine(Cursor cursor) {
+        return caffeine(next(cursor));
+    }
+
+    private String next(Cursor cursor) {
+        String string = strings[cursor.next];
+        cursor.next = (cursor.next + 1) % strings.length;
+        return string;
+    }
+
+    /**
+     * What {@link Identifier#of(String)} did before the intern table.
+     */
+    private Identifier caffeine(String string) {
+        int i = string.indexOf(Identifier.NAMESPACE_SEPARATOR);
+        Namespace namespace = i < 0 ? Namespace.MINECRAFT : Namespace.of(string.substring(0, i));
+        String path = i < 0 ? string : string.substring(i + 1);
+        return cache.get(new CacheKey(namespace, path), key -> Identifier.of(key.namespace(), key.path()));
+    }
+}
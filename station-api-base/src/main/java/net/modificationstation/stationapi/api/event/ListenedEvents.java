@@ -0,0 +1,98 @@
+package net.modificationstation.stationapi.api.event;
+
+import net.mine_diver.unsafeevents.Event;
+import net.mine_diver.unsafeevents.listener.CompositeListener;
+import net.mine_diver.unsafeevents.listener.Listener;
+import net.mine_diver.unsafeevents.listener.SingularListener;
+import net.modificationstation.stationapi.api.StationAPI;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps track of which event types have listeners on {@link StationAPI#EVENT_BUS},
+ * so that hot paths can skip building and posting events nobody listens to.
+ *
+ * <p>Every listener registered on the event bus is tracked as it's registered, whether it comes
+ * from an entrypoint or is registered directly. A listener whose event type can't be known,
+ * like a consumer with an erased type, marks every event as listened.
+ *
+ * <p>Tracking is conservative: a listener of an event type counts as a listener of all its subtypes,
+ * and listeners are never forgotten.
+ */
+public final class ListenedEvents {
+    private static final List<Handle> HANDLES = new ArrayList<>();
+    private static final Set<Class<? extends Event>> LISTENED_TYPES = new HashSet<>();
+    private static boolean allListened;
+
+    private ListenedEvents() {}
+
+    /**
+     * {@return a handle telling whether the given event type has listeners}
+     *
+     * <p>Handles are meant to be kept in static fields and checked before building the event.
+     */
+    public static synchronized Handle of(Class<? extends Event> eventType) {
+        Handle handle = new Handle(eventType);
+        handle.listened = allListened || isListened(eventType);
+        HANDLES.add(handle);
+        return handle;
+    }
+
+    /**
+     * Marks the given event type and all its subtypes as listened.
+     */
+    public static synchronized void markListened(Class<? extends Event> eventType) {
+        if (allListened || !LISTENED_TYPES.add(eventType)) return;
+        for (Handle handle : HANDLES)
+            if (eventType.isAssignableFrom(handle.eventType)) handle.listened = true;
+    }
+
+    /**
+     * Marks every event type as listened, for when the type of a listener can't be known.
+     */
+    public static synchronized void markAllListened() {
+        allListened = true;
+        for (Handle handle : HANDLES) handle.listened = true;
+    }
+
+    /**
+     * Marks the event types of the given listener and its sub-listeners as listened.
+     */
+    @ApiStatus.Internal
+    public static void markListened(Listener listener) {
+        if (listener instanceof CompositeListener composite)
+            for (SingularListener<?> subListener : composite.getSubListeners()) markListened(subListener);
+        else if (listener instanceof SingularListener<?> singular) {
+            Class<?> eventType = singular.getEventType();
+            if (eventType != null && Event.class.isAssignableFrom(eventType))
+                markListened(eventType.asSubclass(Event.class));
+            else markAllListened();
+        }
+    }
+
+    private static boolean isListened(Class<? extends Event> eventType) {
+        for (Class<? extends Event> listenedType : LISTENED_TYPES)
+            if (listenedType.isAssignableFrom(eventType)) return true;
+        return false;
+    }
+
+    /**
+     * Tells whether an event type has listeners. Cheap enough to be checked on every post.
+     */
+    public static final class Handle {
+        private final Class<? extends Event> eventType;
+        private volatile boolean listened;
+
+        private Handle(Class<? extends Event> eventType) {
+            this.eventType = eventType;
+        }
+
+        public boolean isListened() {
+            return listened;
+        }
+    }
+}
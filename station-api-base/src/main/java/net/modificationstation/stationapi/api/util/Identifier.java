@@ -32,21 +32,43 @@ public final class Identifier implements Comparable<@NotNull Identifier> {
     private static final Function<@NotNull IdentifierCacheKey, @NotNull Identifier> IDENTIFIER_FACTORY = Identifier::new;
 
     public static @NotNull Identifier of(@NotNull final String identifier) {
-        final int i = identifier.indexOf(NAMESPACE_SEPARATOR);
-        final String namespace;
+        return of(identifier, 0, identifier.length());
+    }
+
+    /**
+     * Parses an identifier from a range of characters, the same way as {@link #of(String)}.
+     *
+     * <p>Identifiers that were used recently are found without allocating anything,
+     * which makes this the preferred way to parse identifiers out of larger buffers in hot paths.
+     *
+     * @param start the index of the first character, inclusive
+     * @param end   the index of the last character, exclusive
+     */
+    public static @NotNull Identifier of(@NotNull final CharSequence identifier, final int start, final int end) {
+        final Identifier cached = IdentifierTable.get(identifier, start, end);
+        if (cached != null) return cached;
+        final int i = IdentifierTable.indexOfSeparator(identifier, start, end);
+        final Namespace namespace;
         final String path;
         if (i < 0) {
-            namespace = MINECRAFT.toString();
-            path = identifier;
+            namespace = MINECRAFT;
+            path = identifier.subSequence(start, end).toString();
         } else {
-            namespace = identifier.substring(0, i);
-            path = identifier.substring(i + 1);
+            namespace = Namespace.of(identifier.subSequence(start, i).toString());
+            path = identifier.subSequence(i + 1, end).toString();
         }
-        return of(Namespace.of(namespace), path);
+        return intern(namespace, path);
     }
 
     public static @NotNull Identifier of(@NotNull final Namespace namespace, @NotNull final String id) {
-        return CACHE.get(new IdentifierCacheKey(namespace, id), IDENTIFIER_FACTORY);
+        final Identifier cached = IdentifierTable.get(namespace, id);
+        return cached != null ? cached : intern(namespace, id);
+    }
+
+    private static @NotNull Identifier intern(@NotNull final Namespace namespace, @NotNull final String id) {
+        final Identifier identifier = CACHE.get(new IdentifierCacheKey(namespace, id), IDENTIFIER_FACTORY);
+        IdentifierTable.put(identifier);
+        return identifier;
     }
 
     public static @Nullable Identifier tryParse(@NotNull final String string) {
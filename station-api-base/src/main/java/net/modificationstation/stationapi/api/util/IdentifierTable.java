@@ -0,0 +1,97 @@
+package net.modificationstation.stationapi.api.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static net.modificationstation.stationapi.api.util.Identifier.NAMESPACE_SEPARATOR;
+import static net.modificationstation.stationapi.api.util.Namespace.MINECRAFT;
+
+/**
+ * A lock-free open-addressed table of recently used identifiers in front of {@link Identifier}'s cache.
+ *
+ * <p>Slots are found by the hash of the identifier's string form, which is also {@link Identifier#hashCode()},
+ * so both can be computed straight from the characters being parsed, and a hit
+ * compares characters in place without allocating anything.
+ *
+ * <p>The table only ever holds identifiers returned by the cache, so it can't break
+ * the one instance per identifier rule. Slots are overwritten freely when a probe sequence is full,
+ * which only costs a later cache lookup. Holding an identifier in the table
+ * also keeps the cache's soft reference to it alive.
+ */
+final class IdentifierTable {
+    private static final int CAPACITY = 1 << Math.max(4, Math.min(24, Integer.getInteger("stationapi.identifierTable.bits", 14)));
+    private static final int MASK = CAPACITY - 1;
+    private static final int PROBES = 8;
+    private static final int MINECRAFT_PREFIX_HASH = (MINECRAFT + String.valueOf(NAMESPACE_SEPARATOR)).hashCode();
+
+    private static final AtomicReferenceArray<Identifier> TABLE = new AtomicReferenceArray<>(CAPACITY);
+
+    private IdentifierTable() {}
+
+    /**
+     * {@return the identifier in the given range of the sequence, in the format of {@link Identifier#of(String)}, if it's in the table}
+     */
+    static @Nullable Identifier get(@NotNull CharSequence sequence, int start, int end) {
+        int separator = indexOfSeparator(sequence, start, end);
+        int hash = separator < 0 ?
+                hash(MINECRAFT_PREFIX_HASH, sequence, start, end) :
+                hash(0, sequence, start, end);
+        for (int i = 0; i < PROBES; i++) {
+            Identifier id = TABLE.get(hash + i & MASK);
+            if (id == null) return null;
+            if (id.hashCode() == hash && (separator < 0 ?
+                    id.namespace == MINECRAFT && contentEquals(id.path, sequence, start, end) :
+                    contentEquals(id.toString(), sequence, start, end)
+            )) return id;
+        }
+        return null;
+    }
+
+    /**
+     * {@return the identifier with the given namespace and path, if it's in the table}
+     */
+    static @Nullable Identifier get(@NotNull Namespace namespace, @NotNull String path) {
+        int hash = hash(namespace.hashCode() * 31 + NAMESPACE_SEPARATOR, path, 0, path.length());
+        for (int i = 0; i < PROBES; i++) {
+            Identifier id = TABLE.get(hash + i & MASK);
+            if (id == null) return null;
+            if (id.hashCode() == hash && id.namespace == namespace && id.path.equals(path)) return id;
+        }
+        return null;
+    }
+
+    static void put(@NotNull Identifier id) {
+        int hash = id.hashCode();
+        for (int i = 0; i < PROBES; i++) {
+            int slot = hash + i & MASK;
+            Identifier existing = TABLE.get(slot);
+            if (existing == id || existing == null && TABLE.compareAndSet(slot, null, id)) return;
+        }
+        TABLE.set(hash & MASK, id);
+    }
+
+    static int indexOfSeparator(@NotNull CharSequence sequence, int start, int end) {
+        for (int i = start; i < end; i++)
+            if (sequence.charAt(i) == NAMESPACE_SEPARATOR) return i;
+        return -1;
+    }
+
+    /**
+     * Continues {@link String#hashCode()} from {@code hash} over the characters of the range.
+     */
+    private static int hash(int hash, @NotNull CharSequence sequence, int start, int end) {
+        for (int i = start; i < end; i++) hash = 31 * hash + sequence.charAt(i);
+        return hash;
+    }
+
+    private static boolean contentEquals(@NotNull String string, @NotNull CharSequence sequence, int start, int end) {
+        int length = end - start;
+        if (string.length() != length) return false;
+        if (sequence instanceof String other) return string.regionMatches(0, other, start, length);
+        for (int i = 0; i < length; i++)
+            if (string.charAt(i) != sequence.charAt(start + i)) return false;
+        return true;
+    }
+}
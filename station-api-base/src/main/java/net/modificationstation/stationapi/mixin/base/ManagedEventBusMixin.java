@@ -0,0 +1,20 @@
+package net.modificationstation.stationapi.mixin.base;
+
+import net.mine_diver.unsafeevents.eventbus.ManagedEventBus;
+import net.mine_diver.unsafeevents.listener.Listener;
+import net.modificationstation.stationapi.api.event.ListenedEvents;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(value = ManagedEventBus.class, remap = false)
+class ManagedEventBusMixin {
+    @Inject(
+            method = "register(Lnet/mine_diver/unsafeevents/listener/Listener;)V",
+            at = @At("HEAD")
+    )
+    private void stationapi_markListened(Listener listener, CallbackInfo ci) {
+        ListenedEvents.markListened(listener);
+    }
+}
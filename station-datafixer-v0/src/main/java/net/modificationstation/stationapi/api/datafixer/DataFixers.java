@@ -29,7 +29,8 @@ public final class DataFixers {
 
     private record DataFixerEntry(Supplier<DataFixer> fixer, int currentVersion) {}
     private static final Reference2ReferenceMap<Namespace, DataFixerEntry> DATA_FIXERS = new Reference2ReferenceOpenHashMap<>();
-    private static boolean init;
+    private static volatile boolean init;
+    private static boolean initializing;
 
     public static void registerFixer(Namespace mod, Function<Executor, DataFixer> dataFixer, int currentVersion) {
         registerFixer(mod, () -> dataFixer.apply(Util.getBootstrapExecutor()), currentVersion);
@@ -92,9 +93,18 @@ public final class DataFixers {
     public record UpdateData(Namespace namespace, int saveVersion, int currentVersion) {}
 
     private static void init() {
-        if (!init) {
-            init = true;
-            StationAPI.EVENT_BUS.post(DataFixerRegisterEvent.builder().build());
+        if (init) return;
+        // fixers may be used from several threads at once, e.g. by world conversion,
+        // so other threads must wait for registration to finish
+        synchronized (DataFixers.class) {
+            if (init || initializing) return;
+            initializing = true;
+            try {
+                StationAPI.EVENT_BUS.post(DataFixerRegisterEvent.builder().build());
+            } finally {
+                initializing = false;
+                init = true;
+            }
         }
     }
 }
@@ -0,0 +1,53 @@
+package net.modificationstation.stationapi.impl.world.chunk;
+
+import net.mine_diver.unsafeevents.EventBus;
+import net.mine_diver.unsafeevents.eventbus.ManagedEventBus;
+import net.modificationstation.stationapi.api.event.ListenedEvents;
+import net.modificationstation.stationapi.api.event.block.BlockEvent;
+import net.modificationstation.stationapi.api.event.world.BlockSetEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what the block events of {@link FlattenedChunk} cost when placing a chunk's worth of blocks
+ * and nothing listens to them, before and after they were guarded with {@link ListenedEvents} handles.
+ *
+ * <p>{@link #postAlways} builds and posts a {@link BlockSetEvent} and a {@link BlockEvent.BeforeRemoved}
+ * for every block, like block changes did before. {@link #skipUnlistened} checks the handles first,
+ * like they do now. Writing the blocks themselves costs the same either way, so it's left out,
+ * since it needs a bootstrapped game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockEventsBenchmark {
+    private static final int BLOCKS = 16 * 16 * 128;
+
+    private final EventBus eventBus = new ManagedEventBus();
+    private final ListenedEvents.Handle
+            blockSetListeners = ListenedEvents.of(BlockSetEvent.class),
+            beforeRemovedListeners = ListenedEvents.of(BlockEvent.BeforeRemoved.class);
+
+    @Benchmark
+    public void postAlways(Blackhole blackhole) {
+        for (int i = 0; i < BLOCKS; i++) {
+            int x = i & 15, z = i >> 4 & 15, y = i >> 8;
+            blackhole.consume(eventBus.post(BlockSetEvent.builder().x(x).y(y).z(z).build()).isCanceled());
+            blackhole.consume(eventBus.post(BlockEvent.BeforeRemoved.builder().x(x).y(y).z(z).build()).isCanceled());
+        }
+    }
+
+    @Benchmark
+    public void skipUnlistened(Blackhole blackhole) {
+        for (int i = 0; i < BLOCKS; i++) {
+            int x = i & 15, z = i >> 4 & 15, y = i >> 8;
+            blackhole.consume(blockSetListeners.isListened() && eventBus.post(BlockSetEvent.builder().x(x).y(y).z(z).build()).isCanceled());
+            blackhole.consume(beforeRemovedListeners.isListened() && eventBus.post(BlockEvent.BeforeRemoved.builder().x(x).y(y).z(z).build()).isCanceled());
+        }
+    }
+}
@@ -9,6 +9,7 @@ import net.minecraft.world.BlockView;
 import net.minecraft.world.World;
 import net.modificationstation.stationapi.api.item.ItemConvertible;
 import net.modificationstation.stationapi.api.item.ItemPlacementContext;
+import net.modificationstation.stationapi.api.registry.IntrusiveEntryHolder;
 import net.modificationstation.stationapi.api.registry.RegistryEntry;
 import net.modificationstation.stationapi.api.registry.RemappableRawIdHolder;
 import net.modificationstation.stationapi.api.state.StateManager;
@@ -21,6 +22,7 @@ import java.util.function.ToIntFunction;
 
 public interface StationFlatteningBlock extends
         RemappableRawIdHolder,
+        IntrusiveEntryHolder<Block>,
         ItemConvertible,
         BlockStateHolder,
         DropWithBlockState,
@@ -38,6 +40,7 @@ public interface StationFlatteningBlock extends
         Util.assertImpl();
     }
 
+    @Override
     default RegistryEntry.Reference<Block> getRegistryEntry() {
         return Util.assertImpl();
     }
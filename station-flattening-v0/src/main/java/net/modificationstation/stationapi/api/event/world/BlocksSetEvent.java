@@ -0,0 +1,22 @@
+package net.modificationstation.stationapi.api.event.world;
+
+import lombok.experimental.SuperBuilder;
+import net.mine_diver.unsafeevents.event.Cancelable;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Posted once before a batch of blocks is set in a chunk,
+ * instead of a {@link BlockSetEvent} for each of them.
+ *
+ * <p>The bounds are in world coordinates and include every changed position.
+ * Canceling the event cancels the whole batch.
+ */
+@Cancelable
+@SuperBuilder
+public class BlocksSetEvent extends WorldEvent {
+    public final Chunk chunk;
+    public final int
+            count,
+            minX, minY, minZ,
+            maxX, maxY, maxZ;
+}
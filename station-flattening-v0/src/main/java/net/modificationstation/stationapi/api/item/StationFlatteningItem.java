@@ -8,6 +8,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.BlockView;
 import net.modificationstation.stationapi.api.block.BlockState;
+import net.modificationstation.stationapi.api.registry.IntrusiveEntryHolder;
 import net.modificationstation.stationapi.api.registry.RegistryEntry;
 import net.modificationstation.stationapi.api.registry.RemappableRawIdHolder;
 import net.modificationstation.stationapi.api.util.Util;
@@ -15,7 +16,7 @@ import org.jetbrains.annotations.ApiStatus;
 
 import java.util.Map;
 
-public interface StationFlatteningItem extends RemappableRawIdHolder, ItemConvertible, ItemStrengthWithBlockState {
+public interface StationFlatteningItem extends RemappableRawIdHolder, IntrusiveEntryHolder<Item>, ItemConvertible, ItemStrengthWithBlockState {
 
     Map<Block, Item> BLOCK_ITEMS = new Reference2ReferenceOpenHashMap<>();
 
@@ -30,6 +31,7 @@ public interface StationFlatteningItem extends RemappableRawIdHolder, ItemConver
         return Util.assertImpl();
     }
 
+    @Override
     default RegistryEntry.Reference<Item> getRegistryEntry() {
         return Util.assertImpl();
     }
@@ -0,0 +1,80 @@
+package net.modificationstation.stationapi.api.server.world;
+
+import net.modificationstation.stationapi.impl.server.world.ChunkPregeneratorImpl;
+
+import java.util.Optional;
+
+/**
+ * Generates and populates every chunk within a square radius of a dimension ahead of time,
+ * on a dedicated server, so that players don't have to fly around to get a map generated.
+ *
+ * <p>Chunks are generated in a spiral from the center outwards over several ticks,
+ * within a time budget per tick, and are saved and unloaded again as soon as
+ * all chunks around them are populated. Progress is stored in the world's properties,
+ * and a task that was running when the server stopped resumes once it starts again.
+ *
+ * <p>The pre-generator can also be started with system properties: {@code stationapi.pregen.radius},
+ * {@code stationapi.pregen.dimension}, {@code stationapi.pregen.centerX} and {@code stationapi.pregen.centerZ},
+ * in chunks, start a task when the server starts if the dimension doesn't have one yet.
+ * {@code stationapi.pregen.tickBudget} sets the milliseconds spent on it each tick,
+ * and {@code stationapi.pregen.maxLoadedChunks} how many chunks it may keep loaded at once.
+ */
+public final class ChunkPregenerator {
+    private ChunkPregenerator() {}
+
+    /**
+     * Starts pre-generating a dimension, replacing its current task if there's one.
+     *
+     * @param dimension the serial ID of the dimension
+     * @param centerX   the center chunk's X
+     * @param centerZ   the center chunk's Z
+     * @param radius    the radius in chunks, the area generated is {@code (2 * radius + 1)} chunks wide
+     * @throws IllegalArgumentException if the dimension doesn't exist or the radius is negative
+     */
+    public static void start(int dimension, int centerX, int centerZ, int radius) {
+        ChunkPregeneratorImpl.start(dimension, centerX, centerZ, radius);
+    }
+
+    /**
+     * Stops and forgets the dimension's task.
+     *
+     * @return whether the dimension had a task
+     */
+    public static boolean cancel(int dimension) {
+        return ChunkPregeneratorImpl.cancel(dimension);
+    }
+
+    /**
+     * Pauses or resumes the dimension's task. A paused task stays paused after restarts.
+     *
+     * @return whether the dimension has a task
+     */
+    public static boolean setPaused(int dimension, boolean paused) {
+        return ChunkPregeneratorImpl.setPaused(dimension, paused);
+    }
+
+    /**
+     * {@return the progress of the dimension's task, if it has one}
+     */
+    public static Optional<Progress> getProgress(int dimension) {
+        return ChunkPregeneratorImpl.getProgress(dimension);
+    }
+
+    /**
+     * A snapshot of a pre-generation task's progress.
+     *
+     * @param processedChunks the chunks processed so far, including the ones that already existed
+     * @param totalChunks     the chunks the task processes in total
+     * @param chunksPerSecond the recent rate at which chunks are processed
+     * @param loadedChunks    the chunks the task currently keeps loaded
+     */
+    public record Progress(
+            int dimension, int centerX, int centerZ, int radius,
+            long processedChunks, long totalChunks,
+            double chunksPerSecond, int loadedChunks, boolean paused
+    ) {
+        public double getFraction() {
+            return totalChunks == 0 ? 1 : (double) processedChunks / totalChunks;
+        }
+    }
+}
@@ -32,8 +32,11 @@ public class FlattenedClientPlayNetworkHandler extends StationFlatteningPacketHa
         Chunk chunk = world.method_214(packet.chunkX, packet.chunkZ);
         if (chunk instanceof FlattenedChunk flatteningChunk) {
             ByteBuffer buf = ByteBuffer.wrap(packet.sectionsData);
-            for (int i = 0; i < world.countVerticalSections(); i++)
-                flatteningChunk.getOrCreateSection(world.sectionIndexToCoord(i) << 4, true).readDataPacket(buf);
+            for (int i = 0; i < world.countVerticalSections(); i++) {
+                if (packet.sectionsMask.get(i))
+                    flatteningChunk.getOrCreateSection(world.sectionIndexToCoord(i) << 4, true).readDataPacket(buf);
+                else flatteningChunk.sections[i] = null;
+            }
         }
         chunk.populateHeightmap();
         world.method_202(fromX, world.getBottomY(), fromZ, fromX + 16, world.getTopY(), fromZ + 16);
@@ -0,0 +1,86 @@
+package net.modificationstation.stationapi.impl.packet;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression shared by the chunk data packets.
+ *
+ * <p>Deflaters, inflaters and scratch buffers are kept per thread and reused,
+ * instead of being allocated for every packet.
+ *
+ * <p>The compression level can be set with the {@code stationapi.chunkPacket.compressionLevel}
+ * system property, from {@code 0} (no compression) to {@code 9} (best compression).
+ */
+public final class ChunkDataCompression {
+    public static final int COMPRESSION_LEVEL = getCompressionLevel();
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(COMPRESSION_LEVEL));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+    private static final ThreadLocal<byte[]> RAW_BUFFER = ThreadLocal.withInitial(() -> new byte[1 << 16]);
+    private static final ThreadLocal<byte[]> COMPRESSED_BUFFER = ThreadLocal.withInitial(() -> new byte[1 << 16]);
+
+    private ChunkDataCompression() {}
+
+    private static int getCompressionLevel() {
+        int level = Integer.getInteger("stationapi.chunkPacket.compressionLevel", Deflater.DEFAULT_COMPRESSION);
+        return level == Deflater.DEFAULT_COMPRESSION ? level : Math.max(Deflater.NO_COMPRESSION, Math.min(Deflater.BEST_COMPRESSION, level));
+    }
+
+    /**
+     * {@return this thread's scratch buffer for uncompressed data, at least {@code size} bytes long}
+     *
+     * <p>The contents are only valid until the next call on the same thread.
+     */
+    public static byte[] getRawBuffer(int size) {
+        byte[] buffer = RAW_BUFFER.get();
+        if (buffer.length < size) RAW_BUFFER.set(buffer = new byte[size]);
+        return buffer;
+    }
+
+    /**
+     * {@return this thread's scratch buffer for compressed data, at least {@code size} bytes long}
+     *
+     * <p>The contents are only valid until the next call on the same thread.
+     */
+    public static byte[] getCompressedBuffer(int size) {
+        byte[] buffer = COMPRESSED_BUFFER.get();
+        if (buffer.length < size) COMPRESSED_BUFFER.set(buffer = new byte[size]);
+        return buffer;
+    }
+
+    /**
+     * {@return the compressed form of the first {@code length} bytes of {@code data}, trimmed to its size}
+     */
+    public static byte[] deflate(byte[] data, int length) {
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+        byte[] buffer = COMPRESSED_BUFFER.get();
+        int size = 0;
+        while (!deflater.finished()) {
+            if (size == buffer.length) COMPRESSED_BUFFER.set(buffer = Arrays.copyOf(buffer, buffer.length << 1));
+            size += deflater.deflate(buffer, size, buffer.length - size);
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Decompresses the first {@code length} bytes of {@code compressed} into {@code out}.
+     */
+    public static void inflate(byte[] compressed, int length, byte[] out) throws DataFormatException {
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(compressed, 0, length);
+        int size = 0;
+        while (size < out.length && !inflater.finished()) {
+            int inflated = inflater.inflate(out, size, out.length - size);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                throw new DataFormatException("Truncated compressed data");
+            size += inflated;
+        }
+    }
+}
@@ -8,23 +8,25 @@ import net.minecraft.world.World;
 import net.modificationstation.stationapi.api.network.packet.ManagedPacket;
 import net.modificationstation.stationapi.api.network.packet.PacketType;
 import net.modificationstation.stationapi.impl.network.StationFlatteningPacketHandler;
-import net.modificationstation.stationapi.impl.world.chunk.ChunkSection;
+import net.modificationstation.stationapi.impl.server.network.ChunkDataCache;
 import net.modificationstation.stationapi.impl.world.chunk.FlattenedChunk;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.Objects;
+import java.util.BitSet;
 import java.util.zip.DataFormatException;
-import java.util.zip.Deflater;
-import java.util.zip.Inflater;
 
 public class FlattenedChunkDataS2CPacket extends ChunkDataS2CPacket implements ManagedPacket<FlattenedChunkDataS2CPacket> {
     public static final PacketType<FlattenedChunkDataS2CPacket> TYPE = PacketType.builder(true, false, FlattenedChunkDataS2CPacket::new).build();
 
     public int chunkX, chunkZ;
+    /**
+     * Which sections are present in {@link #sectionsData}. The rest only hold default data and are omitted.
+     */
+    public BitSet sectionsMask;
+    private int realSectionsSize;
     private int sectionsSize;
     public byte[] sectionsData;
 
@@ -34,29 +36,11 @@ public class FlattenedChunkDataS2CPacket extends ChunkDataS2CPacket implements M
     public FlattenedChunkDataS2CPacket(World world, int chunkX, int chunkZ) {
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
-        FlattenedChunk chunk = (FlattenedChunk) world.method_214(chunkX, chunkZ);
-        ChunkSection[] sections = chunk.sections;
-        byte[] sectionsData = new byte[getSectionsPacketSize(chunk)];
-        ByteBuffer buf = ByteBuffer.wrap(sectionsData);
-        for (ChunkSection section : sections) {
-            Objects.requireNonNullElse(section, ChunkSection.EMPTY).toPacket(buf);
-        }
-        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
-        try {
-            deflater.setInput(sectionsData);
-            deflater.finish();
-            this.sectionsData = new byte[sectionsData.length];
-            sectionsSize = deflater.deflate(this.sectionsData);
-        } finally {
-            deflater.end();
-        }
-    }
-
-    private static int getSectionsPacketSize(FlattenedChunk chunk) {
-        int i = 0;
-        for (ChunkSection chunkSection : chunk.sections)
-            i += Objects.requireNonNullElse(chunkSection, ChunkSection.EMPTY).getPacketSize();
-        return i;
+        ChunkDataCache.Payload payload = ChunkDataCache.get(world, (FlattenedChunk) world.method_214(chunkX, chunkZ));
+        sectionsMask = payload.sectionsMask();
+        realSectionsSize = payload.realSize();
+        sectionsData = payload.data();
+        sectionsSize = sectionsData.length;
     }
 
     @Override
@@ -64,19 +48,18 @@ public class FlattenedChunkDataS2CPacket extends ChunkDataS2CPacket implements M
         try {
             chunkX = in.readInt();
             chunkZ = in.readInt();
-            int realSectionsSize = in.readInt();
-            int sectionsSize = in.readInt();
-            byte[] sectionsData = new byte[sectionsSize];
-            in.readFully(sectionsData);
-            this.sectionsData = new byte[realSectionsSize];
-            Inflater inflater = new Inflater();
-            inflater.setInput(sectionsData);
+            byte[] mask = new byte[in.readUnsignedShort()];
+            in.readFully(mask);
+            sectionsMask = BitSet.valueOf(mask);
+            realSectionsSize = in.readInt();
+            sectionsSize = in.readInt();
+            byte[] compressedData = ChunkDataCompression.getCompressedBuffer(sectionsSize);
+            in.readFully(compressedData, 0, sectionsSize);
+            sectionsData = new byte[realSectionsSize];
             try {
-                inflater.inflate(this.sectionsData);
+                ChunkDataCompression.inflate(compressedData, sectionsSize, sectionsData);
             } catch (DataFormatException dataFormatException) {
                 throw new IOException("Bad compressed data format");
-            } finally {
-                inflater.end();
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -88,7 +71,10 @@ public class FlattenedChunkDataS2CPacket extends ChunkDataS2CPacket implements M
         try {
             out.writeInt(chunkX);
             out.writeInt(chunkZ);
-            out.writeInt(sectionsData.length);
+            byte[] mask = sectionsMask.toByteArray();
+            out.writeShort(mask.length);
+            out.write(mask);
+            out.writeInt(realSectionsSize);
             out.writeInt(sectionsSize);
             out.write(sectionsData, 0, sectionsSize);
         } catch (IOException e) {
@@ -103,7 +89,7 @@ public class FlattenedChunkDataS2CPacket extends ChunkDataS2CPacket implements M
 
     @Override
     public int size() {
-        return 16 + sectionsSize;
+        return 18 + (sectionsMask.length() + 7 >> 3) + sectionsSize;
     }
 
     @Override
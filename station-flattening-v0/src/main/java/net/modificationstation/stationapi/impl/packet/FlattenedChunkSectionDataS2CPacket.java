@@ -17,13 +17,12 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.zip.DataFormatException;
-import java.util.zip.Deflater;
-import java.util.zip.Inflater;
 
 public class FlattenedChunkSectionDataS2CPacket extends Packet implements ManagedPacket<FlattenedChunkSectionDataS2CPacket> {
     public static final PacketType<FlattenedChunkSectionDataS2CPacket> TYPE = PacketType.builder(true, false, FlattenedChunkSectionDataS2CPacket::new).build();
 
     public int chunkX, chunkZ, sectionIndex;
+    private int realSectionSize;
     private int sectionSize;
     public byte[] sectionData;
 
@@ -39,18 +38,12 @@ public class FlattenedChunkSectionDataS2CPacket extends Packet implements Manage
         this.sectionIndex = sectionIndex;
         FlattenedChunk chunk = (FlattenedChunk) world.method_214(chunkX, chunkZ);
         ChunkSection section = Objects.requireNonNullElse(chunk.sections[sectionIndex], ChunkSection.EMPTY);
-        byte[] sectionData = new byte[section.getPacketSize()];
-        ByteBuffer buf = ByteBuffer.wrap(sectionData);
-        section.toPacket(buf);
-        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
-        try {
-            deflater.setInput(sectionData);
-            deflater.finish();
-            this.sectionData = new byte[sectionData.length];
-            sectionSize = deflater.deflate(this.sectionData);
-        } finally {
-            deflater.end();
-        }
+        int size = section.getPacketSize();
+        byte[] rawData = ChunkDataCompression.getRawBuffer(size);
+        section.toPacket(ByteBuffer.wrap(rawData, 0, size));
+        realSectionSize = size;
+        sectionData = ChunkDataCompression.deflate(rawData, size);
+        sectionSize = sectionData.length;
     }
 
     @Override
@@ -59,19 +52,15 @@ public class FlattenedChunkSectionDataS2CPacket extends Packet implements Manage
             chunkX = in.readInt();
             chunkZ = in.readInt();
             sectionIndex = in.read();
-            int realSectionSize = in.readInt();
-            int sectionSize = in.readInt();
-            byte[] sectionData = new byte[sectionSize];
-            in.readFully(sectionData);
-            this.sectionData = new byte[realSectionSize];
-            Inflater inflater = new Inflater();
-            inflater.setInput(sectionData);
+            realSectionSize = in.readInt();
+            sectionSize = in.readInt();
+            byte[] compressedData = ChunkDataCompression.getCompressedBuffer(sectionSize);
+            in.readFully(compressedData, 0, sectionSize);
+            sectionData = new byte[realSectionSize];
             try {
-                inflater.inflate(this.sectionData);
+                ChunkDataCompression.inflate(compressedData, sectionSize, sectionData);
             } catch (DataFormatException dataFormatException) {
                 throw new IOException("Bad compressed data format");
-            } finally {
-                inflater.end();
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -84,7 +73,7 @@ public class FlattenedChunkSectionDataS2CPacket extends Packet implements Manage
             out.writeInt(chunkX);
             out.writeInt(chunkZ);
             out.write(sectionIndex);
-            out.writeInt(sectionData.length);
+            out.writeInt(realSectionSize);
             out.writeInt(sectionSize);
             out.write(sectionData, 0, sectionSize);
         } catch (IOException e) {
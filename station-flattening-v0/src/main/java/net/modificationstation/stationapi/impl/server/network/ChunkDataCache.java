@@ -0,0 +1,157 @@
+package net.modificationstation.stationapi.impl.server.network;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.world.World;
+import net.modificationstation.stationapi.impl.packet.ChunkDataCompression;
+import net.modificationstation.stationapi.impl.util.math.ChunkPos;
+import net.modificationstation.stationapi.impl.world.chunk.ChunkSection;
+import net.modificationstation.stationapi.impl.world.chunk.FlattenedChunk;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.concurrent.*;
+
+import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
+
+/**
+ * Server-side cache of encoded and compressed chunk data packet payloads.
+ *
+ * <p>Payloads are keyed by dimension and chunk position, and are only reused while
+ * {@link FlattenedChunk#getModificationCount()} matches the count they were encoded at,
+ * so any change to the chunk invalidates them. The cache is bounded by the size of
+ * the compressed payloads, set in KiB with the {@code stationapi.chunkPacket.cacheSize}
+ * system property ({@code 0} disables caching).
+ *
+ * <p>Chunks can be {@linkplain #prefetch(World, FlattenedChunk) prefetched}, in which case their sections
+ * are copied on the calling thread and encoded on a worker pool, whose size is set with
+ * the {@code stationapi.chunkPacket.encoderThreads} system property. Requesting a payload
+ * that's being prefetched waits for it instead of encoding the chunk again.
+ */
+public final class ChunkDataCache {
+    private static final long CACHE_SIZE = Math.max(0, Long.getLong("stationapi.chunkPacket.cacheSize", 32 * 1024)) * 1024;
+    private static final int ENCODER_THREADS = Math.max(1, Integer.getInteger("stationapi.chunkPacket.encoderThreads", 2));
+    private static final int ENCODER_QUEUE_SIZE = 1024;
+
+    private static final ExecutorService ENCODER_EXECUTOR = new ThreadPoolExecutor(
+            ENCODER_THREADS, ENCODER_THREADS,
+            0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(ENCODER_QUEUE_SIZE),
+            new ThreadFactoryBuilder().setNameFormat("Chunk-Packet-Encoder-%d").setDaemon(true).build()
+    );
+    private static final Cache<Key, Payload> CACHE = Caffeine.newBuilder()
+            .maximumWeight(CACHE_SIZE)
+            .<Key, Payload>weigher((key, payload) -> payload.data.length)
+            .build();
+    private static final ConcurrentMap<Key, PendingEncode> PENDING = new ConcurrentHashMap<>();
+
+    private ChunkDataCache() {}
+
+    /**
+     * {@return the payload of the chunk in its current state}
+     *
+     * <p>Must be called on the thread that modifies the chunk.
+     */
+    public static Payload get(World world, FlattenedChunk chunk) {
+        Key key = new Key(world.dimension.id, ChunkPos.toLong(chunk.x, chunk.z));
+        int modificationCount = chunk.getModificationCount();
+        Payload payload = CACHE.getIfPresent(key);
+        if (payload != null && payload.isValidFor(chunk, modificationCount)) return payload;
+        PendingEncode pending = PENDING.get(key);
+        if (pending != null && pending.chunk == chunk && pending.modificationCount == modificationCount) {
+            payload = pending.payload.join();
+            if (payload != null) return payload;
+        }
+        payload = encode(chunk, modificationCount, chunk.sections, !world.dimension.field_2177);
+        if (CACHE_SIZE > 0) CACHE.put(key, payload);
+        return payload;
+    }
+
+    /**
+     * Schedules the chunk to be encoded on the worker pool, unless its current state
+     * is already cached or being encoded.
+     *
+     * <p>Must be called on the thread that modifies the chunk.
+     */
+    public static void prefetch(World world, FlattenedChunk chunk) {
+        if (CACHE_SIZE == 0) return;
+        Key key = new Key(world.dimension.id, ChunkPos.toLong(chunk.x, chunk.z));
+        int modificationCount = chunk.getModificationCount();
+        Payload cached = CACHE.getIfPresent(key);
+        if (cached != null && cached.isValidFor(chunk, modificationCount)) return;
+        PendingEncode pending = new PendingEncode(chunk, modificationCount, new CompletableFuture<>());
+        PendingEncode previous = PENDING.putIfAbsent(key, pending);
+        if (previous != null) return;
+        boolean hasSkyLight = !world.dimension.field_2177;
+        ChunkSection[] sections = copySections(chunk, hasSkyLight);
+        try {
+            ENCODER_EXECUTOR.execute(() -> {
+                Payload payload = null;
+                try {
+                    payload = encode(chunk, modificationCount, sections, hasSkyLight);
+                    // don't replace a newer payload of the same chunk encoded in the meantime
+                    CACHE.asMap().merge(key, payload, (oldPayload, newPayload) ->
+                            oldPayload.chunk.get() == chunk && oldPayload.modificationCount - newPayload.modificationCount > 0 ? oldPayload : newPayload
+                    );
+                } catch (Throwable throwable) {
+                    LOGGER.error("Failed to encode chunk at " + chunk.x + ", " + chunk.z, throwable);
+                } finally {
+                    PENDING.remove(key, pending);
+                    pending.payload.complete(payload);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the encoders are backed up, the chunk will be encoded when it's sent
+            PENDING.remove(key, pending);
+            pending.payload.complete(null);
+        }
+    }
+
+    /**
+     * Copies the sections that hold non-default data, leaving {@code null} in place of the rest.
+     */
+    private static ChunkSection[] copySections(FlattenedChunk chunk, boolean hasSkyLight) {
+        ChunkSection[] sections = chunk.sections;
+        ChunkSection[] copies = new ChunkSection[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (!ChunkSection.hasOnlyDefaults(section, hasSkyLight)) copies[i] = section.copy();
+        }
+        return copies;
+    }
+
+    private static Payload encode(FlattenedChunk chunk, int modificationCount, ChunkSection[] sections, boolean hasSkyLight) {
+        BitSet sectionsMask = new BitSet(sections.length);
+        int size = 0;
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (ChunkSection.hasOnlyDefaults(section, hasSkyLight)) continue;
+            sectionsMask.set(i);
+            size += section.getPacketSize();
+        }
+        byte[] rawData = ChunkDataCompression.getRawBuffer(size);
+        ByteBuffer buf = ByteBuffer.wrap(rawData, 0, size);
+        for (int i = sectionsMask.nextSetBit(0); i >= 0; i = sectionsMask.nextSetBit(i + 1))
+            sections[i].toPacket(buf);
+        return new Payload(new WeakReference<>(chunk), modificationCount, sectionsMask, size, ChunkDataCompression.deflate(rawData, size));
+    }
+
+    private record Key(int dimension, long chunkPos) {}
+
+    private record PendingEncode(FlattenedChunk chunk, int modificationCount, CompletableFuture<Payload> payload) {}
+
+    /**
+     * An encoded chunk payload. Shared between packets, so must not be modified.
+     *
+     * @param sectionsMask which sections are present in {@code data}
+     * @param realSize the size of {@code data} once decompressed
+     * @param data the compressed sections
+     */
+    public record Payload(WeakReference<FlattenedChunk> chunk, int modificationCount, BitSet sectionsMask, int realSize, byte[] data) {
+        private boolean isValidFor(FlattenedChunk chunk, int modificationCount) {
+            return this.chunk.get() == chunk && this.modificationCount == modificationCount;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package net.modificationstation.stationapi.impl.server.world;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.fabricmc.loader.api.FabricLoader;
+import net.mine_diver.unsafeevents.listener.EventListener;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.modificationstation.stationapi.api.StationAPI;
+import net.modificationstation.stationapi.api.event.tick.GameTickEvent;
+import net.modificationstation.stationapi.api.event.world.WorldPropertiesEvent;
+import net.modificationstation.stationapi.api.mod.entrypoint.Entrypoint;
+import net.modificationstation.stationapi.api.mod.entrypoint.EventBusPolicy;
+import net.modificationstation.stationapi.api.registry.DimensionRegistry;
+import net.modificationstation.stationapi.api.server.world.ChunkPregenerator;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
+import static net.modificationstation.stationapi.api.StationAPI.NAMESPACE;
+import static net.modificationstation.stationapi.api.util.Identifier.of;
+
+/**
+ * Runs the {@link ChunkPregenerator} tasks at the end of server ticks and keeps them in the world's properties.
+ */
+@Entrypoint(eventBus = @EventBusPolicy(registerInstance = false))
+@EventListener(phase = StationAPI.INTERNAL_PHASE)
+public final class ChunkPregeneratorImpl {
+    private static final long TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(Math.max(1, Integer.getInteger("stationapi.pregen.tickBudget", 15)));
+    private static final int MAX_LOADED_CHUNKS = Math.max(9, Integer.getInteger("stationapi.pregen.maxLoadedChunks", 1024));
+    /**
+     * Ticks further apart than this mean the server is behind, and only one chunk is generated per tick until it catches up.
+     */
+    private static final long LAG_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+    private static final String TASKS_KEY = of(NAMESPACE, "pregeneration").toString();
+
+    private static final Int2ObjectLinkedOpenHashMap<PregenTask> TASKS = new Int2ObjectLinkedOpenHashMap<>();
+    private static long lastTick;
+    private static long lastLog;
+    private static volatile int viewDistance = 10;
+
+    public static void registerChunkCache(World world, StationServerChunkCache cache) {
+        ((StationServerWorld) world).stationapi_setChunkCache(cache);
+    }
+
+    public static void setViewDistance(int viewDistance) {
+        ChunkPregeneratorImpl.viewDistance = viewDistance;
+    }
+
+    /**
+     * {@return whether the chunk may be in a player's view}
+     *
+     * <p>Player chunk maps only move a player's view once they moved far enough,
+     * so a chunk counts as watched a chunk past the view distance too.
+     */
+    public static boolean isWatched(World world, int x, int z) {
+        int distance = viewDistance + 1;
+        for (Object o : world.players) {
+            PlayerEntity player = (PlayerEntity) o;
+            if (Math.abs((MathHelper.floor(player.x) >> 4) - x) <= distance && Math.abs((MathHelper.floor(player.z) >> 4) - z) <= distance)
+                return true;
+        }
+        return false;
+    }
+
+    public static synchronized void start(int dimension, int centerX, int centerZ, int radius) {
+        if (radius < 0) throw new IllegalArgumentException("Negative pre-generation radius: " + radius + "!");
+        if (DimensionRegistry.INSTANCE.getIdByLegacyId(dimension).isEmpty())
+            throw new IllegalArgumentException("Unknown dimension: " + dimension + "!");
+        PregenTask task = new PregenTask(dimension, centerX, centerZ, radius);
+        PregenTask old = TASKS.put(dimension, task);
+        if (old != null) {
+            StationServerChunkCache cache = getChunkCache(dimension);
+            if (cache != null) old.unloadAll(cache);
+        }
+        LOGGER.info("Pre-generating " + task.total + " chunks of dimension " + dimension + " around chunk " + centerX + ", " + centerZ);
+    }
+
+    public static synchronized boolean cancel(int dimension) {
+        PregenTask task = TASKS.remove(dimension);
+        if (task == null) return false;
+        StationServerChunkCache cache = getChunkCache(dimension);
+        if (cache != null) task.unloadAll(cache);
+        return true;
+    }
+
+    public static synchronized boolean setPaused(int dimension, boolean paused) {
+        PregenTask task = TASKS.get(dimension);
+        if (task == null) return false;
+        if (task.paused != paused) {
+            task.paused = paused;
+            task.resetRate();
+        }
+        return true;
+    }
+
+    public static synchronized Optional<ChunkPregenerator.Progress> getProgress(int dimension) {
+        return Optional.ofNullable(TASKS.get(dimension)).map(PregenTask::getProgress);
+    }
+
+    @EventListener
+    private static synchronized void tick(GameTickEvent.End event) {
+        long now = System.nanoTime();
+        boolean lagging = lastTick != 0 && now - lastTick > LAG_THRESHOLD;
+        lastTick = now;
+        if (TASKS.isEmpty()) return;
+
+        long deadline = now + TICK_BUDGET;
+        boolean log = now - lastLog >= LOG_INTERVAL;
+        if (log) lastLog = now;
+        for (ObjectIterator<PregenTask> iterator = TASKS.values().iterator(); iterator.hasNext(); ) {
+            PregenTask task = iterator.next();
+            if (task.paused) continue;
+            StationServerChunkCache cache = getChunkCache(task.dimension);
+            if (cache == null) continue;
+            do task.step(cache, MAX_LOADED_CHUNKS);
+            while (!lagging && !task.isDone() && System.nanoTime() < deadline);
+            task.updateRate(System.nanoTime());
+            if (task.isDone()) {
+                iterator.remove();
+                LOGGER.info("Finished pre-generating dimension " + task.dimension);
+            } else if (log) log(task.getProgress());
+            if (lagging || System.nanoTime() >= deadline) break;
+        }
+    }
+
+    private static void log(ChunkPregenerator.Progress progress) {
+        double rate = progress.chunksPerSecond();
+        String eta = rate > 0 ? (long) ((progress.totalChunks() - progress.processedChunks()) / rate) + "s" : "unknown";
+        LOGGER.info(String.format(
+                "Pre-generating dimension %d: %d/%d chunks (%.1f%%), %.1f chunks/s, %d loaded, ETA %s",
+                progress.dimension(), progress.processedChunks(), progress.totalChunks(), progress.getFraction() * 100,
+                rate, progress.loadedChunks(), eta
+        ));
+    }
+
+    private static StationServerChunkCache getChunkCache(int dimension) {
+        //noinspection deprecation
+        MinecraftServer server = (MinecraftServer) FabricLoader.getInstance().getGameInstance();
+        if (server == null || DimensionRegistry.INSTANCE.getIdByLegacyId(dimension).isEmpty()) return null;
+        World world = server.method_2157(dimension);
+        return world == null ? null : ((StationServerWorld) world).stationapi_getChunkCache();
+    }
+
+    @EventListener
+    private static synchronized void save(WorldPropertiesEvent.Save event) {
+        if (TASKS.isEmpty()) return;
+        NbtList tasks = new NbtList();
+        for (PregenTask task : TASKS.values()) tasks.add(task.write());
+        event.nbt.put(TASKS_KEY, tasks);
+    }
+
+    @EventListener
+    private static synchronized void load(WorldPropertiesEvent.LoadOnWorldInit event) {
+        TASKS.clear();
+        lastTick = 0;
+        if (event.nbt.contains(TASKS_KEY)) {
+            NbtList tasks = event.nbt.getList(TASKS_KEY);
+            for (int i = 0; i < tasks.size(); i++) {
+                PregenTask task = PregenTask.read((NbtCompound) tasks.get(i));
+                if (DimensionRegistry.INSTANCE.getIdByLegacyId(task.dimension).isEmpty()) {
+                    LOGGER.warn("Dropping the pre-generation task of unknown dimension " + task.dimension);
+                    continue;
+                }
+                TASKS.put(task.dimension, task);
+                LOGGER.info("Resuming pre-generation of dimension " + task.dimension + " at " + task.next + "/" + task.total + " chunks");
+            }
+        }
+        int radius = Integer.getInteger("stationapi.pregen.radius", -1);
+        if (radius >= 0) {
+            int dimension = Integer.getInteger("stationapi.pregen.dimension", 0);
+            if (!TASKS.containsKey(dimension)) start(
+                    dimension,
+                    Integer.getInteger("stationapi.pregen.centerX", 0),
+                    Integer.getInteger("stationapi.pregen.centerZ", 0),
+                    radius
+            );
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package net.modificationstation.stationapi.impl.server.world;
+
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.nbt.NbtCompound;
+import net.modificationstation.stationapi.api.server.world.ChunkPregenerator;
+import net.modificationstation.stationapi.impl.util.math.ChunkPos;
+
+/**
+ * A pre-generation task of a single dimension.
+ *
+ * <p>Chunks are visited in a square spiral, ring by ring, and the index in the spiral
+ * is all that needs to be saved to resume. The spiral goes one ring past the radius,
+ * since a chunk is only populated once the chunks next to it are loaded.
+ *
+ * <p>Only chunks the task loaded itself are unloaded again, and only if they're outside
+ * the spawn area and no player watches them, like vanilla does. A chunk is unloaded once all
+ * 8 chunks around it have been visited, since by then it and the chunks that populate
+ * into it are populated. If too many chunks wait for that, the oldest are unloaded
+ * anyway, and the cache populates them when their neighbours are loaded later.
+ */
+final class PregenTask {
+    final int dimension, centerX, centerZ, radius;
+    /**
+     * The half width of the visited square, one ring past the radius.
+     */
+    private final int extent;
+    final long total;
+    long next;
+    boolean paused;
+    private final LongLinkedOpenHashSet loaded = new LongLinkedOpenHashSet();
+
+    private long rateStart = System.nanoTime();
+    private long rateProcessed;
+    private double chunksPerSecond;
+
+    PregenTask(int dimension, int centerX, int centerZ, int radius) {
+        this.dimension = dimension;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        extent = radius + 1;
+        long side = 2L * extent + 1;
+        total = side * side;
+    }
+
+    boolean isDone() {
+        return next >= total;
+    }
+
+    /**
+     * Loads the next chunk of the spiral and unloads the chunks around it that are done.
+     */
+    void step(StationServerChunkCache cache, int maxLoaded) {
+        long offset = getOffset(next++);
+        int dx = (int) offset, dz = (int) (offset >> 32);
+        int x = centerX + dx, z = centerZ + dz;
+        boolean wasLoaded = cache.stationapi_isChunkLoaded(x, z);
+        cache.stationapi_loadChunk(x, z);
+        if (!wasLoaded) loaded.add(ChunkPos.toLong(x, z));
+
+        for (int nx = dx - 1; nx <= dx + 1; nx++)
+            for (int nz = dz - 1; nz <= dz + 1; nz++) {
+                long key = ChunkPos.toLong(centerX + nx, centerZ + nz);
+                if (loaded.contains(key) && isSurroundingVisited(nx, nz)) {
+                    loaded.remove(key);
+                    cache.stationapi_queueUnload(centerX + nx, centerZ + nz);
+                }
+            }
+        while (loaded.size() > maxLoaded) unload(cache, loaded.removeFirstLong());
+        if (isDone()) unloadAll(cache);
+    }
+
+    void unloadAll(StationServerChunkCache cache) {
+        while (!loaded.isEmpty()) unload(cache, loaded.removeFirstLong());
+    }
+
+    private static void unload(StationServerChunkCache cache, long key) {
+        cache.stationapi_queueUnload((int) key, (int) (key >> 32));
+    }
+
+    private boolean isSurroundingVisited(int dx, int dz) {
+        if (Math.abs(dx) >= extent || Math.abs(dz) >= extent) return false;
+        for (int nx = dx - 1; nx <= dx + 1; nx++)
+            for (int nz = dz - 1; nz <= dz + 1; nz++)
+                if (getIndex(nx, nz) >= next) return false;
+        return true;
+    }
+
+    /**
+     * Updates the rate of processed chunks, once the last update is at least a second old.
+     */
+    void updateRate(long now) {
+        long elapsed = now - rateStart;
+        if (elapsed < 1_000_000_000L) return;
+        double rate = (next - rateProcessed) * 1e9 / elapsed;
+        chunksPerSecond = chunksPerSecond == 0 ? rate : chunksPerSecond * 0.7 + rate * 0.3;
+        rateStart = now;
+        rateProcessed = next;
+    }
+
+    void resetRate() {
+        rateStart = System.nanoTime();
+        rateProcessed = next;
+        chunksPerSecond = 0;
+    }
+
+    ChunkPregenerator.Progress getProgress() {
+        return new ChunkPregenerator.Progress(
+                dimension, centerX, centerZ, radius,
+                Math.min(next, total), total,
+                chunksPerSecond, loaded.size(), paused
+        );
+    }
+
+    NbtCompound write() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putInt("dimension", dimension);
+        nbt.putInt("x", centerX);
+        nbt.putInt("z", centerZ);
+        nbt.putInt("radius", radius);
+        nbt.putLong("next", next);
+        nbt.putBoolean("paused", paused);
+        return nbt;
+    }
+
+    /**
+     * Reads a saved task. Chunks loaded before the restart are gone,
+     * so the task steps back a ring to let the chunks on the edge populate.
+     */
+    static PregenTask read(NbtCompound nbt) {
+        PregenTask task = new PregenTask(nbt.getInt("dimension"), nbt.getInt("x"), nbt.getInt("z"), nbt.getInt("radius"));
+        long next = nbt.getLong("next");
+        int ring = getRing(next);
+        task.next = ring < 2 ? 0 : getRingStart(ring - 1);
+        task.paused = nbt.getBoolean("paused");
+        task.rateProcessed = task.next;
+        return task;
+    }
+
+    private static int getRing(long index) {
+        int ring = (int) Math.ceil((Math.sqrt(index + 1) - 1) / 2);
+        // correct rounding errors of large indices
+        while (ring > 0 && getRingStart(ring) > index) ring--;
+        while (getRingStart(ring + 1) <= index) ring++;
+        return ring;
+    }
+
+    /**
+     * {@return the index of the first chunk of the ring, the number of chunks inside it}
+     */
+    private static long getRingStart(int ring) {
+        long side = 2L * ring - 1;
+        return ring == 0 ? 0 : side * side;
+    }
+
+    /**
+     * {@return the offset of the chunk at the index of the spiral from the center, X in the low bits}
+     */
+    private static long getOffset(long index) {
+        if (index == 0) return 0;
+        int ring = getRing(index);
+        long offset = index - getRingStart(ring);
+        int side = (int) (offset / (2L * ring));
+        int i = (int) (offset % (2L * ring));
+        int x, z;
+        switch (side) {
+            case 0 -> { x = ring; z = -ring + 1 + i; }
+            case 1 -> { x = ring - 1 - i; z = ring; }
+            case 2 -> { x = -ring; z = ring - 1 - i; }
+            default -> { x = -ring + 1 + i; z = -ring; }
+        }
+        return ChunkPos.toLong(x, z);
+    }
+
+    /**
+     * {@return the index of the chunk at the offset from the center in the spiral}
+     */
+    private static long getIndex(int x, int z) {
+        int ring = Math.max(Math.abs(x), Math.abs(z));
+        if (ring == 0) return 0;
+        long start = getRingStart(ring);
+        if (x == ring && z > -ring) return start + z + ring - 1;
+        if (z == ring) return start + 2L * ring + ring - 1 - x;
+        if (x == -ring) return start + 4L * ring + ring - 1 - z;
+        return start + 6L * ring + x + ring - 1;
+    }
+}
@@ -0,0 +1,26 @@
+package net.modificationstation.stationapi.impl.server.world;
+
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Lets the chunk pre-generator load chunks into the server's chunk cache
+ * and hand back the ones it loaded itself.
+ */
+public interface StationServerChunkCache {
+    /**
+     * {@return whether the chunk is loaded and isn't queued to be unloaded}
+     */
+    boolean stationapi_isChunkLoaded(int x, int z);
+
+    /**
+     * Loads the chunk, generating it if it isn't saved yet, and populates it
+     * and its neighbours once the chunks they need are loaded, like a player would.
+     */
+    Chunk stationapi_loadChunk(int x, int z);
+
+    /**
+     * Queues the chunk to be saved and unloaded by the cache's next tick, if it's loaded,
+     * outside the spawn area, and not watched by a player.
+     */
+    void stationapi_queueUnload(int x, int z);
+}
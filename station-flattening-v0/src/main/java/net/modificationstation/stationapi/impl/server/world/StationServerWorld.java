@@ -0,0 +1,10 @@
+package net.modificationstation.stationapi.impl.server.world;
+
+/**
+ * Gives the chunk pre-generator the chunk cache of a server world.
+ */
+public interface StationServerWorld {
+    StationServerChunkCache stationapi_getChunkCache();
+
+    void stationapi_setChunkCache(StationServerChunkCache chunkCache);
+}
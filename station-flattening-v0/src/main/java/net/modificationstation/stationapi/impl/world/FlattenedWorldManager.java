@@ -6,16 +6,31 @@ import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityRegistry;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtList;
 import net.minecraft.world.LightType;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.modificationstation.stationapi.api.block.BlockState;
 import net.modificationstation.stationapi.api.block.States;
+import net.modificationstation.stationapi.api.nbt.FlatteningNbtHelper;
+import net.modificationstation.stationapi.api.nbt.NbtLongArray;
 import net.modificationstation.stationapi.api.nbt.NbtOps;
+import net.modificationstation.stationapi.api.registry.BlockRegistry;
+import net.modificationstation.stationapi.api.state.StateManager;
+import net.modificationstation.stationapi.api.state.property.Property;
+import net.modificationstation.stationapi.api.util.Identifier;
+import net.modificationstation.stationapi.api.world.HeightLimitView;
 import net.modificationstation.stationapi.impl.world.chunk.ChunkSection;
 import net.modificationstation.stationapi.impl.world.chunk.FlattenedChunk;
 import net.modificationstation.stationapi.impl.world.chunk.PalettedContainer;
+import net.modificationstation.stationapi.mixin.nbt.NbtCompoundAccessor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
 import static net.modificationstation.stationapi.api.StationAPI.NAMESPACE;
@@ -25,6 +40,9 @@ public class FlattenedWorldManager {
 
     private static final Codec<PalettedContainer<BlockState>> CODEC = PalettedContainer.createCodec(Block.STATE_IDS, BlockState.CODEC, PalettedContainer.PaletteProvider.BLOCK_STATE, States.AIR.get());
     public static final String SECTIONS = of(NAMESPACE, "sections").toString();
+    private static final String BLOCK_STATES_KEY = "block_states";
+    private static final String PALETTE_KEY = "palette";
+    private static final String STORAGE_KEY = "data";
     private static final String METADATA_KEY = "data";
     private static final String SKY_LIGHT_KEY = "sky_light";
     private static final String BLOCK_LIGHT_KEY = "block_light";
@@ -33,19 +51,40 @@ public class FlattenedWorldManager {
 
     public static void saveChunk(FlattenedChunk chunk, World world, NbtCompound chunkTag) {
         world.method_251();
-        chunkTag.putInt("xPos", chunk.x);
-        chunkTag.putInt("zPos", chunk.z);
-        chunkTag.putLong("LastUpdate", world.getTime());
+        saveChunkData(chunk, world, chunkTag);
+        saveSections(chunk.sections, world, chunkTag);
+    }
+
+    /**
+     * {@return deep copies of the chunk's sections, suitable for {@link #saveSections(ChunkSection[], HeightLimitView, NbtCompound)}
+     * to be called on another thread}
+     */
+    public static ChunkSection[] copySections(FlattenedChunk chunk) {
         ChunkSection[] sections = chunk.sections;
+        ChunkSection[] copies = new ChunkSection[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (!ChunkSection.isEmpty(section)) copies[i] = section.copy();
+        }
+        return copies;
+    }
+
+    /**
+     * Writes the given sections into the chunk tag.
+     *
+     * <p>This only reads the sections and the height limits, so it's safe to call off-thread
+     * as long as the sections aren't being modified, see {@link #copySections(FlattenedChunk)}.
+     */
+    public static void saveSections(ChunkSection[] sections, HeightLimitView heightLimit, NbtCompound chunkTag) {
         NbtList sectionTags = new NbtList();
-        for (int sectionY = world.getBottomSectionCoord(); sectionY < world.getTopSectionCoord() + 2; ++sectionY) {
-            int index = world.sectionCoordToIndex(sectionY);
+        for (int sectionY = heightLimit.getBottomSectionCoord(); sectionY < heightLimit.getTopSectionCoord() + 2; ++sectionY) {
+            int index = heightLimit.sectionCoordToIndex(sectionY);
             if (index < 0 || index >= sections.length) continue;
             ChunkSection section = sections[index];
             if (!ChunkSection.isEmpty(section)) {
                 NbtCompound sectionTag = new NbtCompound();
                 sectionTag.putByte(HEIGHT_KEY, (byte)sectionY);
-                sectionTag.put("block_states", CODEC.encodeStart(NbtOps.INSTANCE, section.getBlockStateContainer()).getOrThrow(false, LOGGER::error));
+                sectionTag.put(BLOCK_STATES_KEY, writeBlockStates(section.getBlockStateContainer()));
                 sectionTag.put(METADATA_KEY, section.getMetadataArray().toTag());
                 sectionTag.put(SKY_LIGHT_KEY, section.getLightArray(LightType.SKY).toTag());
                 sectionTag.put(BLOCK_LIGHT_KEY, section.getLightArray(LightType.BLOCK).toTag());
@@ -53,6 +92,17 @@ public class FlattenedWorldManager {
             }
         }
         chunkTag.put(SECTIONS, sectionTags);
+    }
+
+    /**
+     * Writes everything but the sections into the chunk tag.
+     *
+     * <p>Entities and block entities are serialized here, so this must be called on the thread that owns the world.
+     */
+    public static void saveChunkData(FlattenedChunk chunk, World world, NbtCompound chunkTag) {
+        chunkTag.putInt("xPos", chunk.x);
+        chunkTag.putInt("zPos", chunk.z);
+        chunkTag.putLong("LastUpdate", world.getTime());
         chunkTag.putByteArray(HEIGHTMAP_KEY, chunk.getStoredHeightmap());
         chunkTag.putBoolean("TerrainPopulated", chunk.field_966);
         chunk.field_969 = false;
@@ -87,11 +137,12 @@ public class FlattenedWorldManager {
                 int sectionY = sectionTag.getByte(HEIGHT_KEY);
                 int index = world.sectionCoordToIndex(sectionY);
                 if (index < 0 || index >= sections.length) continue;
-                PalettedContainer<BlockState> blockStates = sectionTag.contains("block_states") ? CODEC.parse(NbtOps.INSTANCE, sectionTag.getCompound("block_states")).promotePartial(errorMessage -> logRecoverableError(xPos, zPos, sectionY, errorMessage)).getOrThrow(false, LOGGER::error) : new PalettedContainer<>(Block.STATE_IDS, States.AIR.get(), PalettedContainer.PaletteProvider.BLOCK_STATE);
+                PalettedContainer<BlockState> blockStates = sectionTag.contains(BLOCK_STATES_KEY) ? readBlockStates(sectionTag.getCompound(BLOCK_STATES_KEY), xPos, zPos, sectionY) : new PalettedContainer<>(Block.STATE_IDS, States.AIR.get(), PalettedContainer.PaletteProvider.BLOCK_STATE);
                 ChunkSection chunkSection = new ChunkSection(sectionY, blockStates);
                 chunkSection.getMetadataArray().copyArray(sectionTag.getByteArray(METADATA_KEY));
                 chunkSection.getLightArray(LightType.SKY).copyArray(sectionTag.getByteArray(SKY_LIGHT_KEY));
                 chunkSection.getLightArray(LightType.BLOCK).copyArray(sectionTag.getByteArray(BLOCK_LIGHT_KEY));
+                chunkSection.markModified();
                 sections[index] = chunkSection;
             }
         }
@@ -119,6 +170,74 @@ public class FlattenedWorldManager {
         return chunk;
     }
 
+    /**
+     * Writes the block states of a section directly into NBT.
+     *
+     * <p>The output is identical to what {@link #CODEC} produces,
+     * but skips the intermediate {@link com.mojang.serialization.DataResult}
+     * and {@link NbtOps} structures the codec builds for every section.
+     */
+    private static NbtCompound writeBlockStates(PalettedContainer<BlockState> container) {
+        PalettedContainer.RawData<BlockState> raw = container.writeRaw();
+        NbtCompound blockStatesTag = new NbtCompound();
+        NbtList paletteTag = new NbtList();
+        for (BlockState state : raw.paletteEntries()) paletteTag.add(FlatteningNbtHelper.fromBlockState(state));
+        blockStatesTag.put(PALETTE_KEY, paletteTag);
+        long[] storage = raw.storage();
+        if (storage != null) blockStatesTag.put(STORAGE_KEY, storage);
+        return blockStatesTag;
+    }
+
+    /**
+     * Reads the block states of a section, trying the direct path first
+     * and falling back to {@link #CODEC} if the data contains unknown blocks,
+     * unknown properties or is otherwise malformed, so that the codec
+     * can recover what it can and report the errors.
+     */
+    private static PalettedContainer<BlockState> readBlockStates(NbtCompound blockStatesTag, int chunkX, int chunkZ, int sectionY) {
+        PalettedContainer<BlockState> blockStates = readBlockStatesDirect(blockStatesTag);
+        return blockStates != null ? blockStates : CODEC.parse(NbtOps.INSTANCE, blockStatesTag).promotePartial(errorMessage -> logRecoverableError(chunkX, chunkZ, sectionY, errorMessage)).getOrThrow(false, LOGGER::error);
+    }
+
+    private static @Nullable PalettedContainer<BlockState> readBlockStatesDirect(NbtCompound blockStatesTag) {
+        Map<String, NbtElement> entries = ((NbtCompoundAccessor) blockStatesTag).stationapi$getEntries();
+        if (!(entries.get(PALETTE_KEY) instanceof NbtList paletteTag) || paletteTag.size() == 0) return null;
+        List<BlockState> paletteEntries = new ArrayList<>(paletteTag.size());
+        for (int i = 0; i < paletteTag.size(); i++) {
+            if (!(paletteTag.get(i) instanceof NbtCompound stateTag)) return null;
+            BlockState state = readBlockState(stateTag);
+            if (state == null) return null;
+            paletteEntries.add(state);
+        }
+        long[] storage = entries.get(STORAGE_KEY) instanceof NbtLongArray storageTag ? storageTag.data : null;
+        return PalettedContainer.read(Block.STATE_IDS, PalettedContainer.PaletteProvider.BLOCK_STATE, paletteEntries, storage).result().orElse(null);
+    }
+
+    private static @Nullable BlockState readBlockState(NbtCompound stateTag) {
+        if (!stateTag.contains("Name")) return null;
+        Identifier id = Identifier.tryParse(stateTag.getString("Name"));
+        if (id == null) return null;
+        Block block = BlockRegistry.INSTANCE.get(id);
+        if (block == null) return null;
+        BlockState state = block.getDefaultState();
+        if (stateTag.contains("Properties")) {
+            NbtCompound propertiesTag = stateTag.getCompound("Properties");
+            StateManager<Block, BlockState> stateManager = block.getStateManager();
+            for (String name : ((NbtCompoundAccessor) propertiesTag).stationapi$getEntries().keySet()) {
+                Property<?> property = stateManager.getProperty(name);
+                if (property == null) return null;
+                state = withProperty(state, property, propertiesTag.getString(name));
+                if (state == null) return null;
+            }
+        }
+        return state;
+    }
+
+    private static <T extends Comparable<T>> @Nullable BlockState withProperty(BlockState state, Property<T> property, String value) {
+        Optional<T> parsed = property.parse(value);
+        return parsed.isPresent() ? state.with(property, parsed.get()) : null;
+    }
+
     private static void logRecoverableError(int chunkX, int chunkZ, int y, String message) {
         LOGGER.error("Recoverable errors when loading section [" + chunkX + ", " + y + ", " + chunkZ + "]: " + message);
     }
@@ -0,0 +1,80 @@
+package net.modificationstation.stationapi.impl.world.chunk;
+
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.modificationstation.stationapi.api.block.BlockState;
+
+/**
+ * A list of block changes within a single chunk, applied at once with
+ * {@link FlattenedChunk#setBlockStates(BlockEditBatch)}.
+ *
+ * <p>Positions are local to the chunk horizontally and absolute vertically.
+ * Changes are applied in the order they were added, so a later change
+ * of the same position wins.
+ *
+ * <p>A batch can be reused for several chunks, or {@linkplain #clear() cleared} and refilled.
+ */
+public final class BlockEditBatch {
+    private final IntArrayList positions = new IntArrayList();
+    private final ObjectArrayList<BlockState> states = new ObjectArrayList<>();
+    private final ByteArrayList metas = new ByteArrayList();
+
+    public BlockEditBatch set(int x, int y, int z, BlockState state, int meta) {
+        positions.add(y << 8 | (z & 15) << 4 | x & 15);
+        states.add(state);
+        metas.add((byte) meta);
+        return this;
+    }
+
+    /**
+     * Adds a change of every position in the given box, bounds included.
+     */
+    public BlockEditBatch fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockState state, int meta) {
+        if (minX > maxX || minY > maxY || minZ > maxZ) return this;
+        int count = (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        positions.ensureCapacity(positions.size() + count);
+        states.ensureCapacity(states.size() + count);
+        metas.ensureCapacity(metas.size() + count);
+        // in the order of PalettedContainer's indices
+        for (int y = minY; y <= maxY; y++)
+            for (int z = minZ; z <= maxZ; z++)
+                for (int x = minX; x <= maxX; x++)
+                    set(x, y, z, state, meta);
+        return this;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    public void clear() {
+        positions.clear();
+        states.clear();
+        metas.clear();
+    }
+
+    int getX(int i) {
+        return positions.getInt(i) & 15;
+    }
+
+    int getY(int i) {
+        return positions.getInt(i) >> 8;
+    }
+
+    int getZ(int i) {
+        return positions.getInt(i) >> 4 & 15;
+    }
+
+    BlockState getState(int i) {
+        return states.get(i);
+    }
+
+    int getMeta(int i) {
+        return metas.getByte(i) & 15;
+    }
+}
@@ -22,19 +22,41 @@ public class ChunkSection {
     private short randomTickableBlockCount;
     private short nonEmptyFluidCount;
     private final PalettedContainer<BlockState> blockStateContainer;
-    private final NibbleArray metadataArray = new NibbleArray(4096);
-    private final NibbleArray skyLightArray = new NibbleArray(4096);
-    private final NibbleArray blockLightArray = new NibbleArray(4096);
+    private final NibbleArray metadataArray;
+    private final NibbleArray skyLightArray;
+    private final NibbleArray blockLightArray;
+    /**
+     * Bumped on every change made through this section's methods, to tell when {@link #snapshot} is stale.
+     */
+    private int version;
+    private @Nullable ChunkSectionSnapshot snapshot;
 
     public ChunkSection(int chunkPos, PalettedContainer<BlockState> blockStateContainer) {
         this.yOffset = (short) ChunkSection.blockCoordFromChunkCoord(chunkPos);
         this.blockStateContainer = blockStateContainer;
+        this.metadataArray = new NibbleArray(4096);
+        this.skyLightArray = new NibbleArray(4096);
+        this.blockLightArray = new NibbleArray(4096);
         this.calculateCounts();
     }
 
     public ChunkSection(int chunkPos) {
         this.yOffset = (short) ChunkSection.blockCoordFromChunkCoord(chunkPos);
         this.blockStateContainer = new PalettedContainer<>(Block.STATE_IDS, States.AIR.get(), PalettedContainer.PaletteProvider.BLOCK_STATE);
+        this.metadataArray = new NibbleArray(4096);
+        this.skyLightArray = new NibbleArray(4096);
+        this.blockLightArray = new NibbleArray(4096);
+    }
+
+    private ChunkSection(ChunkSection section) {
+        this.yOffset = section.yOffset;
+        this.nonEmptyBlockCount = section.nonEmptyBlockCount;
+        this.randomTickableBlockCount = section.randomTickableBlockCount;
+        this.nonEmptyFluidCount = section.nonEmptyFluidCount;
+        this.blockStateContainer = section.blockStateContainer.copy();
+        this.metadataArray = section.metadataArray.copy();
+        this.skyLightArray = section.skyLightArray.copy();
+        this.blockLightArray = section.blockLightArray.copy();
     }
 
     public static int blockCoordFromChunkCoord(int chunkPos) {
@@ -51,6 +73,7 @@ public class ChunkSection {
 
     public BlockState setBlockState(int x, int y, int z, BlockState state) {
         BlockState blockState = this.blockStateContainer.swap(x, y, z, state);
+        version++;
 
 //      FluidState fluidState = blockState2.getFluidState();
 //      FluidState fluidState2 = state.getFluidState();
@@ -87,6 +110,22 @@ public class ChunkSection {
         return section == null || section.isEmpty();
     }
 
+    /**
+     * {@return {@code true} if the section is missing, or contains only air
+     * with no metadata, no block light and the default sky light}
+     *
+     * <p>Such sections are indistinguishable from a missing section
+     * and don't need to be stored or sent.
+     *
+     * @param hasSkyLight whether the section's dimension has sky light
+     */
+    public static boolean hasOnlyDefaults(@Nullable ChunkSection section, boolean hasSkyLight) {
+        return section == null || section.isEmpty()
+                && section.metadataArray.isFilledWith(0)
+                && section.blockLightArray.isFilledWith(0)
+                && section.skyLightArray.isFilledWith(hasSkyLight ? LightType.SKY.defaultValue : 0);
+    }
+
     public boolean hasRandomTicks() {
         return this.hasRandomBlockTicks() || this.hasRandomFluidTicks();
     }
@@ -136,6 +175,7 @@ public class ChunkSection {
 
     @Environment(EnvType.CLIENT)
     public void readDataPacket(ByteBuffer buf) {
+        version++;
         nonEmptyBlockCount = buf.getShort();
         blockStateContainer.readPacket(buf);
         buf.get(metadataArray.data);
@@ -169,6 +209,7 @@ public class ChunkSection {
 
     public void setMeta(int index, int meta) {
         metadataArray.setValue(index, meta);
+        version++;
     }
 
     public void setMeta(int x, int y, int z, int meta) {
@@ -185,6 +226,7 @@ public class ChunkSection {
 
     public void setLight(LightType type, int index, int light) {
         getLightArray(type).setValue(index, light);
+        version++;
     }
 
     public void setLight(LightType type, int x, int y, int z, int light) {
@@ -199,7 +241,39 @@ public class ChunkSection {
         return type == LightType.BLOCK ? blockLightArray : skyLightArray;
     }
 
+    /**
+     * {@return a deep copy of this section}
+     *
+     * <p>The copy shares no mutable state with this section,
+     * so it can be handed to another thread, for example to be saved.
+     */
+    public ChunkSection copy() {
+        return new ChunkSection(this);
+    }
+
     public void initSkyLight() {
         skyLightArray.copyArray(INITIAL_SKY_LIGHT);
+        version++;
+    }
+
+    /**
+     * Must be called after changing the arrays returned by {@link #getBlockStateContainer()},
+     * {@link #getMetadataArray()} or {@link #getLightArray(LightType)} directly.
+     */
+    public void markModified() {
+        version++;
+    }
+
+    /**
+     * {@return an immutable snapshot of this section in its current state}
+     *
+     * <p>The section is only copied if it changed since the last snapshot,
+     * otherwise the same snapshot is returned. Must be called on the thread that modifies the section.
+     */
+    public ChunkSectionSnapshot snapshot() {
+        ChunkSectionSnapshot snapshot = this.snapshot;
+        if (snapshot == null || snapshot.version != version)
+            this.snapshot = snapshot = new ChunkSectionSnapshot(copy(), version);
+        return snapshot;
     }
 }
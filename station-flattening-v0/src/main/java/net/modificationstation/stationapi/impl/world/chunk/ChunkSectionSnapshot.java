@@ -0,0 +1,46 @@
+package net.modificationstation.stationapi.impl.world.chunk;
+
+import net.minecraft.world.LightType;
+import net.modificationstation.stationapi.api.block.BlockState;
+import net.modificationstation.stationapi.api.world.BlockStateView;
+
+/**
+ * An immutable copy of a {@link ChunkSection}, taken with {@link ChunkSection#snapshot()}.
+ *
+ * <p>Nothing writes to a snapshot, so it can be read from any number of threads
+ * while the section it was taken from keeps changing. Coordinates are local to the section.
+ */
+public final class ChunkSectionSnapshot implements BlockStateView {
+    private final ChunkSection section;
+    final int version;
+
+    ChunkSectionSnapshot(ChunkSection section, int version) {
+        this.section = section;
+        this.version = version;
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        return section.getBlockState(x, y, z);
+    }
+
+    public int getMeta(int x, int y, int z) {
+        return section.getMeta(x, y, z);
+    }
+
+    public int getLight(LightType type, int x, int y, int z) {
+        return section.getLight(type, x, y, z);
+    }
+
+    public int getYOffset() {
+        return section.getYOffset();
+    }
+
+    public boolean isEmpty() {
+        return section.isEmpty();
+    }
+
+    public boolean hasRandomTicks() {
+        return section.hasRandomTicks();
+    }
+}
@@ -12,22 +12,38 @@ import net.minecraft.world.LightType;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.modificationstation.stationapi.api.StationAPI;
+import net.modificationstation.stationapi.api.block.BeforeBlockRemoved;
 import net.modificationstation.stationapi.api.block.BlockState;
 import net.modificationstation.stationapi.api.block.States;
+import net.modificationstation.stationapi.api.event.ListenedEvents;
 import net.modificationstation.stationapi.api.event.block.BlockEvent;
 import net.modificationstation.stationapi.api.event.world.BlockSetEvent;
+import net.modificationstation.stationapi.api.event.world.BlocksSetEvent;
 import net.modificationstation.stationapi.api.event.world.MetaSetEvent;
 import net.modificationstation.stationapi.mixin.flattening.ChunkAccessor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class FlattenedChunk extends Chunk {
+    /**
+     * Block changes happen far too often to build events nobody listens to.
+     */
+    private static final ListenedEvents.Handle
+            BLOCK_SET_LISTENERS = ListenedEvents.of(BlockSetEvent.class),
+            BLOCKS_SET_LISTENERS = ListenedEvents.of(BlocksSetEvent.class),
+            BEFORE_REMOVED_LISTENERS = ListenedEvents.of(BlockEvent.BeforeRemoved.class);
 
     public final ChunkSection[] sections;
     public final short firstBlock;
     public final short lastBlock;
     private final short[] stationHeightmap = new short[256];
+    /**
+     * Bumped on every change of block states, metadata or light, so that data derived
+     * from the chunk's sections (like encoded chunk packets) can tell when it's stale.
+     */
+    private volatile int modificationCount;
 
     public FlattenedChunk(World world, int xPos, int zPos) {
         super(world, xPos, zPos);
@@ -41,6 +57,32 @@ public class FlattenedChunk extends Chunk {
         }
     }
 
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    public void markModified() {
+        //noinspection NonAtomicOperationOnVolatileField
+        modificationCount++;
+    }
+
+    /**
+     * {@return an immutable snapshot of this chunk in its current state}
+     *
+     * <p>Only the sections that changed since their last snapshot are copied.
+     * Must be called on the thread that modifies the chunk.
+     *
+     * @see ChunkSection#snapshot()
+     */
+    public FlattenedChunkSnapshot snapshot() {
+        ChunkSectionSnapshot[] snapshots = new ChunkSectionSnapshot[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            ChunkSection section = sections[i];
+            if (section != null) snapshots[i] = section.snapshot();
+        }
+        return new FlattenedChunkSnapshot(x, z, firstBlock, lastBlock, modificationCount, !world.dimension.field_2177, snapshots, stationHeightmap.clone());
+    }
+
     public void fromLegacy(byte[] tiles) {
         int mask = (tiles.length >> 8) - 1;
         int offsetZ = mask == 127 ? 7 : net.modificationstation.stationapi.api.util.math.MathHelper.ceilLog2(mask + 1);
@@ -136,13 +178,14 @@ public class FlattenedChunk extends Chunk {
         ChunkSection section = getOrCreateSection(y, true);
         if (section != null) {
             section.setLight(type, x, y & 15, z, light);
+            markModified();
         }
     }
 
     @Override
     public int getLight(int x, int y, int z, int light) {
         ChunkSection section = getSection(y);
-        int lightLevel = section == null ? 15 : section.getLight(LightType.SKY, x, y & 15, z);
+        int lightLevel = section == null ? world.dimension.field_2177 ? 0 : 15 : section.getLight(LightType.SKY, x, y & 15, z);
         if (lightLevel > 0) {
             field_953 = true;
         }
@@ -219,6 +262,7 @@ public class FlattenedChunk extends Chunk {
         }
 
         this.minHeightmapValue = minHeight;
+        markModified();
 
         for (short i = 0; i < 256; i++) {
             ((ChunkAccessor) this).invokeMethod_887(i & 15, i >> 4);
@@ -305,6 +349,8 @@ public class FlattenedChunk extends Chunk {
                 this.world.method_166(LightType.SKY, posX - 1, maxHeight, posZ - 1, posX + 1, h, posZ + 1);
             }
 
+            markModified();
+
             this.field_967 = true;
         }
     }
@@ -344,6 +390,7 @@ public class FlattenedChunk extends Chunk {
         ChunkSection section = getSection(y);
         if (section != null) {
             section.setMeta(x, y & 15, z, meta);
+            markModified();
         }
     }
 
@@ -361,16 +408,18 @@ public class FlattenedChunk extends Chunk {
     public BlockState setBlockStateWithMetadata(int x, int y, int z, BlockState state, int meta) {
         int worldX = this.x << 4 | x;
         int worldZ = this.z << 4 | z;
-        BlockSetEvent event =
-                BlockSetEvent.builder()
-                        .world(world).chunk(this)
-                        .x(worldX).y(y).z(worldZ)
-                        .blockState(state).blockMeta(meta)
-                        .overrideState(state).overrideMeta(meta)
-                        .build();
-        if (StationAPI.EVENT_BUS.post(event).isCanceled()) return null;
-        state = event.overrideState;
-        meta = event.overrideMeta;
+        if (BLOCK_SET_LISTENERS.isListened()) {
+            BlockSetEvent event =
+                    BlockSetEvent.builder()
+                            .world(world).chunk(this)
+                            .x(worldX).y(y).z(worldZ)
+                            .blockState(state).blockMeta(meta)
+                            .overrideState(state).overrideMeta(meta)
+                            .build();
+            if (StationAPI.EVENT_BUS.post(event).isCanceled()) return null;
+            state = event.overrideState;
+            meta = event.overrideMeta;
+        }
         ChunkSection section = getOrCreateSection(y, true);
         if (section == null) return null;
         boolean sameMeta = section.getMeta(x, y & 15, z) == meta;
@@ -379,15 +428,9 @@ public class FlattenedChunk extends Chunk {
         if (oldState == state && sameMeta) return null;
 
         Block oldBlock = oldState.getBlock();
-        if (
-                StationAPI.EVENT_BUS.post(BlockEvent.BeforeRemoved.builder()
-                        .block(oldBlock)
-                        .world(world)
-                        .x(worldX).y(y).z(worldZ)
-                        .build()
-                ).isCanceled()
-        ) return null;
+        if (!beforeBlockRemoved(oldBlock, worldX, y, worldZ)) return null;
         section.setBlockState(x, y & 15, z, state);
+        markModified();
         if (!world.isRemote)
             oldBlock.onBreak(this.world, worldX, y, worldZ);
         section.setMeta(x, y & 15, z, meta);
@@ -411,12 +454,27 @@ public class FlattenedChunk extends Chunk {
         return oldState;
     }
 
+    /**
+     * Notifies the block that's about to be replaced and posts {@link BlockEvent.BeforeRemoved}.
+     *
+     * @return whether the block can be removed
+     */
+    private boolean beforeBlockRemoved(Block block, int worldX, int y, int worldZ) {
+        if (block instanceof BeforeBlockRemoved listener) listener.beforeBlockRemoved(world, worldX, y, worldZ);
+        return !BEFORE_REMOVED_LISTENERS.isListened() || !StationAPI.EVENT_BUS.post(BlockEvent.BeforeRemoved.builder()
+                .block(block)
+                .world(world)
+                .x(worldX).y(y).z(worldZ)
+                .build()
+        ).isCanceled();
+    }
+
     @Override
     public BlockState setBlockState(int x, int y, int z, BlockState state) {
         int worldX = this.x << 4 | x;
         int worldZ = this.z << 4 | z;
         if (
-                StationAPI.EVENT_BUS.post(
+                BLOCK_SET_LISTENERS.isListened() && StationAPI.EVENT_BUS.post(
                         BlockSetEvent.builder()
                                 .world(world).chunk(this)
                                 .x(worldX).y(y).z(worldZ)
@@ -431,15 +489,9 @@ public class FlattenedChunk extends Chunk {
 
         short topY = getShortHeight(x, z);
         Block oldBlock = oldState.getBlock();
-        if (
-                StationAPI.EVENT_BUS.post(BlockEvent.BeforeRemoved.builder()
-                        .block(oldBlock)
-                        .world(world)
-                        .x(worldX).y(y).z(worldZ)
-                        .build()
-                ).isCanceled()
-        ) return null;
+        if (!beforeBlockRemoved(oldBlock, worldX, y, worldZ)) return null;
         section.setBlockState(x, y & 15, z, state);
+        markModified();
         oldBlock.onBreak(this.world, worldX, y, worldZ);
         section.setMeta(x, y & 15, z, 0);
         if (Block.BLOCKS_LIGHT_OPACITY[state.getBlock().id] != 0) {
@@ -458,6 +510,106 @@ public class FlattenedChunk extends Chunk {
         return oldState;
     }
 
+    /**
+     * Sets all blocks of the batch, writing them straight into the sections.
+     *
+     * <p>Unlike setting the blocks one by one, the heightmap is updated once per changed column,
+     * and light updates are scheduled once for the box around all changes. A single
+     * {@link BlocksSetEvent} is posted instead of {@link BlockSetEvent} and {@link BlockEvent.BeforeRemoved}
+     * for every block. Blocks are still notified when they're broken or placed.
+     *
+     * @return the number of blocks that were changed
+     */
+    public int setBlockStates(BlockEditBatch batch) {
+        int size = batch.size();
+        if (size == 0) return 0;
+        if (BLOCKS_SET_LISTENERS.isListened()) {
+            int minX = 15, minY = lastBlock, minZ = 15, maxX = 0, maxY = firstBlock, maxZ = 0;
+            for (int i = 0; i < size; i++) {
+                int x = batch.getX(i), y = batch.getY(i), z = batch.getZ(i);
+                minX = Math.min(minX, x); minY = Math.min(minY, y); minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x); maxY = Math.max(maxY, y); maxZ = Math.max(maxZ, z);
+            }
+            if (
+                    StationAPI.EVENT_BUS.post(BlocksSetEvent.builder()
+                            .world(world).chunk(this)
+                            .count(size)
+                            .minX(this.x << 4 | minX).minY(minY).minZ(this.z << 4 | minZ)
+                            .maxX(this.x << 4 | maxX).maxY(maxY).maxZ(this.z << 4 | maxZ)
+                            .build()
+                    ).isCanceled()
+            ) return 0;
+        }
+
+        BlockState[] oldStates = new BlockState[size];
+        // the highest changed Y of each column, or Integer.MIN_VALUE if it's unchanged
+        int[] columnTops = new int[256];
+        Arrays.fill(columnTops, Integer.MIN_VALUE);
+        int minX = 15, minY = lastBlock, minZ = 15, maxX = 0, maxY = firstBlock, maxZ = 0;
+        int changed = 0;
+        for (int i = 0; i < size; i++) {
+            int x = batch.getX(i), y = batch.getY(i), z = batch.getZ(i);
+            ChunkSection section = getOrCreateSection(y, true);
+            if (section == null) continue;
+            BlockState state = batch.getState(i);
+            int meta = batch.getMeta(i);
+            BlockState oldState = section.getBlockState(x, y & 15, z);
+            if (oldState == state && section.getMeta(x, y & 15, z) == meta) continue;
+            Block oldBlock = oldState.getBlock();
+            if (oldBlock instanceof BeforeBlockRemoved listener) listener.beforeBlockRemoved(world, this.x << 4 | x, y, this.z << 4 | z);
+            section.setBlockState(x, y & 15, z, state);
+            if (!world.isRemote)
+                oldBlock.onBreak(world, this.x << 4 | x, y, this.z << 4 | z);
+            section.setMeta(x, y & 15, z, meta);
+            oldStates[i] = oldState;
+            int column = z << 4 | x;
+            columnTops[column] = Math.max(columnTops[column], y);
+            minX = Math.min(minX, x); minY = Math.min(minY, y); minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x); maxY = Math.max(maxY, y); maxZ = Math.max(maxZ, z);
+            changed++;
+        }
+        if (changed == 0) return 0;
+        markModified();
+
+        for (int column = 0; column < 256; column++) {
+            int top = columnTops[column];
+            if (top == Integer.MIN_VALUE) continue;
+            int x = column & 15, z = column >> 4;
+            // rescans the column down from the highest change or the old height, whichever is higher
+            if (!world.dimension.field_2177)
+                method_889(x, top + 1, z);
+            ((ChunkAccessor) this).invokeMethod_887(x, z);
+        }
+        int worldMinX = this.x << 4 | minX, worldMinZ = this.z << 4 | minZ;
+        int worldMaxX = this.x << 4 | maxX, worldMaxZ = this.z << 4 | maxZ;
+        if (!world.dimension.field_2177)
+            world.method_166(LightType.SKY, worldMinX, minY, worldMinZ, worldMaxX, maxY, worldMaxZ);
+        world.method_166(LightType.BLOCK, worldMinX, minY, worldMinZ, worldMaxX, maxY, worldMaxZ);
+
+        for (int i = 0; i < size; i++) {
+            BlockState oldState = oldStates[i];
+            if (oldState == null) continue;
+            batch.getState(i).getBlock().onBlockPlaced(world, this.x << 4 | batch.getX(i), batch.getY(i), this.z << 4 | batch.getZ(i), oldState);
+        }
+
+        this.field_967 = true;
+        return changed;
+    }
+
+    /**
+     * Sets every block in the given box, bounds included, with {@link #setBlockStates(BlockEditBatch)}.
+     * Coordinates are local to the chunk horizontally and absolute vertically.
+     *
+     * @return the number of blocks that were changed
+     */
+    public int fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockState state, int meta) {
+        return setBlockStates(new BlockEditBatch().fill(
+                Math.max(minX, 0), Math.max(minY, firstBlock), Math.max(minZ, 0),
+                Math.min(maxX, 15), Math.min(maxY, lastBlock), Math.min(maxZ, 15),
+                state, meta
+        ));
+    }
+
     @Override
     public void addEntity(Entity entity) {
         int n;
@@ -0,0 +1,80 @@
+package net.modificationstation.stationapi.impl.world.chunk;
+
+import net.minecraft.world.LightType;
+import net.modificationstation.stationapi.api.block.BlockState;
+import net.modificationstation.stationapi.api.block.States;
+import net.modificationstation.stationapi.api.world.BlockStateView;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable copy of a {@link FlattenedChunk}'s blocks, metadata, light and heightmap,
+ * taken with {@link FlattenedChunk#snapshot()}.
+ *
+ * <p>Coordinates are local to the chunk horizontally and absolute vertically,
+ * the same as {@link FlattenedChunk}'s. Like {@link ChunkSectionSnapshot},
+ * it can be read from any thread.
+ */
+public final class FlattenedChunkSnapshot implements BlockStateView {
+    public final int x, z;
+    public final int firstBlock, lastBlock;
+    /**
+     * The {@link FlattenedChunk#getModificationCount() modification count} the snapshot was taken at.
+     */
+    public final int modificationCount;
+    private final boolean hasSkyLight;
+    private final int bottomSectionCoord;
+    private final ChunkSectionSnapshot[] sections;
+    private final short[] heightmap;
+
+    FlattenedChunkSnapshot(int x, int z, int firstBlock, int lastBlock, int modificationCount, boolean hasSkyLight, ChunkSectionSnapshot[] sections, short[] heightmap) {
+        this.x = x;
+        this.z = z;
+        this.firstBlock = firstBlock;
+        this.lastBlock = lastBlock;
+        this.modificationCount = modificationCount;
+        this.hasSkyLight = hasSkyLight;
+        this.bottomSectionCoord = firstBlock >> 4;
+        this.sections = sections;
+        this.heightmap = heightmap;
+    }
+
+    /**
+     * {@return the snapshot of the section containing the given Y, or {@code null} if the section is missing}
+     */
+    public @Nullable ChunkSectionSnapshot getSection(int y) {
+        if (y < firstBlock || y > lastBlock) return null;
+        return sections[(y >> 4) - bottomSectionCoord];
+    }
+
+    public int countSections() {
+        return sections.length;
+    }
+
+    public @Nullable ChunkSectionSnapshot getSectionByIndex(int index) {
+        return sections[index];
+    }
+
+    @Override
+    public BlockState getBlockState(int x, int y, int z) {
+        ChunkSectionSnapshot section = getSection(y);
+        return section == null ? States.AIR.get() : section.getBlockState(x, y & 15, z);
+    }
+
+    public int getBlockMeta(int x, int y, int z) {
+        ChunkSectionSnapshot section = getSection(y);
+        return section == null ? 0 : section.getMeta(x, y & 15, z);
+    }
+
+    public int getLight(LightType type, int x, int y, int z) {
+        ChunkSectionSnapshot section = getSection(y);
+        return section == null ?
+                type == LightType.SKY && !hasSkyLight ?
+                        0 :
+                        type.defaultValue :
+                section.getLight(type, x, y & 15, z);
+    }
+
+    public int getHeight(int x, int z) {
+        return heightmap[z << 4 | x];
+    }
+}
@@ -1,5 +1,6 @@
 package net.modificationstation.stationapi.impl.world.chunk;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.minecraft.class_243;
 import net.minecraft.class_379;
 import net.minecraft.nbt.NbtCompound;
@@ -10,25 +11,75 @@ import net.minecraft.world.WorldProperties;
 import net.minecraft.world.chunk.Chunk;
 import net.modificationstation.stationapi.api.datafixer.TypeReferences;
 import net.modificationstation.stationapi.api.nbt.NbtHelper;
+import net.modificationstation.stationapi.api.world.HeightLimitView;
+import net.modificationstation.stationapi.impl.util.math.ChunkPos;
 import net.modificationstation.stationapi.impl.world.FlattenedWorldManager;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
 import static net.modificationstation.stationapi.impl.world.FlattenedWorldManager.SECTIONS;
 
 public class FlattenedWorldChunkLoader implements class_243 {
 
+    /**
+     * Forces chunks to be serialized and written on the calling thread, like vanilla does.
+     */
+    private static final boolean SYNC_SAVING = Boolean.getBoolean("stationapi.chunkSaving.sync");
+    private static final int SAVE_THREADS = Math.max(1, Integer.getInteger("stationapi.chunkSaving.threads", 2));
+    private static final int SAVE_QUEUE_SIZE = Math.max(1, Integer.getInteger("stationapi.chunkSaving.queueSize", 1024));
+
+    /**
+     * Chunk saves are serialized, compressed and written to region files on this executor.
+     *
+     * <p>The queue is bounded, and once it's full the saving thread does the work itself,
+     * which keeps memory used by pending snapshots in check during large autosaves.
+     */
+    private static final ExecutorService SAVE_EXECUTOR = new ThreadPoolExecutor(
+            SAVE_THREADS, SAVE_THREADS,
+            0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(SAVE_QUEUE_SIZE),
+            new ThreadFactoryBuilder().setNameFormat("Chunk-Saver-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+    private static final Set<FlattenedWorldChunkLoader> LOADERS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
     protected final File dimFolder;
+    private final ConcurrentMap<Long, PendingSave> pendingSaves = new ConcurrentHashMap<>();
+    private final AtomicLong sizeOnDiskDelta = new AtomicLong();
+    private volatile WorldProperties worldProperties;
 
     public FlattenedWorldChunkLoader(File dimFolder) {
         this.dimFolder = dimFolder;
+        LOADERS.add(this);
+    }
+
+    /**
+     * Waits for all chunk saves queued by every loader to be written.
+     *
+     * <p>Must be called before region files are closed.
+     */
+    public static void flushAll() {
+        List<FlattenedWorldChunkLoader> loaders;
+        synchronized (LOADERS) {
+            loaders = new ArrayList<>(LOADERS);
+        }
+        loaders.forEach(FlattenedWorldChunkLoader::flush);
     }
 
     @Override
     public Chunk method_811(World arg, int i, int j) {
+        awaitSave(ChunkPos.toLong(i, j));
         DataInputStream dataInputStream = class_379.method_1215(dimFolder, i, j);
         if (dataInputStream == null)
             return null;
@@ -57,28 +108,118 @@ public class FlattenedWorldChunkLoader implements class_243 {
     public void method_812(World world, Chunk oldChunk) {
         if (!(oldChunk instanceof FlattenedChunk chunk)) throw new IllegalStateException(getClass().getSimpleName() + " can't save chunk of type \"" + oldChunk.getClass().getName() + "\"!");
         world.method_251();
-        DataOutputStream dataOutputStream = class_379.method_1216(dimFolder, chunk.x, chunk.z);
+        worldProperties = world.method_262();
+        NbtCompound levelTag = new NbtCompound();
+        FlattenedWorldManager.saveChunkData(chunk, world, levelTag);
+        ChunkSnapshot snapshot = new ChunkSnapshot(chunk.x, chunk.z, world, levelTag, FlattenedWorldManager.copySections(chunk));
+        if (SYNC_SAVING) {
+            awaitSave(ChunkPos.toLong(chunk.x, chunk.z));
+            write(snapshot);
+            applySizeOnDisk();
+        } else queueSave(snapshot);
+    }
+
+    /**
+     * Queues the snapshot to be written, or replaces the snapshot of
+     * a queued save of the same chunk that hasn't been written yet,
+     * so that repeated saves of a chunk are coalesced into one write.
+     */
+    private void queueSave(ChunkSnapshot snapshot) {
+        long key = ChunkPos.toLong(snapshot.x, snapshot.z);
+        while (true) {
+            PendingSave pending = pendingSaves.get(key);
+            if (pending == null) {
+                PendingSave created = new PendingSave(snapshot);
+                if (pendingSaves.putIfAbsent(key, created) == null) {
+                    SAVE_EXECUTOR.execute(() -> writePending(key, created));
+                    return;
+                }
+            } else synchronized (pending) {
+                if (!pending.written.isDone()) {
+                    pending.snapshot = snapshot;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void writePending(long key, PendingSave pending) {
+        while (true) {
+            ChunkSnapshot snapshot;
+            synchronized (pending) {
+                snapshot = pending.snapshot;
+            }
+            try {
+                write(snapshot);
+            } catch (Throwable throwable) {
+                LOGGER.error("Failed to save chunk at " + snapshot.x + ", " + snapshot.z, throwable);
+            }
+            synchronized (pending) {
+                if (pending.snapshot == snapshot) {
+                    pendingSaves.remove(key);
+                    pending.written.complete(null);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(ChunkSnapshot snapshot) {
         NbtCompound compoundTag = new NbtCompound();
-        NbtCompound compoundTag2 = new NbtCompound();
-        compoundTag.put("Level", (NbtElement) compoundTag2);
-        FlattenedWorldManager.saveChunk(chunk, world, compoundTag2);
+        compoundTag.put("Level", (NbtElement) snapshot.levelTag);
+        FlattenedWorldManager.saveSections(snapshot.sections, snapshot.heightLimit, snapshot.levelTag);
         compoundTag = NbtHelper.addDataVersions(compoundTag);
+        DataOutputStream dataOutputStream = class_379.method_1216(dimFolder, snapshot.x, snapshot.z);
         NbtIo.write(compoundTag, dataOutputStream);
         try {
             dataOutputStream.close();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        WorldProperties worldProperties = world.method_262();
-        worldProperties.setSizeOnDisk(worldProperties.getSizeOnDisk() + (long) class_379.method_1214(dimFolder, chunk.x, chunk.z));
+        sizeOnDiskDelta.addAndGet(class_379.method_1214(dimFolder, snapshot.x, snapshot.z));
+    }
+
+    private void awaitSave(long key) {
+        PendingSave pending = pendingSaves.get(key);
+        if (pending != null) pending.written.join();
+    }
+
+    /**
+     * Waits for all chunk saves queued by this loader to be written.
+     */
+    public void flush() {
+        new ArrayList<>(pendingSaves.values()).forEach(save -> save.written.join());
+        applySizeOnDisk();
+    }
+
+    private void applySizeOnDisk() {
+        WorldProperties worldProperties = this.worldProperties;
+        long delta = sizeOnDiskDelta.getAndSet(0);
+        if (worldProperties != null && delta != 0)
+            worldProperties.setSizeOnDisk(worldProperties.getSizeOnDisk() + delta);
     }
 
     @Override
     public void method_814(World arg, Chunk arg2) {}
 
     @Override
-    public void method_810() {}
+    public void method_810() {
+        applySizeOnDisk();
+    }
 
     @Override
-    public void method_813() {}
+    public void method_813() {
+        flush();
+    }
+
+    private record ChunkSnapshot(int x, int z, HeightLimitView heightLimit, NbtCompound levelTag, ChunkSection[] sections) {}
+
+    private static final class PendingSave {
+        private ChunkSnapshot snapshot;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        private PendingSave(ChunkSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
 }
@@ -9,6 +9,10 @@ public class NibbleArray {
         data = new byte[capacity >> 1];
     }
 
+    private NibbleArray(byte[] data) {
+        this.data = data;
+    }
+
     public int getValue(int index) {
         short value = (short) (data[index >> 1] & 255);
         return (index & 1) == 0 ? value & 15 : value >> 4;
@@ -34,4 +38,18 @@ public class NibbleArray {
         if (array.length != data.length) return;
         System.arraycopy(array, 0, data, 0, data.length);
     }
+
+    public NibbleArray copy() {
+        return new NibbleArray(data.clone());
+    }
+
+    /**
+     * {@return {@code true} if every value in this array is {@code value}}
+     */
+    public boolean isFilledWith(int value) {
+        byte filled = (byte) (value << 4 | value);
+        for (byte b : data)
+            if (b != filled) return false;
+        return true;
+    }
 }
@@ -163,25 +163,39 @@ public class PalettedContainer<T>
     }
 
     private static <T> DataResult<PalettedContainer<T>> read(IndexedIterable<T> idList, PaletteProvider provider, Serialized<T> serialized) {
+        return read(idList, provider, serialized.paletteEntries(), serialized.storage().map(LongStream::toArray).orElse(null));
+    }
+
+    /**
+     * Reads a container from already decoded palette entries and packed storage,
+     * bypassing the codec.
+     *
+     * @return the read container, or an error if the storage doesn't match the palette
+     *
+     * @param idList the id list to map between objects and full integer IDs
+     * @param provider the palette provider the data was written with
+     * @param list the palette entries
+     * @param storage the packed storage, may be {@code null} if the palette has a single entry
+     *
+     * @see #writeRaw()
+     */
+    public static <T> DataResult<PalettedContainer<T>> read(IndexedIterable<T> idList, PaletteProvider provider, List<T> list, @Nullable long[] storage) {
         PaletteStorage paletteStorage;
-        List<T> list = serialized.paletteEntries();
         int i2 = provider.getContainerSize();
         int j = provider.getBits(idList, list.size());
         DataProvider<T> dataProvider = provider.createDataProvider(idList, j);
         if (j == 0) paletteStorage = new EmptyPaletteStorage(i2);
         else {
-            Optional<LongStream> optional = serialized.storage();
-            if (optional.isEmpty()) return DataResult.error(() -> "Missing values for non-zero storage");
-            long[] ls = optional.get().toArray();
+            if (storage == null) return DataResult.error(() -> "Missing values for non-zero storage");
             try {
                 if (dataProvider.factory() == PaletteProvider.ID_LIST) {
                     BiMapPalette<T> palette = new BiMapPalette<>(idList, j, (i, object) -> 0, list);
-                    PackedIntegerArray packedIntegerArray = new PackedIntegerArray(j, i2, ls);
+                    PackedIntegerArray packedIntegerArray = new PackedIntegerArray(j, i2, storage);
                     int[] is = new int[i2];
                     packedIntegerArray.method_39892(is);
                     PalettedContainer.method_39894(is, i -> idList.getRawId(palette.get(i)));
                     paletteStorage = new PackedIntegerArray(dataProvider.bits(), i2, is);
-                } else paletteStorage = new PackedIntegerArray(dataProvider.bits(), i2, ls);
+                } else paletteStorage = new PackedIntegerArray(dataProvider.bits(), i2, storage);
             }
             catch (PackedIntegerArray.InvalidLengthException palette) {
                 return DataResult.error(() -> "Failed to read PalettedContainer: " + palette.getMessage());
@@ -191,10 +205,30 @@ public class PalettedContainer<T>
     }
 
     private Serialized<T> write(IndexedIterable<T> idList, PaletteProvider provider) {
+        RawData<T> raw = this.writeRaw(idList, provider);
+        return new Serialized<>(raw.paletteEntries(), Optional.ofNullable(raw.storage()).map(Arrays::stream));
+    }
+
+    /**
+     * Compacts this container into its palette entries and packed storage
+     * without going through the codec.
+     *
+     * <p>The returned storage is never shared with this container, so it
+     * can be handed out to NBT or another thread as-is.
+     *
+     * @return the compacted palette entries and storage
+     *
+     * @see #read(IndexedIterable, PaletteProvider, List, long[])
+     */
+    public RawData<T> writeRaw() {
+        return this.writeRaw(this.idList, this.paletteProvider);
+    }
+
+    private RawData<T> writeRaw(IndexedIterable<T> idList, PaletteProvider provider) {
 
         // The palette that will be serialized
         LithiumHashPalette<T> hashPalette = null;
-        Optional<LongStream> data = Optional.empty();
+        long[] data = null;
         List<T> elements = null;
         final Palette<T> palette = this.data.palette();
         final PaletteStorage storage = this.data.storage();
@@ -214,7 +248,7 @@ public class PalettedContainer<T>
 
             // If the palette didn't change during compaction, do a simple copy of the data array
             if (hashPalette != null && hashPalette.getSize() == compactedPalette.getSize() && storage.getElementBits() == provider.getBits(idList, hashPalette.getSize())) { // paletteSize can de-sync from palette - see https://github.com/CaffeineMC/lithium-fabric/issues/279
-                data = Optional.of(Arrays.stream(storage.getData().clone()));
+                data = storage.getData().clone();
                 elements = hashPalette.getElements();
             } else {
                 int bits = provider.getBits(idList, compactedPalette.getSize());
@@ -224,13 +258,13 @@ public class PalettedContainer<T>
                     for (int i = 0; i < array.length; ++i) copy.set(i, array[i]);
 
                     // We don't need to clone the data array as we are the sole owner of it
-                    data = Optional.of(Arrays.stream(copy.getData()));
+                    data = copy.getData();
                 }
 
                 elements = compactedPalette.getElements();
             }
         }
-        return new PalettedContainer.Serialized<>(elements, data);
+        return new RawData<>(elements, data);
     }
 
     private static void method_39894(int[] is, IntUnaryOperator intUnaryOperator) {
@@ -379,6 +413,15 @@ public class PalettedContainer<T>
     record Serialized<T>(List<T> paletteEntries, Optional<LongStream> storage) {
     }
 
+    /**
+     * The palette entries and packed storage of a container, as they are stored on disk.
+     *
+     * @param paletteEntries the palette entries, in palette index order
+     * @param storage the packed storage, or {@code null} if the palette has a single entry
+     */
+    public record RawData<T>(List<T> paletteEntries, @Nullable long[] storage) {
+    }
+
     @FunctionalInterface
     public interface Counter<T> {
         void accept(T var1, int var2);
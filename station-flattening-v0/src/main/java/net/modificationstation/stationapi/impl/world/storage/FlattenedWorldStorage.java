@@ -1,5 +1,6 @@
 package net.modificationstation.stationapi.impl.world.storage;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mojang.datafixers.DSL;
 import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
@@ -19,14 +20,21 @@ import net.modificationstation.stationapi.impl.world.dimension.FlattenedDimensio
 import net.modificationstation.stationapi.mixin.flattening.RegionFileAccessor;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
 import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
 
 public class FlattenedWorldStorage extends class_157 {
 
+    private static final String CHECKPOINT_FILE = "stationapi_conversion.checkpoint";
+    private static final int CONVERSION_THREADS = Math.max(1, Integer.getInteger("stationapi.worldConversion.threads", Runtime.getRuntime().availableProcessors()));
+
     public FlattenedWorldStorage(File file) {
         super(file);
     }
@@ -95,26 +103,38 @@ public class FlattenedWorldStorage extends class_157 {
 
     public boolean convertWorld(String worldFolder, BiFunction<DSL.TypeReference, NbtCompound, NbtCompound> convertFunction, class_62 progress) {
         class_379.method_1212();
-        LOGGER.info("Creating a backup of world \"" + worldFolder + "\"...");
         File worldFile = new File(field_1706, worldFolder);
+        ConversionCheckpoint checkpoint;
         try {
-            Util.pack(worldFile.toPath(), new File(field_1706, worldFolder + "-" + new SimpleDateFormat("yyyyMMddHHmmss").format(new Date()) + ".zip").toPath());
+            checkpoint = ConversionCheckpoint.open(new File(worldFile, CHECKPOINT_FILE));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        if (super.method_1007(worldFolder)) {
-            LOGGER.info("Converting to \"" + super.method_1001() + "\" first...");
-            super.method_1008(worldFolder, progress);
+        if (checkpoint.isResumed())
+            LOGGER.info("Resuming conversion of world \"" + worldFolder + "\", " + checkpoint.getCompletedCount() + " regions were already converted");
+        else {
+            LOGGER.info("Creating a backup of world \"" + worldFolder + "\"...");
+            try {
+                Util.pack(worldFile.toPath(), new File(field_1706, worldFolder + "-" + new SimpleDateFormat("yyyyMMddHHmmss").format(new Date()) + ".zip").toPath());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            if (super.method_1007(worldFolder)) {
+                // the format name is client-only, and conversion can also run headless on a server
+                LOGGER.info("Converting to the region format first...");
+                super.method_1008(worldFolder, progress);
+            }
+            checkpoint.begin();
         }
         progress.method_1794(0);
-        List<class_353> regions = new ArrayList<>();
+        List<File> regions = new ArrayList<>();
         LOGGER.info("Scanning folders...");
         scanDimensionDir(worldFile, regions);
         File[] dims = worldFile.listFiles((dir, name) -> new File(dir, name).isDirectory() && name.startsWith("DIM"));
         if (dims != null)
             for (File dim : dims)
                 scanDimensionDir(dim, regions);
-        convertChunks(regions, convertFunction, progress);
+        convertChunks(worldFile, regions, checkpoint, convertFunction, progress);
         NbtCompound newWorldTag = new NbtCompound();
         NbtCompound newWorldDataTag = convertFunction.apply(TypeReferences.LEVEL, getWorldTag(worldFolder));
         LOGGER.info("Converting player inventory...");
@@ -138,56 +158,182 @@ public class FlattenedWorldStorage extends class_157 {
         } catch (Exception e) {
             e.printStackTrace();
         }
+        checkpoint.finish();
         return true;
     }
 
-    private void scanDimensionDir(File dimensionFolder, List<class_353> regions) {
+    private void scanDimensionDir(File dimensionFolder, List<File> regions) {
         File regionFolder = new File(dimensionFolder, "region");
         File[] regionFiles = regionFolder.listFiles((dir, name) -> new File(dir, name).isFile() && name.endsWith(".mcr"));
         if (regionFiles != null)
-            Arrays.stream(regionFiles).map(class_353::new).forEach(regions::add);
+            regions.addAll(Arrays.asList(regionFiles));
     }
 
-    private void convertChunks(List<class_353> regions, BiFunction<DSL.TypeReference, NbtCompound, NbtCompound> convertFunction, class_62 progress) {
+    /**
+     * Converts every chunk of the given region files, one worker per region file.
+     *
+     * <p>Region files listed in the checkpoint are skipped, and every region file
+     * is recorded there once it's fully converted, so an interrupted conversion
+     * only redoes the region files that were in progress.
+     *
+     * <p>Progress is reported on the calling thread, as the progress listener may be a screen.
+     */
+    private void convertChunks(File worldFile, List<File> regionFiles, ConversionCheckpoint checkpoint, BiFunction<DSL.TypeReference, NbtCompound, NbtCompound> convertFunction, class_62 progress) {
+        Path worldPath = worldFile.toPath();
+        List<File> regions = new ArrayList<>();
         List<IntSet> existingChunks = new ArrayList<>();
         int totalChunks = 0;
-        for (class_353 region : regions) {
+        for (File regionFile : regionFiles) {
+            if (checkpoint.isCompleted(worldPath.relativize(regionFile.toPath()).toString())) continue;
+            class_353 region = new class_353(regionFile);
             int[] offsets = ((RegionFileAccessor) region).getField_1318();
             IntSet chunks = new IntOpenHashSet(offsets.length);
             for (int i = 0; i < offsets.length; i++)
                 if (offsets[i] != 0)
                     chunks.add(i);
+            region.method_1166();
+            regions.add(regionFile);
             existingChunks.add(chunks);
             totalChunks += chunks.size();
         }
-        LOGGER.info("Total conversion count is " + totalChunks);
-        int updatedChunks = 0;
+        LOGGER.info("Total conversion count is " + totalChunks + " in " + regions.size() + " regions");
+        if (totalChunks == 0) return;
+        AtomicInteger updatedChunks = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(CONVERSION_THREADS, regions.size()),
+                new ThreadFactoryBuilder().setNameFormat("World-Converter-%d").setDaemon(true).build()
+        );
+        List<CompletableFuture<Void>> futures = new ArrayList<>(regions.size());
         for (int i = 0; i < regions.size(); i++) {
-            class_353 region = regions.get(i);
+            File regionFile = regions.get(i);
             IntSet chunks = existingChunks.get(i);
-            IntIterator it = chunks.iterator();
-            while (it.hasNext()) {
-                int index = it.nextInt();
-                int x = index & 0b11111;
-                int z = index >> 5;
-                DataInputStream stream = region.method_1159(x, z);
-                if (stream != null) {
-                    NbtCompound chunkTag = NbtIo.read(stream);
-                    try {
-                        stream.close();
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
-                    NbtCompound updatedChunkTag = convertFunction.apply(TypeReferences.CHUNK, chunkTag);
-                    try (DataOutputStream outStream = region.method_1167(x, z)) {
-                        NbtIo.write(updatedChunkTag, outStream);
-                    } catch (IOException e) {
-                        throw new RuntimeException(e);
-                    }
+            futures.add(CompletableFuture.runAsync(() -> {
+                convertRegion(regionFile, chunks, convertFunction, updatedChunks);
+                checkpoint.markCompleted(worldPath.relativize(regionFile.toPath()).toString());
+            }, executor));
+        }
+        CompletableFuture<Void> conversion = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        try {
+            while (true) {
+                try {
+                    conversion.get(100, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    progress.method_1794(updatedChunks.get() * 100 / totalChunks);
                 }
-                progress.method_1794(++updatedChunks * 100 / totalChunks);
             }
-            region.method_1166();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        progress.method_1794(100);
+    }
+
+    private static void convertRegion(File regionFile, IntSet chunks, BiFunction<DSL.TypeReference, NbtCompound, NbtCompound> convertFunction, AtomicInteger updatedChunks) {
+        class_353 region = new class_353(regionFile);
+        IntIterator it = chunks.iterator();
+        while (it.hasNext()) {
+            int index = it.nextInt();
+            int x = index & 0b11111;
+            int z = index >> 5;
+            DataInputStream stream = region.method_1159(x, z);
+            if (stream != null) {
+                NbtCompound chunkTag = NbtIo.read(stream);
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                NbtCompound updatedChunkTag = convertFunction.apply(TypeReferences.CHUNK, chunkTag);
+                try (DataOutputStream outStream = region.method_1167(x, z)) {
+                    NbtIo.write(updatedChunkTag, outStream);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            updatedChunks.incrementAndGet();
+        }
+        region.method_1166();
+    }
+
+    /**
+     * Keeps track of the region files that were fully converted,
+     * so that an interrupted conversion can be resumed.
+     *
+     * <p>The checkpoint file is a plain list of region file paths
+     * relative to the world folder, one per line.
+     */
+    private static final class ConversionCheckpoint {
+        private final File file;
+        private final Set<String> completed;
+        private final boolean resumed;
+        private Writer writer;
+
+        private ConversionCheckpoint(File file, Set<String> completed, boolean resumed) {
+            this.file = file;
+            this.completed = completed;
+            this.resumed = resumed;
+        }
+
+        private static ConversionCheckpoint open(File file) throws IOException {
+            if (!file.exists()) return new ConversionCheckpoint(file, ConcurrentHashMap.newKeySet(), false);
+            Set<String> completed = ConcurrentHashMap.newKeySet();
+            try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+                reader.lines().filter(line -> !line.isBlank()).forEach(completed::add);
+            }
+            return new ConversionCheckpoint(file, completed, true);
+        }
+
+        private boolean isResumed() {
+            return resumed;
+        }
+
+        private int getCompletedCount() {
+            return completed.size();
+        }
+
+        private boolean isCompleted(String region) {
+            return completed.contains(region);
+        }
+
+        private synchronized void begin() {
+            try {
+                getWriter().flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private synchronized void markCompleted(String region) {
+            completed.add(region);
+            try {
+                Writer writer = getWriter();
+                writer.write(region);
+                writer.write(System.lineSeparator());
+                writer.flush();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        private synchronized void finish() {
+            try {
+                if (writer != null) writer.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            writer = null;
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+
+        private Writer getWriter() throws IOException {
+            if (writer == null) writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8, true));
+            return writer;
         }
     }
 }
@@ -0,0 +1,82 @@
+package net.modificationstation.stationapi.impl.world.storage;
+
+import net.minecraft.class_62;
+
+import java.io.File;
+
+import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
+
+/**
+ * Converts a world on a dedicated server and exits before the world is loaded.
+ *
+ * <p>Started with {@code -Dstationapi.convertWorld=<world folder>},
+ * so big worlds can be converted ahead of time without anyone joining or the world ticking.
+ * An interrupted conversion is resumed by running the same command again.
+ */
+public final class HeadlessWorldConverter {
+    public static final String PROPERTY = "stationapi.convertWorld";
+
+    private HeadlessWorldConverter() {}
+
+    public static boolean isRequested() {
+        return System.getProperty(PROPERTY) != null;
+    }
+
+    /**
+     * Converts the requested world.
+     *
+     * @return whether the world exists and is now up to date
+     */
+    public static boolean run(File savesDir) {
+        String worldFolder = System.getProperty(PROPERTY);
+        FlattenedWorldStorage storage = new FlattenedWorldStorage(savesDir);
+        if (storage.getWorldTag(worldFolder) == null) {
+            LOGGER.error("World \"" + worldFolder + "\" doesn't exist in " + savesDir.getAbsolutePath());
+            return false;
+        }
+        if (!storage.method_1007(worldFolder)) {
+            LOGGER.info("World \"" + worldFolder + "\" is already up to date");
+            return true;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            if (!storage.method_1008(worldFolder, new LoggingProgressListener())) {
+                LOGGER.error("Failed to convert world \"" + worldFolder + "\"");
+                return false;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to convert world \"" + worldFolder + "\", running the same command again resumes the conversion", e);
+            return false;
+        }
+        LOGGER.info("Converted world \"" + worldFolder + "\" in " + (System.currentTimeMillis() - start) / 1000 + "s");
+        return true;
+    }
+
+    /**
+     * Logs the progress instead of rendering it.
+     */
+    private static final class LoggingProgressListener implements class_62 {
+        private int lastPercent = -1;
+
+        @Override
+        public void method_1794(int percent) {
+            if (percent == lastPercent) return;
+            lastPercent = percent;
+            LOGGER.info("Converting... " + percent + "%");
+        }
+
+        @Override
+        public void method_1795(String message) {
+            log(message);
+        }
+
+        @Override
+        public void method_1796(String message) {
+            log(message);
+        }
+
+        private static void log(String message) {
+            if (message != null && !message.isEmpty()) LOGGER.info(message);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package net.modificationstation.stationapi.mixin.flattening;
+
+import net.minecraft.class_379;
+import net.modificationstation.stationapi.impl.world.chunk.FlattenedWorldChunkLoader;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(class_379.class)
+class class_379Mixin {
+    @Inject(
+            method = "method_1212",
+            at = @At("HEAD")
+    )
+    private static void stationapi_flushChunkSaves(CallbackInfo ci) {
+        FlattenedWorldChunkLoader.flushAll();
+    }
+}
@@ -3,14 +3,27 @@ package net.modificationstation.stationapi.mixin.flattening.server;
 import net.minecraft.class_294;
 import net.minecraft.server.MinecraftServer;
 import net.modificationstation.stationapi.impl.world.dimension.FlattenedDimensionFile;
+import net.modificationstation.stationapi.impl.world.storage.HeadlessWorldConverter;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.io.File;
 
 @Mixin(MinecraftServer.class)
 class MinecraftServerMixin {
+    @Inject(
+            method = "method_2159",
+            at = @At("HEAD")
+    )
+    private void stationapi_convertHeadless(CallbackInfo ci) {
+        if (HeadlessWorldConverter.isRequested())
+            // no world is loaded yet, so there's nothing to save on the way out
+            System.exit(HeadlessWorldConverter.run(new File(".")) ? 0 : 1);
+    }
+
     @Redirect(
             method = "method_2159",
             at = @At(
@@ -0,0 +1,20 @@
+package net.modificationstation.stationapi.mixin.flattening.server;
+
+import net.minecraft.class_167;
+import net.minecraft.server.MinecraftServer;
+import net.modificationstation.stationapi.impl.server.world.ChunkPregeneratorImpl;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(class_167.class)
+class class_167Mixin {
+    @Inject(
+            method = "<init>(Lnet/minecraft/server/MinecraftServer;II)V",
+            at = @At("RETURN")
+    )
+    private void stationapi_captureViewDistance(MinecraftServer server, int dimension, int viewDistance, CallbackInfo ci) {
+        ChunkPregeneratorImpl.setViewDistance(viewDistance);
+    }
+}
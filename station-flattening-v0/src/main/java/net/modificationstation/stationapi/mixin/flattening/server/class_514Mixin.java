@@ -1,8 +1,14 @@
 package net.modificationstation.stationapi.mixin.flattening.server;
 
 import net.minecraft.class_167;
+import net.minecraft.class_73;
+import net.modificationstation.stationapi.impl.server.network.ChunkDataCache;
 import net.modificationstation.stationapi.impl.server.network.ChunkSectionTracker;
+import net.modificationstation.stationapi.impl.world.chunk.FlattenedChunk;
 import org.spongepowered.asm.mixin.*;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(class_167.class_514.class)
 abstract class class_514Mixin {
@@ -18,6 +24,16 @@ abstract class class_514Mixin {
     @Unique
     private final ChunkSectionTracker[] stationapi_sectionTrackers = new ChunkSectionTracker[field_2136.method_1741().countVerticalSections()];
 
+    @Inject(
+            method = "<init>",
+            at = @At("RETURN")
+    )
+    private void stationapi_prefetchChunkData(CallbackInfo ci) {
+        class_73 world = field_2136.method_1741();
+        if (world.method_214(field_2138, field_2139) instanceof FlattenedChunk chunk)
+            ChunkDataCache.prefetch(world, chunk);
+    }
+
     /**
      * @author mine_diver
      * @reason early version
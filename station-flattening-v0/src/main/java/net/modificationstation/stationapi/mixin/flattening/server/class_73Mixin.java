@@ -0,0 +1,25 @@
+package net.modificationstation.stationapi.mixin.flattening.server;
+
+import net.minecraft.class_73;
+import net.modificationstation.stationapi.impl.server.world.StationServerChunkCache;
+import net.modificationstation.stationapi.impl.server.world.StationServerWorld;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(class_73.class)
+class class_73Mixin implements StationServerWorld {
+    @Unique
+    private StationServerChunkCache stationapi_chunkCache;
+
+    @Override
+    @Unique
+    public StationServerChunkCache stationapi_getChunkCache() {
+        return stationapi_chunkCache;
+    }
+
+    @Override
+    @Unique
+    public void stationapi_setChunkCache(StationServerChunkCache chunkCache) {
+        stationapi_chunkCache = chunkCache;
+    }
+}
@@ -0,0 +1,67 @@
+package net.modificationstation.stationapi.mixin.flattening.server;
+
+import net.minecraft.class_51;
+import net.minecraft.class_73;
+import net.minecraft.class_79;
+import net.minecraft.util.math.Vec3i;
+import net.minecraft.world.chunk.Chunk;
+import net.modificationstation.stationapi.impl.server.world.ChunkPregeneratorImpl;
+import net.modificationstation.stationapi.impl.server.world.StationServerChunkCache;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Map;
+import java.util.Set;
+
+@Mixin(class_79.class)
+class class_79Mixin implements StationServerChunkCache {
+    @Shadow private Set<Integer> field_934;
+    @Shadow private Map<Integer, Chunk> field_939;
+    @Shadow private class_73 field_940;
+
+    @Inject(
+            method = "<init>",
+            at = @At("RETURN")
+    )
+    private void stationapi_register(CallbackInfo ci) {
+        ChunkPregeneratorImpl.registerChunkCache(field_940, this);
+    }
+
+    /**
+     * The key the cache stores the chunk under.
+     */
+    @Unique
+    private static int stationapi_getKey(int x, int z) {
+        return (x < 0 ? Integer.MIN_VALUE : 0) | (x & 0x7FFF) << 16 | (z < 0 ? 0x8000 : 0) | z & 0x7FFF;
+    }
+
+    @Override
+    @Unique
+    public boolean stationapi_isChunkLoaded(int x, int z) {
+        int key = stationapi_getKey(x, z);
+        return field_939.containsKey(key) && !field_934.contains(key);
+    }
+
+    @Override
+    @Unique
+    public Chunk stationapi_loadChunk(int x, int z) {
+        return ((class_51) this).method_1807(x, z);
+    }
+
+    @Override
+    @Unique
+    public void stationapi_queueUnload(int x, int z) {
+        int key = stationapi_getKey(x, z);
+        // the cache's tick expects every queued key to be loaded
+        if (!field_939.containsKey(key) || ChunkPregeneratorImpl.isWatched(field_940, x, z)) return;
+        // same as vanilla's unload queueing, which keeps the spawn area loaded
+        Vec3i spawn = field_940.getSpawnPos();
+        int dx = x * 16 + 8 - spawn.x;
+        int dz = z * 16 + 8 - spawn.z;
+        if (dx < -128 || dx > 128 || dz < -128 || dz > 128) field_934.add(key);
+    }
+}
@@ -0,0 +1,104 @@
+package net.modificationstation.stationapi.api.registry;
+
+import com.mojang.serialization.Lifecycle;
+import net.modificationstation.stationapi.api.util.Identifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups in a registry of 50k intrusive entries, the size of a large modpack's block registry,
+ * before it's frozen, when lookups go through the registry's maps, and after, when they go through
+ * {@link FrozenRegistryLookup} and the values' own entries.
+ *
+ * <p>Lookups are made in a shuffled order, so that they miss the CPU caches like they would in game.
+ * The heap the registry takes, and what freezing it adds, are printed once per fork,
+ * run with {@code -prof gc} to also see that lookups don't allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegistryLookupBenchmark {
+    private static final class Thing implements IntrusiveEntryHolder<Thing> {
+        private RegistryEntry.Reference<Thing> entry;
+
+        @Override
+        public RegistryEntry.Reference<Thing> getRegistryEntry() {
+            return entry;
+        }
+    }
+
+    @Param("50000")
+    public int entries;
+
+    @Param({"false", "true"})
+    public boolean frozen;
+
+    private SimpleRegistry<Thing> registry;
+    private Identifier[] ids;
+    private Thing[] values;
+    private int[] order;
+    private int next;
+
+    @Setup
+    public void setup() {
+        long empty = usedHeap();
+        registry = new SimpleRegistry<>(RegistryKey.ofRegistry(Identifier.of("benchmark:things")), Lifecycle.stable(), true);
+        ids = new Identifier[entries];
+        values = new Thing[entries];
+        for (int i = 0; i < entries; i++) {
+            Thing thing = new Thing();
+            thing.entry = registry.createEntry(thing);
+            ids[i] = Identifier.of("mod" + i % 64 + ":thing_" + i);
+            values[i] = thing;
+            registry.add(RegistryKey.of(registry.getKey(), ids[i]), thing, Lifecycle.stable());
+        }
+        long built = usedHeap();
+        System.out.printf("%n%d entries take %d KiB%n", entries, (built - empty) >> 10);
+        if (frozen) {
+            registry.freeze();
+            System.out.printf("freezing adds %d KiB%n", (usedHeap() - built) >> 10);
+        }
+
+        order = new int[entries];
+        for (int i = 0; i < entries; i++) order[i] = i;
+        Random random = new Random(0);
+        for (int i = entries - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+
+    @Benchmark
+    public Thing byId() {
+        return registry.get(ids[next()]);
+    }
+
+    @Benchmark
+    public Thing byRawId() {
+        return registry.get(next());
+    }
+
+    @Benchmark
+    public int rawIdOf() {
+        return registry.getRawId(values[next()]);
+    }
+
+    private int next() {
+        int index = order[next];
+        next = next + 1 == order.length ? 0 : next + 1;
+        return index;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
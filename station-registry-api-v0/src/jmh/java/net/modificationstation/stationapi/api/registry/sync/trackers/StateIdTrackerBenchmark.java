@@ -0,0 +1,76 @@
+package net.modificationstation.stationapi.api.registry.sync.trackers;
+
+import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.modificationstation.stationapi.api.registry.RegistryKey;
+import net.modificationstation.stationapi.api.registry.RemapException;
+import net.modificationstation.stationapi.api.registry.RemappableRegistry;
+import net.modificationstation.stationapi.api.registry.SimpleRegistry;
+import net.modificationstation.stationapi.api.util.Identifier;
+import net.modificationstation.stationapi.api.util.collection.IdList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what a remap that swaps the raw IDs of two entries costs with and without a {@link StateIdTracker},
+ * depending on the size of the registry and on where in it the swapped entries are.
+ *
+ * <p>Every entry has a few states, like blocks do. Each invocation swaps the two entries,
+ * the next one swaps them back. A remap always walks the whole registry itself,
+ * so the cost of the tracker is the difference to the untracked runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateIdTrackerBenchmark {
+    private static final int STATES = 4;
+
+    private record Thing(List<Object> states) {}
+
+    @Param({"1000", "10000", "50000"})
+    public int entries;
+
+    /**
+     * Whether the swapped entries are the first two or the last two.
+     */
+    @Param({"head", "tail"})
+    public String changed;
+
+    @Param({"false", "true"})
+    public boolean tracked;
+
+    private SimpleRegistry<Thing> registry;
+    private Reference2IntMap<Identifier> original, swapped;
+    private boolean isSwapped;
+
+    @Setup
+    public void setup() {
+        registry = new SimpleRegistry<>(RegistryKey.ofRegistry(Identifier.of("benchmark:things")), Lifecycle.stable());
+        if (tracked) StateIdTracker.register(registry, new IdList<>(entries * STATES), Thing::states);
+        original = new Reference2IntOpenHashMap<>(entries);
+        for (int i = 0; i < entries; i++) {
+            Object[] states = new Object[STATES];
+            for (int j = 0; j < STATES; j++) states[j] = new Object();
+            Identifier id = Identifier.of("benchmark:thing_" + i);
+            registry.add(RegistryKey.of(registry.getKey(), id), new Thing(List.of(states)), Lifecycle.stable());
+            original.put(id, registry.getRawId(registry.get(id)));
+        }
+        swapped = new Reference2IntOpenHashMap<>(original);
+        int first = "head".equals(changed) ? 0 : entries - 2;
+        Identifier a = Identifier.of("benchmark:thing_" + first), b = Identifier.of("benchmark:thing_" + (first + 1));
+        swapped.put(a, original.getInt(b));
+        swapped.put(b, original.getInt(a));
+    }
+
+    @Benchmark
+    public void remap() throws RemapException {
+        isSwapped = !isSwapped;
+        registry.remap("benchmark", isSwapped ? swapped : original, RemappableRegistry.RemapMode.EXACT);
+    }
+}
@@ -0,0 +1,75 @@
+package net.modificationstation.stationapi.api.tag;
+
+import net.modificationstation.stationapi.api.resource.ResourceType;
+import net.modificationstation.stationapi.api.util.Identifier;
+import net.modificationstation.stationapi.impl.resource.DirectoryResourcePack;
+import net.modificationstation.stationapi.impl.resource.LifecycledResourceManager;
+import net.modificationstation.stationapi.impl.resource.LifecycledResourceManagerImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a tag reload of a pack of 10k synthetic tag files, from finding the files to resolving the tags,
+ * on the calling thread and on the common pool.
+ *
+ * <p>Every tag lists a few values and references up to two tags with lower numbers,
+ * so tags have to be resolved in dependency order, with chains as long as the ones in large modpacks.
+ * The pack is made again each invocation so that finding the files is measured too,
+ * but the files stay in the OS' cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TagReloadBenchmark {
+    private static final String DATA_TYPE = "tags/things";
+
+    @Param("10000")
+    public int tags;
+
+    @Param({"serial", "parallel"})
+    public String executor;
+
+    private Path root;
+    private TagGroupLoader<Identifier> loader;
+
+    @Setup
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("stationapi-tags");
+        Path dir = root.resolve(ResourceType.SERVER_DATA.getDirectory()).resolve("benchmark").resolve(DATA_TYPE);
+        Files.createDirectories(dir);
+        Random random = new Random(0);
+        for (int i = 0; i < tags; i++) {
+            StringBuilder json = new StringBuilder("{\"values\":[");
+            for (int j = 0; j < 4; j++) json.append("\"benchmark:thing_").append(random.nextInt(tags * 4)).append("\",");
+            for (int j = 0; j < 2 && i > 0; j++) json.append("\"#benchmark:tag_").append(random.nextInt(i)).append("\",");
+            json.setLength(json.length() - 1);
+            Files.writeString(dir.resolve("tag_" + i + ".json"), json.append("]}"));
+        }
+        loader = new TagGroupLoader<>(Optional::of, DATA_TYPE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public Map<Identifier, Collection<Identifier>> reload() {
+        Executor executor = "parallel".equals(this.executor) ? ForkJoinPool.commonPool() : Runnable::run;
+        try (LifecycledResourceManager manager = new LifecycledResourceManagerImpl(ResourceType.SERVER_DATA, List.of(new DirectoryResourcePack("benchmark", root, true)))) {
+            return loader.load(manager, executor).join();
+        }
+    }
+}
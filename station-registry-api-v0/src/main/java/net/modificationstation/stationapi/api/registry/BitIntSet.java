@@ -0,0 +1,74 @@
+package net.modificationstation.stationapi.api.registry;
+
+import it.unimi.dsi.fastutil.ints.AbstractIntSet;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An unmodifiable set of non-negative ints backed by a bitset, for raw IDs.
+ */
+final class BitIntSet extends AbstractIntSet {
+    static final long[] EMPTY_BITS = new long[0];
+
+    private final long[] bits;
+    private final int size;
+
+    BitIntSet(long[] bits) {
+        this.bits = bits;
+        int size = 0;
+        for (long word : bits) size += Long.bitCount(word);
+        this.size = size;
+    }
+
+    static long[] set(long[] bits, int index) {
+        int word = index >>> 6;
+        if (word >= bits.length) {
+            long[] grown = new long[Math.max(word + 1, bits.length << 1)];
+            System.arraycopy(bits, 0, grown, 0, bits.length);
+            bits = grown;
+        }
+        bits[word] |= 1L << index;
+        return bits;
+    }
+
+    static boolean get(long[] bits, int index) {
+        int word = index >>> 6;
+        return index >= 0 && word < bits.length && (bits[word] & 1L << index) != 0;
+    }
+
+    @Override
+    public boolean contains(int k) {
+        return get(bits, k);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public IntIterator iterator() {
+        return new IntIterator() {
+            private int word;
+            private long remaining = bits.length == 0 ? 0 : bits[0];
+
+            @Override
+            public boolean hasNext() {
+                while (remaining == 0) {
+                    if (++word >= bits.length) return false;
+                    remaining = bits[word];
+                }
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int bit = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return word << 6 | bit;
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package net.modificationstation.stationapi.api.registry;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.modificationstation.stationapi.api.registry.RegistryEntry.Reference;
+import net.modificationstation.stationapi.api.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flat lookup tables of a frozen {@link SimpleRegistry}.
+ *
+ * <p>Entries are kept in an array indexed by raw ID, and in an open-addressed table
+ * of identifiers probed with {@link Identifier#hashCode()}, which identifiers cache,
+ * instead of the identity hash code the registry's maps have to ask the JVM for.
+ * The tables are never changed, a remap builds new ones.
+ */
+final class FrozenRegistryLookup<T> {
+    private final Reference<T>[] byRawId;
+    private final Identifier[] ids;
+    private final Reference<T>[] entriesById;
+    private final int mask;
+
+    FrozenRegistryLookup(List<Reference<T>> rawIdToEntry, Map<Identifier, Reference<T>> idToEntry) {
+        //noinspection unchecked
+        byRawId = rawIdToEntry.toArray(Reference[]::new);
+        int capacity = HashCommon.arraySize(Math.max(1, idToEntry.size()), 0.5F);
+        mask = capacity - 1;
+        ids = new Identifier[capacity];
+        //noinspection unchecked
+        entriesById = new Reference[capacity];
+        idToEntry.forEach((id, entry) -> {
+            int slot = HashCommon.mix(id.hashCode()) & mask;
+            while (ids[slot] != null) slot = slot + 1 & mask;
+            ids[slot] = id;
+            entriesById[slot] = entry;
+        });
+    }
+
+    @Nullable Reference<T> get(int rawId) {
+        return rawId >= 0 && rawId < byRawId.length ? byRawId[rawId] : null;
+    }
+
+    @Nullable Reference<T> get(@Nullable Identifier id) {
+        if (id == null) return null;
+        int slot = HashCommon.mix(id.hashCode()) & mask;
+        Identifier candidate;
+        while ((candidate = ids[slot]) != null) {
+            // identifiers are interned
+            if (candidate == id) return entriesById[slot];
+            slot = slot + 1 & mask;
+        }
+        return null;
+    }
+}
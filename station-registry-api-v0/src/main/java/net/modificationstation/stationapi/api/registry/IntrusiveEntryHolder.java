@@ -0,0 +1,11 @@
+package net.modificationstation.stationapi.api.registry;
+
+/**
+ * A registry value that holds its own intrusive {@link RegistryEntry.Reference}.
+ *
+ * <p>Frozen registries ask the value for its entry instead of looking it up.
+ */
+public interface IntrusiveEntryHolder<T> {
+
+    RegistryEntry.Reference<T> getRegistryEntry();
+}
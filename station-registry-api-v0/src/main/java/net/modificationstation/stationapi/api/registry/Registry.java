@@ -3,6 +3,7 @@ package net.modificationstation.stationapi.api.registry;
 import com.mojang.datafixers.DataFixUtils;
 import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.*;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import net.minecraft.block.Block;
 import net.minecraft.item.Item;
 import net.modificationstation.stationapi.api.tag.TagKey;
@@ -406,6 +407,21 @@ public interface Registry<T> extends Keyable, IndexedIterable<T> {
         return DataFixUtils.orElse(this.getEntryList(tag), List.of());
     }
 
+    /**
+     * {@return the raw IDs of the values that are assigned {@code tag}, as an unmodifiable set}
+     *
+     * <p>Meant for filtering many raw IDs at once. The set is a snapshot,
+     * and is out of date once tags are reloaded or raw IDs are remapped.
+     */
+    default IntSet getRawIds(TagKey<T> tag) {
+        long[] bits = BitIntSet.EMPTY_BITS;
+        for (RegistryEntry<T> entry : iterateEntries(tag)) {
+            int rawId = getRawId(entry.value());
+            if (rawId >= 0) bits = BitIntSet.set(bits, rawId);
+        }
+        return new BitIntSet(bits);
+    }
+
     RegistryEntryList.Named<T> getOrCreateEntryList(TagKey<T> var1);
 
     Stream<Pair<TagKey<T>, RegistryEntryList.Named<T>>> streamTagsAndEntries();
@@ -7,9 +7,7 @@ import net.modificationstation.stationapi.api.tag.TagKey;
 import net.modificationstation.stationapi.api.util.Identifier;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -99,7 +97,11 @@ public interface RegistryEntry<T> {
 
     class Reference<T> implements RegistryEntry<T> {
         private final RegistryEntryOwner<T> owner;
-        private Set<TagKey<T>> tags = Set.of();
+        /**
+         * The entry's tags, as a bitset of {@link #tagIndex}'s ordinals.
+         */
+        private long[] tags = BitIntSet.EMPTY_BITS;
+        private TagIndex<T> tagIndex = TagIndex.empty();
         private final net.modificationstation.stationapi.api.registry.RegistryEntry.Reference.Type referenceType;
         /**
          * Isn't actually used for storing the raw ID.
@@ -109,6 +111,11 @@ public interface RegistryEntry<T> {
          * registering them.
          */
         private int reservedRawId;
+        /**
+         * The raw ID the entry is registered under, or {@code -1}.
+         * Kept up to date by {@link SimpleRegistry}, including through remaps.
+         */
+        int rawId = -1;
         @Nullable
         private RegistryKey<T> registryKey;
         @Nullable
@@ -167,7 +174,7 @@ public interface RegistryEntry<T> {
 
         @Override
         public boolean isIn(TagKey<T> tag) {
-            return tags.contains(tag);
+            return BitIntSet.get(tags, tagIndex.getOrdinal(tag));
         }
 
         @Override
@@ -216,13 +223,16 @@ public interface RegistryEntry<T> {
             else this.value = value;
         }
 
-        void setTags(Collection<TagKey<T>> tags) {
-            this.tags = Set.copyOf(tags);
+        void setTags(TagIndex<T> tagIndex, long[] tags) {
+            // ordinals never change, so the index and the bits can't disagree in between
+            this.tags = tags;
+            this.tagIndex = tagIndex;
         }
 
         @Override
         public Stream<TagKey<T>> streamTags() {
-            return this.tags.stream();
+            TagIndex<T> tagIndex = this.tagIndex;
+            return new BitIntSet(tags).intStream().mapToObj(tagIndex::getTag);
         }
 
         public String toString() {
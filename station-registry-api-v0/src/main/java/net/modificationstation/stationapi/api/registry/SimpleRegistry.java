@@ -7,6 +7,7 @@ import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceMap;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.*;
 import net.mine_diver.unsafeevents.EventBus;
 import net.mine_diver.unsafeevents.MutableEventBus;
@@ -17,6 +18,7 @@ import net.modificationstation.stationapi.api.registry.RegistryWrapper.Impl;
 import net.modificationstation.stationapi.api.tag.TagKey;
 import net.modificationstation.stationapi.api.util.Identifier;
 import net.modificationstation.stationapi.api.util.Util;
+import net.modificationstation.stationapi.api.util.collection.IndexedIterable;
 import net.modificationstation.stationapi.impl.registry.sync.RemapStateImpl;
 import org.apache.commons.lang3.Validate;
 import org.jetbrains.annotations.Nullable;
@@ -33,14 +35,24 @@ import static net.modificationstation.stationapi.api.util.Namespace.MINECRAFT;
 public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry, ListenableRegistry {
     final RegistryKey<? extends Registry<T>> key;
     private final ReferenceList<Reference<T>> rawIdToEntry = new ReferenceArrayList<>(256);
-    private final Reference2IntMap<T> entryToRawId = Util.make(new Reference2IntOpenHashMap<>(), map -> map.defaultReturnValue(-1));
     private final Reference2ReferenceMap<Identifier, Reference<T>> idToEntry = new Reference2ReferenceOpenHashMap<>();
     private final Reference2ReferenceMap<RegistryKey<T>, Reference<T>> keyToEntry = new Reference2ReferenceOpenHashMap<>();
     private final Reference2ReferenceMap<T, Reference<T>> valueToEntry = new Reference2ReferenceOpenHashMap<>();
     private final Reference2ReferenceMap<T, Lifecycle> entryToLifecycle = new Reference2ReferenceOpenHashMap<>();
     private Lifecycle lifecycle;
     private volatile Reference2ReferenceMap<TagKey<T>, Named<T>> tagToEntryList = new Reference2ReferenceOpenHashMap<>();
+    private TagIndex<T> tagIndex = TagIndex.empty();
+    /**
+     * Raw IDs of tags' entries, computed when they're first asked for
+     * and dropped whenever tags or raw IDs change.
+     */
+    private volatile Reference2ReferenceMap<TagKey<T>, IntSet> tagToRawIds = new Reference2ReferenceOpenHashMap<>();
     private boolean frozen;
+    /**
+     * Built by {@link #freeze()} and rebuilt by remaps, {@code null} until then.
+     */
+    @Nullable
+    private volatile FrozenRegistryLookup<T> frozenLookup;
     @Nullable
     private Reference2ReferenceMap<T, Reference<T>> intrusiveValueToEntry;
     @Nullable
@@ -170,7 +182,8 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
 
         // figuring out if the object is new
         // or if it's overwriting another object
-        int indexedEntriesId = entryToRawId.getInt(value);
+        Reference<T> indexedEntry = valueToEntry.get(value);
+        int indexedEntriesId = indexedEntry != null ? indexedEntry.rawId : -1;
         if (indexedEntriesId >= 0)
             throw new RuntimeException("Attempted to register object " + value + " twice! (at raw IDs " + indexedEntriesId + " and " + rawId + " )");
         boolean isObjectNew;
@@ -178,7 +191,7 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
         else {
             Reference<T> oldObject = idToEntry.get(registryKey.getValue());
             if (oldObject != null && oldObject.value() != null && oldObject.value() != value) {
-                int oldId = entryToRawId.getInt(oldObject.value());
+                int oldId = oldObject.rawId;
                 if (oldId != rawId)
                     throw new RuntimeException("Attempted to register ID " + registryKey + " at different raw IDs (" + oldId + ", " + rawId + ")! If you're trying to override an item, use .set(), not .register()!");
                 if (eventBus != null)
@@ -196,12 +209,13 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
         this.valueToEntry.put(value, reference);
         this.rawIdToEntry.size(Math.max(this.rawIdToEntry.size(), rawId + 1));
         this.rawIdToEntry.set(rawId, reference);
-        this.entryToRawId.put(value, rawId);
+        reference.rawId = rawId;
         if (this.nextId <= rawId) this.nextId = rawId + 1;
 
         this.entryToLifecycle.put(value, lifecycle);
         this.lifecycle = this.lifecycle.add(lifecycle);
         this.cachedEntries = null;
+        invalidateTagRawIds();
 
         // shouldn't be here really
         // but it's easier when you can interact with unfrozen registries
@@ -229,18 +243,33 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
     @Override
     @Nullable
     public Identifier getId(T value) {
-        Reference<T> reference = this.valueToEntry.get(value);
+        Reference<T> reference = getReference(value);
         return reference != null ? reference.registryKey().getValue() : null;
     }
 
     @Override
     public Optional<RegistryKey<T>> getKey(T entry) {
-        return Optional.ofNullable(this.valueToEntry.get(entry)).map(Reference::registryKey);
+        return Optional.ofNullable(getReference(entry)).map(Reference::registryKey);
     }
 
     @Override
     public int getRawId(@Nullable T value) {
-        return this.entryToRawId.getInt(value);
+        Reference<T> reference = getReference(value);
+        return reference != null ? reference.rawId : -1;
+    }
+
+    /**
+     * Frozen registries take intrusive entries from the values themselves,
+     * other entries are looked up by value.
+     */
+    @Nullable
+    private Reference<T> getReference(@Nullable T value) {
+        if (this.frozen && value instanceof IntrusiveEntryHolder<?> holder) {
+            //noinspection unchecked
+            Reference<T> reference = (Reference<T>) holder.getRegistryEntry();
+            if (reference != null && reference.ownerEquals(getEntryOwner())) return reference;
+        }
+        return this.valueToEntry.get(value);
     }
 
     @Override
@@ -252,11 +281,15 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
     @Override
     @Nullable
     public T get(int index) {
+        FrozenRegistryLookup<T> frozenLookup = this.frozenLookup;
+        if (frozenLookup != null) return getValue(frozenLookup.get(index));
         return index >= 0 && index < this.rawIdToEntry.size() ? getValue(this.rawIdToEntry.get(index)) : null;
     }
 
     @Override
     public Optional<Reference<T>> getEntry(int rawId) {
+        FrozenRegistryLookup<T> frozenLookup = this.frozenLookup;
+        if (frozenLookup != null) return Optional.ofNullable(frozenLookup.get(rawId));
         return rawId >= 0 && rawId < this.rawIdToEntry.size() ? Optional.ofNullable(this.rawIdToEntry.get(rawId)) : Optional.empty();
     }
 
@@ -267,7 +300,7 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
 
     @Override
     public RegistryEntry<T> getEntry(T value) {
-        Reference<T> reference = this.valueToEntry.get(value);
+        Reference<T> reference = getReference(value);
         return reference != null ? reference : RegistryEntry.of(value);
     }
 
@@ -307,7 +340,8 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
     @Override
     @Nullable
     public T get(@Nullable Identifier id) {
-        Reference<T> reference = this.idToEntry.get(id);
+        FrozenRegistryLookup<T> frozenLookup = this.frozenLookup;
+        Reference<T> reference = frozenLookup != null ? frozenLookup.get(id) : this.idToEntry.get(id);
         return getValue(reference);
     }
 
@@ -400,6 +434,7 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
                     this.intrusiveValueToEntry = null;
                 }
 
+                this.frozenLookup = new FrozenRegistryLookup<>(rawIdToEntry, idToEntry);
                 return this;
             }
         }
@@ -433,11 +468,29 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
         return Optional.ofNullable(tagToEntryList.get(tag));
     }
 
+    @Override
+    public IntSet getRawIds(TagKey<T> tag) {
+        IntSet rawIds = tagToRawIds.get(tag);
+        if (rawIds == null) {
+            rawIds = MutableRegistry.super.getRawIds(tag);
+            Reference2ReferenceMap<TagKey<T>, IntSet> map = new Reference2ReferenceOpenHashMap<>(tagToRawIds);
+            map.put(tag, rawIds);
+            tagToRawIds = map;
+        }
+        return rawIds;
+    }
+
+    private void invalidateTagRawIds() {
+        if (!tagToRawIds.isEmpty()) tagToRawIds = new Reference2ReferenceOpenHashMap<>();
+    }
+
     @Override
     public void populateTags(Map<TagKey<T>, List<RegistryEntry<T>>> tagEntries) {
-        Map<Reference<T>, List<TagKey<T>>> map = new IdentityHashMap<>();
-        keyToEntry.values().forEach(entry -> map.put(entry, new ArrayList<>()));
+        TagIndex<T> tagIndex = this.tagIndex.with(tagEntries.keySet());
+        Map<Reference<T>, long[]> map = new IdentityHashMap<>();
+        keyToEntry.values().forEach(entry -> map.put(entry, BitIntSet.EMPTY_BITS));
         tagEntries.forEach((tag, entries) -> {
+            int ordinal = tagIndex.getOrdinal(tag);
 
             for (RegistryEntry<T> entry : entries) {
                 if (!entry.ownerEquals(getReadOnlyWrapper()))
@@ -446,7 +499,7 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
                 if (!(entry instanceof Reference<T> reference))
                     throw new IllegalStateException("Found direct holder " + entry + " value in tag " + tag);
 
-                map.get(reference).add(tag);
+                map.put(reference, BitIntSet.set(map.get(reference), ordinal));
             }
 
         });
@@ -456,14 +509,17 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
 
         Reference2ReferenceMap<TagKey<T>, Named<T>> map2 = new Reference2ReferenceOpenHashMap<>(this.tagToEntryList);
         tagEntries.forEach((tag, entries) -> map2.computeIfAbsent(tag, this::createNamedEntryList).copyOf(entries));
-        map.forEach(Reference::setTags);
+        map.forEach((reference, tags) -> reference.setTags(tagIndex, tags));
+        this.tagIndex = tagIndex;
         this.tagToEntryList = map2;
+        invalidateTagRawIds();
     }
 
     @Override
     public void clearTags() {
         this.tagToEntryList.values().forEach(entryList -> entryList.copyOf(List.of()));
-        this.keyToEntry.values().forEach(entry -> entry.setTags(Set.of()));
+        this.keyToEntry.values().forEach(entry -> entry.setTags(tagIndex, BitIntSet.EMPTY_BITS));
+        invalidateTagRawIds();
     }
 
     @Override
@@ -492,6 +548,34 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
         };
     }
 
+    @Override
+    public IndexedIterable<RegistryEntry<T>> getIndexedEntries() {
+        IndexedIterable<RegistryEntry<T>> entries = MutableRegistry.super.getIndexedEntries();
+        return new IndexedIterable<>() {
+            @Override
+            public int getRawId(RegistryEntry<T> entry) {
+                return entry instanceof Reference<T> reference && reference.ownerEquals(getEntryOwner()) ?
+                        reference.rawId :
+                        entries.getRawId(entry);
+            }
+
+            @Override
+            public @Nullable RegistryEntry<T> get(int index) {
+                return entries.get(index);
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public Iterator<RegistryEntry<T>> iterator() {
+                return entries.iterator();
+            }
+        };
+    }
+
     @Override
     public RegistryEntryOwner<T> getEntryOwner() {
         return this.wrapper;
@@ -595,8 +679,10 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
         }
 
         // entries was handled above, if it was necessary.
+        rawIdToEntry.forEach(reference -> {
+            if (reference != null) reference.rawId = -1;
+        });
         rawIdToEntry.clear();
-        entryToRawId.clear();
         nextId = 0;
         List<Identifier> orderedRemoteEntries = new ArrayList<>(remoteIndexedEntries.keySet());
         orderedRemoteEntries.sort(Comparator.comparingInt(remoteIndexedEntries::getInt));
@@ -617,9 +703,11 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
             // Add the new object, increment nextId to match.
             rawIdToEntry.size(Math.max(this.rawIdToEntry.size(), id + 1));
             rawIdToEntry.set(id, object);
-            entryToRawId.put(object.value(), id);
+            object.rawId = id;
             if (nextId <= id) nextId = id + 1;
         }
+        if (frozen) frozenLookup = new FrozenRegistryLookup<>(rawIdToEntry, idToEntry);
+        invalidateTagRawIds();
         if (eventBus != null)
             eventBus.post(RegistryIdRemapEvent.<T>builder()
                     .state(new RemapStateImpl<>(this, oldIdMap, idMap))
@@ -648,7 +736,7 @@ public class SimpleRegistry<T> implements MutableRegistry<T>, RemappableRegistry
             if (eventBus != null)
                 for (Identifier id : addedIds)
                     eventBus.post(RegistryEntryAddedEvent.builder()
-                            .rawId(entryToRawId.getInt(idToEntry.get(id)))
+                            .rawId(idToEntry.get(id).rawId)
                             .id(id)
                             .object(get(id))
                             .build());
@@ -0,0 +1,64 @@
+package net.modificationstation.stationapi.api.registry;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.modificationstation.stationapi.api.tag.TagKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Dense ordinals of a registry's tags, so that an entry's tags can be kept as a bitset.
+ *
+ * <p>An index is never changed after it's created. New tags make a new index
+ * that keeps the ordinals of the old one, so bitsets made with an older index
+ * stay valid with a newer one.
+ */
+final class TagIndex<T> {
+    private static final TagIndex<?> EMPTY = new TagIndex<>(new Reference2IntOpenHashMap<>(), List.of());
+
+    private final Reference2IntMap<TagKey<T>> ordinals;
+    private final List<TagKey<T>> tags;
+
+    private TagIndex(Reference2IntMap<TagKey<T>> ordinals, List<TagKey<T>> tags) {
+        ordinals.defaultReturnValue(-1);
+        this.ordinals = ordinals;
+        this.tags = tags;
+    }
+
+    static <T> TagIndex<T> empty() {
+        //noinspection unchecked
+        return (TagIndex<T>) EMPTY;
+    }
+
+    /**
+     * {@return an index that has the ordinals of this one and of the given tags}
+     */
+    TagIndex<T> with(Collection<TagKey<T>> tags) {
+        if (this.ordinals.keySet().containsAll(tags)) return this;
+        Reference2IntMap<TagKey<T>> ordinals = new Reference2IntOpenHashMap<>(this.ordinals);
+        List<TagKey<T>> list = new ArrayList<>(this.tags);
+        for (TagKey<T> tag : tags)
+            if (!ordinals.containsKey(tag)) {
+                ordinals.put(tag, list.size());
+                list.add(tag);
+            }
+        return new TagIndex<>(ordinals, List.copyOf(list));
+    }
+
+    /**
+     * {@return the tag's ordinal, or {@code -1} if the tag isn't indexed}
+     */
+    int getOrdinal(TagKey<T> tag) {
+        return ordinals.getInt(tag);
+    }
+
+    TagKey<T> getTag(int ordinal) {
+        return tags.get(ordinal);
+    }
+
+    int size() {
+        return tags.size();
+    }
+}
@@ -1,7 +1,10 @@
 package net.modificationstation.stationapi.api.registry.sync.trackers;
 
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceMap;
 import it.unimi.dsi.fastutil.ints.Int2ReferenceRBTreeMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.mine_diver.unsafeevents.listener.EventListener;
 import net.mine_diver.unsafeevents.listener.Listener;
 import net.modificationstation.stationapi.api.StationAPI;
@@ -16,12 +19,31 @@ import java.util.function.Function;
 
 import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
 
+/**
+ * Keeps an {@link IdList} of states in the order of their owners' raw IDs.
+ *
+ * <p>The tracker remembers which entry owns each raw ID and where its state ID range starts,
+ * so a remap or an out of order registration only rewrites the ranges that actually moved,
+ * starting from the lowest raw ID that changed. Everything below it is left untouched.
+ */
 @EventListener(phase = StationAPI.INTERNAL_PHASE)
 public final class StateIdTracker<T, S> {
     private final Registry<T> registry;
     private final IdList<S> stateList;
     private final Function<T, Collection<S>> stateGetter;
     private int currentHighestId = 0;
+    /**
+     * The entries by raw ID, and the start and size of their state ID ranges, as they are in {@link #stateList}.
+     */
+    private final ObjectArrayList<T> entries = new ObjectArrayList<>();
+    private final IntArrayList rangeStarts = new IntArrayList();
+    private final IntArrayList rangeSizes = new IntArrayList();
+    private int stateCount;
+    /**
+     * Whether {@link #entries} describe the state list. Not the case if the registry
+     * already had entries when the tracker was registered, until the first full rebuild.
+     */
+    private boolean tracking;
 
     public static <T, S, R extends Registry<T> & ListenableRegistry> void register(R registry, IdList<S> stateList, Function<T, Collection<S>> stateGetter) {
         StateIdTracker<T, S> tracker = new StateIdTracker<>(registry, stateList, stateGetter);
@@ -36,26 +58,95 @@ public final class StateIdTracker<T, S> {
         this.stateGetter = stateGetter;
 
         recalcHighestId();
+        tracking = registry.size() == 0 && stateList.size() == 0;
     }
 
     @EventListener
     private void onEntryAdded(RegistryEntryAddedEvent<T> event) {
         if (event.rawId == currentHighestId + 1) {
-            stateGetter.apply(event.object).forEach(stateList::add);
+            Collection<S> states = stateGetter.apply(event.object);
+            states.forEach(stateList::add);
             currentHighestId = event.rawId;
+            if (tracking) {
+                setRange(event.rawId, event.object, stateCount, states.size());
+                stateCount += states.size();
+            }
         } else {
-            LOGGER.debug("Non-sequential RegistryEntryAddedEvent for " + event.object.getClass().getSimpleName() + " ID tracker (at " + event.id + "), forcing state map recalculation...");
-            recalcStateMap();
+            LOGGER.debug("Non-sequential RegistryEntryAddedEvent for " + event.object.getClass().getSimpleName() + " ID tracker (at " + event.id + "), updating state map from raw ID " + event.rawId + "...");
+            updateStateMap(event.rawId);
         }
     }
 
     @EventListener
     private void onRemap(RegistryIdRemapEvent<T> event) {
-        recalcStateMap();
+        int firstChanged = Integer.MAX_VALUE;
+        for (Int2IntMap.Entry entry : event.state.getRawIdChangeMap().int2IntEntrySet()) {
+            int from = entry.getIntKey(), to = entry.getIntValue();
+            if (from != to) firstChanged = Math.min(firstChanged, Math.min(from, to));
+        }
+        updateStateMap(firstChanged);
+    }
+
+    /**
+     * Brings the state list up to date with the registry, assuming nothing below the given raw ID changed.
+     *
+     * <p>Ranges of entries that kept their raw ID and state ID range aren't rewritten.
+     * If there are fewer states than before, falls back to {@link #recalcStateMap()},
+     * since {@link IdList} can't drop the leftover IDs at its end.
+     */
+    private void updateStateMap(int fromRawId) {
+        if (!tracking || fromRawId < 0) {
+            recalcStateMap();
+            return;
+        }
+        recalcHighestId();
+        fromRawId = Math.min(fromRawId, entries.size());
+        int stateId = fromRawId < entries.size() ? rangeStarts.getInt(fromRawId) : stateCount;
+        int moved = 0;
+        for (int rawId = fromRawId; rawId <= currentHighestId; rawId++) {
+            T object = registry.get(rawId);
+            boolean known = rawId < entries.size();
+            if (object == null) {
+                setRange(rawId, null, stateId, 0);
+                continue;
+            }
+            Collection<S> states = stateGetter.apply(object);
+            int size = states.size();
+            if (!known || entries.get(rawId) != object || rangeStarts.getInt(rawId) != stateId || rangeSizes.getInt(rawId) != size) {
+                int id = stateId;
+                for (S state : states) stateList.set(state, id++);
+                setRange(rawId, object, stateId, size);
+                moved++;
+            }
+            stateId += size;
+        }
+        entries.size(currentHighestId + 1);
+        rangeStarts.size(currentHighestId + 1);
+        rangeSizes.size(currentHighestId + 1);
+        if (stateId < stateCount) {
+            recalcStateMap();
+            return;
+        }
+        stateCount = stateId;
+        LOGGER.debug("Moved the state ID ranges of " + moved + " entries");
+    }
+
+    private void setRange(int rawId, T object, int start, int size) {
+        if (entries.size() <= rawId) {
+            entries.size(rawId + 1);
+            rangeStarts.size(rawId + 1);
+            rangeSizes.size(rawId + 1);
+        }
+        entries.set(rawId, object);
+        rangeStarts.set(rawId, start);
+        rangeSizes.set(rawId, size);
     }
 
     private void recalcStateMap() {
         stateList.clear();
+        entries.clear();
+        rangeStarts.clear();
+        rangeSizes.clear();
 
         Int2ReferenceMap<T> sortedBlocks = new Int2ReferenceRBTreeMap<>();
 
@@ -66,7 +157,17 @@ public final class StateIdTracker<T, S> {
             sortedBlocks.put(rawId, t);
         });
 
-        for (T b : sortedBlocks.values()) stateGetter.apply(b).forEach(stateList::add);
+        stateCount = 0;
+        for (Int2ReferenceMap.Entry<T> entry : sortedBlocks.int2ReferenceEntrySet()) {
+            // unused raw IDs get empty ranges
+            for (int rawId = entries.size(); rawId < entry.getIntKey(); rawId++)
+                setRange(rawId, null, stateCount, 0);
+            Collection<S> states = stateGetter.apply(entry.getValue());
+            states.forEach(stateList::add);
+            setRange(entry.getIntKey(), entry.getValue(), stateCount, states.size());
+            stateCount += states.size();
+        }
+        tracking = true;
     }
 
     private void recalcHighestId() {
@@ -5,24 +5,22 @@
 
 package net.modificationstation.stationapi.api.tag;
 
-import com.google.common.collect.*;
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.mojang.datafixers.util.Either;
-import com.mojang.serialization.DataResult;
 import com.mojang.serialization.Dynamic;
 import com.mojang.serialization.JsonOps;
-import it.unimi.dsi.fastutil.objects.Reference2ReferenceMap;
-import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.*;
 import net.modificationstation.stationapi.api.util.Identifier;
 import net.modificationstation.stationapi.api.resource.Resource;
 import net.modificationstation.stationapi.api.resource.ResourceManager;
-import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Reader;
 import java.util.*;
-import java.util.function.BiConsumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,6 +29,7 @@ import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
 public class TagGroupLoader<T> {
     private static final String JSON_EXTENSION = ".json";
     private static final int JSON_EXTENSION_LENGTH = JSON_EXTENSION.length();
+    private static final byte UNVISITED = 0, VISITING = 1, VISITED = 2;
     final Function<Identifier, Optional<? extends T>> registryGetter;
     private final String dataType;
 
@@ -40,64 +39,106 @@ public class TagGroupLoader<T> {
     }
 
     public Map<Identifier, List<TrackedEntry>> loadTags(ResourceManager manager) {
-        Reference2ReferenceMap<Identifier, List<TrackedEntry>> map = new Reference2ReferenceOpenHashMap<>();
-
-        for (Map.Entry<Identifier, List<Resource>> entry : manager.findAllResources(this.dataType, id -> id.path.endsWith(JSON_EXTENSION)).entrySet()) {
-            Identifier identifier = entry.getKey();
-            String string = identifier.path;
-            Identifier identifier2 = Identifier.of(identifier.namespace, string.substring(this.dataType.length() + 1, string.length() - JSON_EXTENSION_LENGTH));
-
-            for (Resource resource : entry.getValue())
-                try {
-                    Reader reader = resource.getReader();
-
-                    try {
-                        JsonElement jsonElement = JsonParser.parseReader(reader);
-                        List<TrackedEntry> list = map.computeIfAbsent(identifier2, identifierx -> new ArrayList<>());
-                        DataResult<TagFile> var10000 = TagFile.CODEC.parse(new Dynamic<>(JsonOps.INSTANCE, jsonElement));
-                        Logger var10002 = LOGGER;
-                        Objects.requireNonNull(var10002);
-                        TagFile tagFile = var10000.getOrThrow(false, var10002::error);
-                        if (tagFile.replace()) list.clear();
-
-                        String string2 = resource.getResourcePackName();
-                        tagFile.entries().forEach(tagEntry -> list.add(new TrackedEntry(tagEntry, string2)));
-                    } catch (Throwable var16) {
-                        if (reader != null) try {
-                            reader.close();
-                        } catch (Throwable var15) {
-                            var16.addSuppressed(var15);
-                        }
+        return this.loadTags(manager, Runnable::run).join();
+    }
 
-                        throw var16;
-                    }
+    /**
+     * Finds the tag files and parses them on the given executor, one task per tag.
+     * Files of the same tag are still read in resource pack order, so {@code replace} works like before.
+     */
+    public CompletableFuture<Map<Identifier, List<TrackedEntry>>> loadTags(ResourceManager manager, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> manager.findAllResources(this.dataType, id -> id.path.endsWith(JSON_EXTENSION)), executor).thenCompose(resources -> {
+            List<CompletableFuture<Map.Entry<Identifier, List<TrackedEntry>>>> futures = new ArrayList<>(resources.size());
+
+            for (Map.Entry<Identifier, List<Resource>> entry : resources.entrySet()) {
+                Identifier identifier = entry.getKey();
+                String string = identifier.path;
+                Identifier identifier2 = Identifier.of(identifier.namespace, string.substring(this.dataType.length() + 1, string.length() - JSON_EXTENSION_LENGTH));
+                futures.add(CompletableFuture.supplyAsync(() -> Map.entry(identifier2, parseTag(identifier, identifier2, entry.getValue())), executor));
+            }
 
-                    reader.close();
-                } catch (Exception var17) {
-                    LOGGER.error("Couldn't read tag list {} from {}"/* in data pack {}"*/, new Object[]{identifier2, identifier/*, resource.getResourcePackName()*/, var17});
+            return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(void_ -> {
+                Reference2ReferenceMap<Identifier, List<TrackedEntry>> map = new Reference2ReferenceOpenHashMap<>(futures.size());
+                for (CompletableFuture<Map.Entry<Identifier, List<TrackedEntry>>> future : futures) {
+                    Map.Entry<Identifier, List<TrackedEntry>> tag = future.join();
+                    map.put(tag.getKey(), tag.getValue());
                 }
-        }
-
-        return map;
+                return map;
+            });
+        });
     }
 
-    private static void method_32839(Map<Identifier, List<TrackedEntry>> map, Multimap<Identifier, Identifier> multimap, Set<Identifier> set, Identifier identifier, BiConsumer<Identifier, List<TrackedEntry>> biConsumer) {
-        if (set.add(identifier)) {
-            multimap.get(identifier).forEach(identifierx -> method_32839(map, multimap, set, identifierx, biConsumer));
-            List<TrackedEntry> list = map.get(identifier);
-            if (list != null) biConsumer.accept(identifier, list);
+    private static List<TrackedEntry> parseTag(Identifier identifier, Identifier identifier2, List<Resource> resources) {
+        List<TrackedEntry> list = new ArrayList<>();
 
-        }
-    }
+        for (Resource resource : resources)
+            try (Reader reader = resource.getReader()) {
+                JsonElement jsonElement = JsonParser.parseReader(reader);
+                TagFile tagFile = TagFile.CODEC.parse(new Dynamic<>(JsonOps.INSTANCE, jsonElement)).getOrThrow(false, LOGGER::error);
+                if (tagFile.replace()) list.clear();
 
-    private static boolean method_32836(Multimap<Identifier, Identifier> multimap, Identifier identifier, Identifier identifier2) {
-        Collection<Identifier> collection = multimap.get(identifier2);
-        return collection.contains(identifier) || collection.stream().anyMatch(identifier2x -> method_32836(multimap, identifier, identifier2x));
+                String string2 = resource.getResourcePackName();
+                tagFile.entries().forEach(tagEntry -> list.add(new TrackedEntry(tagEntry, string2)));
+            } catch (Exception var17) {
+                LOGGER.error("Couldn't read tag list {} from {}"/* in data pack {}"*/, new Object[]{identifier2, identifier/*, resource.getResourcePackName()*/, var17});
+            }
+
+        return list;
     }
 
-    private static void method_32844(Multimap<Identifier, Identifier> multimap, Identifier identifier, Identifier identifier2) {
-        if (!method_32836(multimap, identifier, identifier2)) multimap.put(identifier, identifier2);
+    /**
+     * Orders the tags so that every tag comes after the tags it references, with an iterative depth-first search.
+     * Tags that are part of a reference cycle are added to the given set instead of failing the whole group.
+     */
+    private static List<Identifier> sortByDependencies(Map<Identifier, List<Identifier>> dependencies, Set<Identifier> cyclic) {
+        List<Identifier> order = new ArrayList<>(dependencies.size());
+        Reference2ByteMap<Identifier> marks = new Reference2ByteOpenHashMap<>(dependencies.size());
+        marks.defaultReturnValue(UNVISITED);
+        ArrayDeque<Identifier> stack = new ArrayDeque<>();
+        ArrayDeque<Iterator<Identifier>> iterators = new ArrayDeque<>();
+
+        for (Identifier root : dependencies.keySet()) {
+            if (marks.getByte(root) != UNVISITED) continue;
+            marks.put(root, VISITING);
+            stack.push(root);
+            iterators.push(dependencies.get(root).iterator());
+
+            while (!stack.isEmpty()) {
+                Iterator<Identifier> iterator = iterators.peek();
+                if (!iterator.hasNext()) {
+                    Identifier identifier = stack.pop();
+                    iterators.pop();
+                    marks.put(identifier, VISITED);
+                    order.add(identifier);
+                    continue;
+                }
+
+                Identifier dependency = iterator.next();
+                switch (marks.getByte(dependency)) {
+                    case UNVISITED -> {
+                        List<Identifier> next = dependencies.get(dependency);
+                        // references to tags without files are reported when resolving
+                        if (next == null) continue;
+                        marks.put(dependency, VISITING);
+                        stack.push(dependency);
+                        iterators.push(next.iterator());
+                    }
+                    case VISITING -> {
+                        List<Identifier> cycle = new ArrayList<>();
+                        for (Identifier identifier : stack) {
+                            cycle.add(identifier);
+                            if (identifier == dependency) break;
+                        }
+                        Collections.reverse(cycle);
+                        cycle.add(dependency);
+                        cyclic.addAll(cycle);
+                        LOGGER.error("Found a tag reference cycle: {}", cycle.stream().map(Objects::toString).collect(Collectors.joining(" -> ")));
+                    }
+                }
+            }
+        }
 
+        return order;
     }
 
     private Either<Collection<TrackedEntry>, Collection<T>> method_43952(TagEntry.ValueGetter<T> valueGetter, List<TrackedEntry> list) {
@@ -114,7 +155,7 @@ public class TagGroupLoader<T> {
     }
 
     public Map<Identifier, Collection<T>> buildGroup(Map<Identifier, List<TrackedEntry>> map) {
-        final Map<Identifier, Collection<T>> map2 = Maps.newHashMap();
+        final Map<Identifier, Collection<T>> map2 = new Reference2ReferenceOpenHashMap<>(map.size());
         TagEntry.ValueGetter<T> valueGetter = new TagEntry.ValueGetter<>() {
             @Nullable
             public T direct(Identifier id) {
@@ -126,14 +167,30 @@ public class TagGroupLoader<T> {
                 return map2.get(id);
             }
         };
-        Multimap<Identifier, Identifier> multimap = HashMultimap.create();
-        map.forEach((identifier, list) -> list.forEach(trackedEntry -> trackedEntry.entry.forEachRequiredTagId(identifier2 -> method_32844(multimap, identifier, identifier2))));
-        map.forEach((identifier, list) -> list.forEach(trackedEntry -> trackedEntry.entry.forEachOptionalTagId(identifier2 -> method_32844(multimap, identifier, identifier2))));
-        Set<Identifier> set = Sets.newHashSet();
-        map.keySet().forEach(identifier -> method_32839(map, multimap, set, identifier, (identifierx, list) -> this.method_43952(valueGetter, list).ifLeft(collection -> LOGGER.error("Couldn't load tag {} as it is missing following references: {}", identifierx, collection.stream().map(Objects::toString).collect(Collectors.joining(", ")))).ifRight(collection -> map2.put(identifierx, collection))));
+        Map<Identifier, List<Identifier>> dependencies = new Reference2ReferenceOpenHashMap<>(map.size());
+        map.forEach((identifier, list) -> {
+            List<Identifier> list2 = new ArrayList<>();
+            list.forEach(trackedEntry -> {
+                trackedEntry.entry.forEachRequiredTagId(list2::add);
+                trackedEntry.entry.forEachOptionalTagId(list2::add);
+            });
+            dependencies.put(identifier, list2);
+        });
+        Set<Identifier> cyclic = new ReferenceOpenHashSet<>();
+        for (Identifier identifier : sortByDependencies(dependencies, cyclic)) {
+            if (cyclic.contains(identifier)) {
+                LOGGER.error("Couldn't load tag {} as it is part of a reference cycle", identifier);
+                continue;
+            }
+            this.method_43952(valueGetter, map.get(identifier)).ifLeft(collection -> LOGGER.error("Couldn't load tag {} as it is missing following references: {}", identifier, collection.stream().map(Objects::toString).collect(Collectors.joining(", ")))).ifRight(collection -> map2.put(identifier, collection));
+        }
         return map2;
     }
 
+    public CompletableFuture<Map<Identifier, Collection<T>>> load(ResourceManager manager, Executor executor) {
+        return this.loadTags(manager, executor).thenApplyAsync(this::buildGroup, executor);
+    }
+
     public Map<Identifier, Collection<T>> load(ResourceManager manager) {
         return this.buildGroup(this.loadTags(manager));
     }
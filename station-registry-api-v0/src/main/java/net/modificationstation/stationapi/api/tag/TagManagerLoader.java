@@ -71,7 +71,7 @@ public class TagManagerLoader implements IdentifiableResourceReloadListener {
         RegistryKey<? extends Registry<T>> registryKey = requirement.key();
         Registry<T> registry = requirement.value();
         TagGroupLoader<RegistryEntry<T>> tagGroupLoader = new TagGroupLoader<>(id -> registry.getEntry(RegistryKey.of(registryKey, id)), getPath(registryKey));
-        return CompletableFuture.supplyAsync(() -> new RegistryTags<>(registryKey, tagGroupLoader.load(resourceManager)), prepareExecutor);
+        return tagGroupLoader.load(resourceManager, prepareExecutor).thenApply(tags -> new RegistryTags<>(registryKey, tags));
     }
 
     @Override
@@ -10,13 +10,28 @@ import net.modificationstation.stationapi.api.mod.entrypoint.EventBusPolicy;
 import net.modificationstation.stationapi.api.registry.RemapException;
 import net.modificationstation.stationapi.impl.registry.sync.RegistrySyncManager;
 
+/**
+ * Restores the registries to the local mapping once they're no longer used with a server's one.
+ *
+ * <p>Restoring is deferred from disconnecting until a singleplayer world is started
+ * or a server with a different mapping is joined, so reconnecting to the same server
+ * doesn't have to remap the registries twice.
+ */
 @Environment(EnvType.CLIENT)
 @Entrypoint(eventBus = @EventBusPolicy(registerInstance = false))
 @EventListener(phase = StationAPI.INTERNAL_PHASE)
 public final class ClientRegistryRestorer {
     @Environment(EnvType.CLIENT)
     @EventListener
-    private static void onDisconnect(MultiplayerLogoutEvent event) throws RemapException {
-        RegistrySyncManager.unmap();
+    private static void onDisconnect(MultiplayerLogoutEvent event) {
+        RegistrySyncManager.onDisconnect();
+    }
+
+    public static void onSingleplayerStart() {
+        try {
+            RegistrySyncManager.restore();
+        } catch (RemapException e) {
+            throw new RuntimeException(e);
+        }
     }
 }
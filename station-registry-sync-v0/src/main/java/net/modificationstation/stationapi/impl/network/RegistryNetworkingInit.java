@@ -7,6 +7,7 @@ import net.modificationstation.stationapi.api.mod.entrypoint.Entrypoint;
 import net.modificationstation.stationapi.api.mod.entrypoint.EventBusPolicy;
 import net.modificationstation.stationapi.api.registry.PacketTypeRegistry;
 import net.modificationstation.stationapi.api.registry.Registry;
+import net.modificationstation.stationapi.impl.network.packet.c2s.login.RegistrySyncHashC2SPacket;
 import net.modificationstation.stationapi.impl.network.packet.s2c.play.RemapClientRegistryS2CPacket;
 
 import static net.mine_diver.unsafeevents.listener.ListenerPriority.HIGH;
@@ -18,5 +19,6 @@ public final class RegistryNetworkingInit {
     @EventListener
     private static void onInitialize(PacketRegisterEvent event) {
         Registry.register(PacketTypeRegistry.INSTANCE, NAMESPACE.id("registry/remap_client"), RemapClientRegistryS2CPacket.TYPE);
+        Registry.register(PacketTypeRegistry.INSTANCE, NAMESPACE.id("registry/sync_hash"), RegistrySyncHashC2SPacket.TYPE);
     }
 }
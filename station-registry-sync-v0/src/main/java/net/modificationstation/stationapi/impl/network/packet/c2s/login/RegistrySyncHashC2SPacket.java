@@ -0,0 +1,69 @@
+package net.modificationstation.stationapi.impl.network.packet.c2s.login;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.network.NetworkHandler;
+import net.minecraft.network.packet.Packet;
+import net.modificationstation.stationapi.api.network.packet.ManagedPacket;
+import net.modificationstation.stationapi.api.network.packet.PacketType;
+import net.modificationstation.stationapi.impl.registry.sync.RegistrySyncManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Sent by the client before logging in, with the content hash of the registry mapping
+ * it got from this server last time, so that the server can skip sending it again.
+ *
+ * <p>Has a reserved raw ID since it's sent before registries are synchronized.
+ */
+public class RegistrySyncHashC2SPacket extends Packet implements ManagedPacket<RegistrySyncHashC2SPacket> {
+    public static final PacketType<RegistrySyncHashC2SPacket> TYPE = PacketType
+            .builder(false, true, RegistrySyncHashC2SPacket::new)
+            .rawId(1)
+            .build();
+
+    public long hash;
+
+    private RegistrySyncHashC2SPacket() {}
+
+    @Environment(EnvType.CLIENT)
+    public RegistrySyncHashC2SPacket(long hash) {
+        this.hash = hash;
+    }
+
+    @Override
+    public void read(DataInputStream stream) {
+        try {
+            hash = stream.readLong();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void write(DataOutputStream stream) {
+        try {
+            stream.writeLong(hash);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void apply(NetworkHandler arg) {
+        RegistrySyncManager.onClientHash(arg, hash);
+    }
+
+    @Override
+    public int size() {
+        return Long.BYTES;
+    }
+
+    @Override
+    public @NotNull PacketType<RegistrySyncHashC2SPacket> getType() {
+        return TYPE;
+    }
+}
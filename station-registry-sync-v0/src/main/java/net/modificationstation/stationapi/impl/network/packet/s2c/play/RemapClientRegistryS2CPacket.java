@@ -12,68 +12,272 @@ import net.minecraft.network.packet.Packet;
 import net.modificationstation.stationapi.api.network.packet.ManagedPacket;
 import net.modificationstation.stationapi.api.network.packet.PacketType;
 import net.modificationstation.stationapi.api.util.Identifier;
+import net.modificationstation.stationapi.api.util.Namespace;
 import net.modificationstation.stationapi.impl.network.RegistryPacketHandler;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
+/**
+ * Sends the server's registry mapping to the client.
+ *
+ * <p>Depending on the content hash the client reported with {@link net.modificationstation.stationapi.impl.network.packet.c2s.login.RegistrySyncHashC2SPacket},
+ * the packet either holds the {@linkplain Mode#FULL full mapping}, only the {@linkplain Mode#DELTA changes}
+ * from the mapping the client already knows, or {@linkplain Mode#UNCHANGED nothing} but the hash.
+ *
+ * <p>The server encodes the packet once in its constructor,
+ * so the same instance can be sent to any number of players.
+ *
+ * <p>The mapping is deflated as a whole, and stored compactly before that:
+ * namespaces are written once into a table that identifiers refer to by index,
+ * strings are UTF-8, and all lengths, indices and raw IDs are VarInts.
+ */
 public class RemapClientRegistryS2CPacket extends Packet implements ManagedPacket<RemapClientRegistryS2CPacket> {
     public static final PacketType<RemapClientRegistryS2CPacket> TYPE = PacketType
             .builder(true, false, RemapClientRegistryS2CPacket::new)
             .rawId(0)
             .blocking()
             .build();
+    private static final int MAX_BODY_SIZE = 64 << 20;
+    private static final int MAX_STRING_SIZE = Short.MAX_VALUE;
+    private static final int MAX_NAMESPACES = 1 << 16;
+    private static final int MAX_REGISTRIES = 1 << 12;
+    /**
+     * The most registry entries a mapping may list, across all its registries.
+     */
+    private static final int MAX_ENTRIES = 1 << 20;
+    private static final Mode[] MODES = Mode.values();
 
+    public Mode mode;
+    /**
+     * The content hash of the server's mapping.
+     */
+    public long hash;
+    /**
+     * The content hash of the mapping {@link Mode#DELTA} changes apply to.
+     */
+    public long baseHash;
+    /**
+     * The full mapping for {@link Mode#FULL}, or added and changed entries for {@link Mode#DELTA}.
+     */
     public Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map;
+    /**
+     * Entries removed from the base mapping for {@link Mode#DELTA}.
+     */
+    public Reference2ReferenceMap<Identifier, List<Identifier>> removed;
+    private byte[] data;
+    private int size;
 
     private RemapClientRegistryS2CPacket() {}
 
     @Environment(EnvType.SERVER)
-    public RemapClientRegistryS2CPacket(Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map) {
+    public RemapClientRegistryS2CPacket(long hash, Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map) {
+        this(Mode.FULL, hash, 0, map, new Reference2ReferenceLinkedOpenHashMap<>());
+    }
+
+    @Environment(EnvType.SERVER)
+    public RemapClientRegistryS2CPacket(long hash) {
+        this(Mode.UNCHANGED, hash, 0, new Reference2ReferenceLinkedOpenHashMap<>(), new Reference2ReferenceLinkedOpenHashMap<>());
+    }
+
+    @Environment(EnvType.SERVER)
+    public RemapClientRegistryS2CPacket(
+            long hash, long baseHash,
+            Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> changed,
+            Reference2ReferenceMap<Identifier, List<Identifier>> removed
+    ) {
+        this(Mode.DELTA, hash, baseHash, changed, removed);
+    }
+
+    private RemapClientRegistryS2CPacket(
+            Mode mode, long hash, long baseHash,
+            Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map,
+            Reference2ReferenceMap<Identifier, List<Identifier>> removed
+    ) {
+        this.mode = mode;
+        this.hash = hash;
+        this.baseHash = baseHash;
         this.map = map;
+        this.removed = removed;
+        val bytes = new ByteArrayOutputStream();
+        try {
+            encode(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        data = bytes.toByteArray();
+        size = data.length;
+    }
+
+    private void encode(DataOutputStream stream) throws IOException {
+        stream.writeByte(mode.ordinal());
+        stream.writeLong(hash);
+        if (mode == Mode.UNCHANGED) return;
+        if (mode == Mode.DELTA) stream.writeLong(baseHash);
+        val body = new ByteArrayOutputStream();
+        val deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (val out = new DataOutputStream(new DeflaterOutputStream(body, deflater))) {
+            encodeBody(out);
+        } finally {
+            deflater.end();
+        }
+        writeVarInt(stream, body.size());
+        body.writeTo(stream);
+    }
+
+    private void encodeBody(DataOutputStream stream) throws IOException {
+        val namespaces = new Reference2IntLinkedOpenHashMap<Namespace>();
+        namespaces.defaultReturnValue(-1);
+        map.forEach((registryId, registryMapping) -> {
+            namespaces.putIfAbsent(registryId.namespace, namespaces.size());
+            registryMapping.keySet().forEach(id -> namespaces.putIfAbsent(id.namespace, namespaces.size()));
+        });
+        removed.forEach((registryId, ids) -> {
+            namespaces.putIfAbsent(registryId.namespace, namespaces.size());
+            ids.forEach(id -> namespaces.putIfAbsent(id.namespace, namespaces.size()));
+        });
+        writeVarInt(stream, namespaces.size());
+        for (val namespace : namespaces.keySet())
+            writeUtf8(stream, namespace.toString());
+        writeVarInt(stream, map.size());
+        for (val registry : map.reference2ReferenceEntrySet()) {
+            writeIdentifier(stream, namespaces, registry.getKey());
+            writeVarInt(stream, registry.getValue().size());
+            for (val entry : registry.getValue().reference2IntEntrySet()) {
+                writeIdentifier(stream, namespaces, entry.getKey());
+                writeVarInt(stream, entry.getIntValue());
+            }
+        }
+        if (mode == Mode.FULL) return;
+        writeVarInt(stream, removed.size());
+        for (val registry : removed.reference2ReferenceEntrySet()) {
+            writeIdentifier(stream, namespaces, registry.getKey());
+            writeVarInt(stream, registry.getValue().size());
+            for (val id : registry.getValue())
+                writeIdentifier(stream, namespaces, id);
+        }
     }
 
     @Override
     public void read(DataInputStream stream) {
-        val map = new Reference2ReferenceLinkedOpenHashMap<Identifier, Reference2IntMap<Identifier>>();
+        map = new Reference2ReferenceLinkedOpenHashMap<>();
+        removed = new Reference2ReferenceLinkedOpenHashMap<>();
         try {
-            val mapSize = stream.readInt();
-            for (int i = 0; i < mapSize; i++) {
-                val registryId = Identifier.tryParse(readString(stream, 32767));
-                val registryMapping = new Reference2IntLinkedOpenHashMap<Identifier>();
-                val registryMappingSize = stream.readInt();
-                for (int i1 = 0; i1 < registryMappingSize; i1++)
-                    registryMapping.put(Identifier.tryParse(readString(stream, 32767)), stream.readInt());
-                map.put(registryId, registryMapping);
+            val modeId = stream.readUnsignedByte();
+            if (modeId >= MODES.length) throw new IOException("Unknown registry mapping mode " + modeId);
+            mode = MODES[modeId];
+            hash = stream.readLong();
+            size = 1 + Long.BYTES;
+            if (mode == Mode.UNCHANGED) return;
+            if (mode == Mode.DELTA) {
+                baseHash = stream.readLong();
+                size += Long.BYTES;
+            }
+            val bodySize = readVarInt(stream);
+            if (bodySize < 0 || bodySize > MAX_BODY_SIZE) throw new IOException("Registry mapping is too large (" + bodySize + " bytes)");
+            val body = new byte[bodySize];
+            stream.readFully(body);
+            size += bodySize;
+            val inflater = new Inflater();
+            try (val in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(body), inflater))) {
+                decodeBody(in);
+            } finally {
+                inflater.end();
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        this.map = map;
+    }
+
+    private void decodeBody(DataInputStream stream) throws IOException {
+        val namespaceCount = readCount(stream, MAX_NAMESPACES, "namespaces");
+        val namespaces = new Namespace[namespaceCount];
+        for (int i = 0; i < namespaces.length; i++)
+            namespaces[i] = Namespace.of(readUtf8(stream));
+        val mapSize = readCount(stream, MAX_REGISTRIES, "registries");
+        int entries = 0;
+        for (int i = 0; i < mapSize; i++) {
+            val registryId = readIdentifier(stream, namespaces);
+            val registryMappingSize = readCount(stream, MAX_ENTRIES - entries, "registry entries");
+            entries += registryMappingSize;
+            val registryMapping = new Reference2IntLinkedOpenHashMap<Identifier>(registryMappingSize);
+            for (int i1 = 0; i1 < registryMappingSize; i1++)
+                registryMapping.put(readIdentifier(stream, namespaces), readVarInt(stream));
+            map.put(registryId, registryMapping);
+        }
+        if (mode == Mode.FULL) return;
+        val removedSize = readCount(stream, MAX_REGISTRIES, "registries");
+        for (int i = 0; i < removedSize; i++) {
+            val registryId = readIdentifier(stream, namespaces);
+            val removedIdsSize = readCount(stream, MAX_ENTRIES - entries, "removed registry entries");
+            entries += removedIdsSize;
+            val removedIds = new ArrayList<Identifier>(removedIdsSize);
+            for (int i1 = 0; i1 < removedIdsSize; i1++)
+                removedIds.add(readIdentifier(stream, namespaces));
+            removed.put(registryId, removedIds);
+        }
+    }
+
+    private static int readCount(DataInputStream stream, int max, String what) throws IOException {
+        val count = readVarInt(stream);
+        if (count < 0 || count > max) throw new IOException("Invalid number of " + what + " (" + count + ")");
+        return count;
+    }
+
+    private static void writeIdentifier(DataOutputStream stream, Reference2IntMap<Namespace> namespaces, Identifier identifier) throws IOException {
+        writeVarInt(stream, namespaces.getInt(identifier.namespace));
+        writeUtf8(stream, identifier.path);
+    }
+
+    private static Identifier readIdentifier(DataInputStream stream, Namespace[] namespaces) throws IOException {
+        val namespace = readVarInt(stream);
+        if (namespace < 0 || namespace >= namespaces.length) throw new IOException("Unknown namespace index " + namespace);
+        return Identifier.of(namespaces[namespace], readUtf8(stream));
+    }
+
+    private static void writeUtf8(DataOutputStream stream, String string) throws IOException {
+        val bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(stream, bytes.length);
+        stream.write(bytes);
+    }
+
+    private static String readUtf8(DataInputStream stream) throws IOException {
+        val length = readVarInt(stream);
+        if (length < 0 || length > MAX_STRING_SIZE) throw new IOException("String is too long (" + length + " bytes)");
+        val bytes = new byte[length];
+        stream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream stream, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            stream.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        stream.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream stream) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            val b = stream.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("VarInt is too big");
     }
 
     @Override
     public void write(DataOutputStream stream) {
         try {
-            stream.writeInt(map.size());
-            map.forEach((registryId, registryMapping) -> {
-                writeString(registryId.toString(), stream);
-                try {
-                    stream.writeInt(registryMapping.size());
-                    registryMapping.forEach((identifier, rawId) -> {
-                        writeString(identifier.toString(), stream);
-                        try {
-                            stream.writeInt(rawId);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+            stream.write(data);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -86,19 +290,17 @@ public class RemapClientRegistryS2CPacket extends Packet implements ManagedPacke
 
     @Override
     public int size() {
-        return map.entrySet()
-                .stream()
-                .mapToInt(entry ->
-                        Short.BYTES + entry.getKey().toString().length() * 2
-                                + entry.getValue().reference2IntEntrySet()
-                                .stream()
-                                .mapToInt(registryEntry -> Short.BYTES + registryEntry.getKey().toString().length() * 2 + Integer.BYTES)
-                                .sum())
-                .sum();
+        return size;
     }
 
     @Override
     public @NotNull PacketType<RemapClientRegistryS2CPacket> getType() {
         return TYPE;
     }
+
+    public enum Mode {
+        FULL,
+        DELTA,
+        UNCHANGED
+    }
 }
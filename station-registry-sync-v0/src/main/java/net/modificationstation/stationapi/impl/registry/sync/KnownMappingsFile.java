@@ -0,0 +1,106 @@
+package net.modificationstation.stationapi.impl.registry.sync;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceLinkedOpenHashMap;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.modificationstation.stationapi.api.util.Identifier;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
+
+/**
+ * Stores the registry mappings last received from each server between client launches,
+ * so that reconnecting to a server after a restart can still skip receiving and applying its mapping.
+ */
+@Environment(EnvType.CLIENT)
+final class KnownMappingsFile {
+    private static final int VERSION = 1;
+    private static final File FILE = new File(".stationapi" + File.separatorChar + "registry" + File.separatorChar + "known_mappings.dat");
+    private static final int MAX_SERVERS = 1 << 12;
+    private static final int MAX_REGISTRIES = 1 << 12;
+    /**
+     * The most registry entries a mapping may list, across all its registries. Same as the packet's limit.
+     */
+    private static final int MAX_ENTRIES = 1 << 20;
+
+    private KnownMappingsFile() {}
+
+    /**
+     * Reads the known mappings into the given map. A file that can't be read as a whole is treated as missing.
+     */
+    static void read(Map<String, RegistrySyncManager.KnownMapping> mappings) {
+        if (!FILE.isFile()) return;
+        Map<String, RegistrySyncManager.KnownMapping> read = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(FILE))))) {
+            if (in.readInt() != VERSION) return;
+            for (int servers = readCount(in, MAX_SERVERS, "servers"); servers > 0; servers--) {
+                String server = in.readUTF();
+                long hash = in.readLong();
+                Map<Identifier, Reference2IntMap<Identifier>> map = new Reference2ReferenceLinkedOpenHashMap<>();
+                int entryCount = 0;
+                for (int registries = readCount(in, MAX_REGISTRIES, "registries"); registries > 0; registries--) {
+                    Identifier registryId = Identifier.of(in.readUTF());
+                    int size = readCount(in, MAX_ENTRIES - entryCount, "registry entries");
+                    entryCount += size;
+                    Reference2IntMap<Identifier> entries = new Reference2IntLinkedOpenHashMap<>(size);
+                    for (int i = 0; i < size; i++) entries.put(Identifier.of(in.readUTF()), in.readInt());
+                    map.put(registryId, entries);
+                }
+                // a mapping that doesn't match its hash was written by something else, don't offer it
+                if (RegistrySyncManager.hash(map) == hash) read.put(server, new RegistrySyncManager.KnownMapping(hash, map));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Couldn't read known registry mappings from " + FILE.getAbsolutePath() + ", ignoring them", e);
+            return;
+        }
+        mappings.putAll(read);
+    }
+
+    private static int readCount(DataInputStream in, int max, String what) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > max) throw new IOException("Invalid number of " + what + " (" + count + ")");
+        return count;
+    }
+
+    static void write(Map<String, RegistrySyncManager.KnownMapping> mappings) {
+        File directory = FILE.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOGGER.warn("Couldn't create " + directory.getAbsolutePath() + " directory for known registry mappings!");
+            return;
+        }
+        File temp = new File(directory, FILE.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(temp))))) {
+            out.writeInt(VERSION);
+            // the map may change while it's written, and more servers than read() takes would make the whole file unreadable
+            List<Map.Entry<String, RegistrySyncManager.KnownMapping>> servers = mappings.entrySet().stream().limit(MAX_SERVERS).toList();
+            out.writeInt(servers.size());
+            for (Map.Entry<String, RegistrySyncManager.KnownMapping> server : servers) {
+                out.writeUTF(server.getKey());
+                out.writeLong(server.getValue().hash());
+                Map<Identifier, Reference2IntMap<Identifier>> map = server.getValue().map();
+                out.writeInt(map.size());
+                for (Map.Entry<Identifier, Reference2IntMap<Identifier>> registry : map.entrySet()) {
+                    out.writeUTF(registry.getKey().toString());
+                    out.writeInt(registry.getValue().size());
+                    for (Reference2IntMap.Entry<Identifier> entry : registry.getValue().reference2IntEntrySet()) {
+                        out.writeUTF(entry.getKey().toString());
+                        out.writeInt(entry.getIntValue());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't write known registry mappings to " + FILE.getAbsolutePath() + "!", e);
+            return;
+        }
+        if ((!FILE.exists() || FILE.delete()) && temp.renameTo(FILE)) return;
+        LOGGER.warn("Couldn't replace " + FILE.getAbsolutePath() + "!");
+    }
+}
@@ -0,0 +1,171 @@
+package net.modificationstation.stationapi.impl.registry.sync;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceMap;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.mine_diver.unsafeevents.listener.EventListener;
+import net.mine_diver.unsafeevents.listener.Listener;
+import net.modificationstation.stationapi.api.StationAPI;
+import net.modificationstation.stationapi.api.event.registry.RegistryEntryAddedEvent;
+import net.modificationstation.stationapi.api.event.registry.RegistryIdRemapEvent;
+import net.modificationstation.stationapi.api.registry.ListenableRegistry;
+import net.modificationstation.stationapi.api.registry.Registries;
+import net.modificationstation.stationapi.api.registry.Registry;
+import net.modificationstation.stationapi.api.util.Identifier;
+import net.modificationstation.stationapi.impl.network.packet.s2c.play.RemapClientRegistryS2CPacket;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Keeps the server's registry mapping and its encoded packets between logins.
+ *
+ * <p>Each registry's part of the mapping is kept separately, and only rebuilt after an entry
+ * is added to or remapped in that registry. Registries that were added since the last time are
+ * picked up on the next login, and registries that can't be listened to are rebuilt every time.
+ * A few previous mappings are kept around, so that clients that know one of them
+ * only get sent the difference.
+ */
+@Environment(EnvType.SERVER)
+public final class RegistrySyncCache {
+    private static final int HISTORY_SIZE = 4;
+    private static final Map<Identifier, RegistryPart> PARTS = new HashMap<>();
+    private static final Long2ObjectLinkedOpenHashMap<Snapshot> HISTORY = new Long2ObjectLinkedOpenHashMap<>();
+
+    /**
+     * Whether any registry changed since the last snapshot, or can't tell when it does.
+     */
+    private static volatile boolean dirty = true;
+    private static @Nullable Snapshot current;
+
+    private RegistrySyncCache() {}
+
+    /**
+     * {@return the packet to send to a client that knows the mapping with the given hash,
+     * or {@code null} if there's nothing to map}
+     */
+    public static synchronized @Nullable RemapClientRegistryS2CPacket getPacket(@Nullable Long clientHash) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot == null) return null;
+        if (clientHash == null) return snapshot.fullPacket;
+        if (clientHash == snapshot.hash) return snapshot.unchangedPacket;
+        Snapshot base = HISTORY.get((long) clientHash);
+        if (base == null) return snapshot.fullPacket;
+        return snapshot.deltaPackets.computeIfAbsent((long) clientHash, hash -> snapshot.createDelta(base));
+    }
+
+    private static @Nullable Snapshot getSnapshot() {
+        if (!dirty && PARTS.size() == Registries.REGISTRIES.size()) return current;
+        dirty = false;
+        Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map = new Reference2ReferenceLinkedOpenHashMap<>();
+        long hash = 0;
+        Set<Identifier> registryIds = Registries.REGISTRIES.getIds();
+        PARTS.keySet().retainAll(registryIds);
+        for (Identifier registryId : registryIds) {
+            Registry<?> registry = Registries.REGISTRIES.get(registryId);
+            if (registry == null) continue;
+            RegistryPart part = PARTS.get(registryId);
+            if (part == null || part.registry != registry) PARTS.put(registryId, part = new RegistryPart(registry));
+            if (!part.listened) dirty = true;
+            part.update(registryId);
+            if (part.entries == null) continue;
+            map.put(registryId, part.entries);
+            hash += part.hash;
+        }
+        hash += map.size();
+
+        if (current != null && (map.isEmpty() || current.hash != hash)) {
+            HISTORY.put(current.hash, current);
+            if (HISTORY.size() > HISTORY_SIZE) HISTORY.removeFirst();
+        }
+        if (map.isEmpty()) current = null;
+        else if (current == null || current.hash != hash) {
+            HISTORY.remove(hash);
+            current = new Snapshot(map, hash);
+        }
+        return current;
+    }
+
+    /**
+     * A registry's part of the mapping, along with its share of the mapping's hash.
+     */
+    @EventListener(phase = StationAPI.INTERNAL_PHASE)
+    private static final class RegistryPart {
+        private final Registry<?> registry;
+        private final boolean listened;
+        private volatile boolean changed = true;
+        private @Nullable Reference2IntMap<Identifier> entries;
+        private long hash;
+
+        private RegistryPart(Registry<?> registry) {
+            this.registry = registry;
+            listened = registry instanceof ListenableRegistry;
+            if (registry instanceof ListenableRegistry listenableRegistry)
+                listenableRegistry.getEventBus().register(Listener.object().listener(this).build());
+        }
+
+        private void update(Identifier registryId) {
+            if (listened && !changed) return;
+            changed = false;
+            entries = RegistrySyncManager.createRegistryMap(registryId, registry);
+            if (entries != null) hash = RegistrySyncManager.hashRegistry(registryId, entries);
+        }
+
+        @EventListener
+        private void onEntryAdded(RegistryEntryAddedEvent<?> event) {
+            changed = true;
+            dirty = true;
+        }
+
+        @EventListener
+        private void onRemap(RegistryIdRemapEvent<?> event) {
+            changed = true;
+            dirty = true;
+        }
+    }
+
+    private static final class Snapshot {
+        private final Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map;
+        private final long hash;
+        private final RemapClientRegistryS2CPacket fullPacket;
+        private final RemapClientRegistryS2CPacket unchangedPacket;
+        private final Long2ObjectMap<RemapClientRegistryS2CPacket> deltaPackets = new Long2ObjectOpenHashMap<>();
+
+        private Snapshot(Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map, long hash) {
+            this.map = map;
+            this.hash = hash;
+            fullPacket = new RemapClientRegistryS2CPacket(hash, map);
+            unchangedPacket = new RemapClientRegistryS2CPacket(hash);
+        }
+
+        private RemapClientRegistryS2CPacket createDelta(Snapshot base) {
+            // registries aren't removed from the mapping in practice, but the delta can't express that
+            if (!map.keySet().containsAll(base.map.keySet())) return fullPacket;
+            Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> changed = new Reference2ReferenceLinkedOpenHashMap<>();
+            Reference2ReferenceMap<Identifier, List<Identifier>> removed = new Reference2ReferenceLinkedOpenHashMap<>();
+            map.forEach((registryId, entries) -> {
+                Reference2IntMap<Identifier> baseEntries = base.map.get(registryId);
+                Reference2IntMap<Identifier> changedEntries = new Reference2IntLinkedOpenHashMap<>();
+                for (Reference2IntMap.Entry<Identifier> entry : entries.reference2IntEntrySet()) {
+                    Identifier id = entry.getKey();
+                    if (baseEntries == null || !baseEntries.containsKey(id) || baseEntries.getInt(id) != entry.getIntValue())
+                        changedEntries.put(id, entry.getIntValue());
+                }
+                if (!changedEntries.isEmpty()) changed.put(registryId, changedEntries);
+                if (baseEntries == null) return;
+                List<Identifier> removedIds = new ArrayList<>();
+                for (Identifier id : baseEntries.keySet())
+                    if (!entries.containsKey(id)) removedIds.add(id);
+                if (!removedIds.isEmpty()) removed.put(registryId, removedIds);
+            });
+            RemapClientRegistryS2CPacket delta = new RemapClientRegistryS2CPacket(hash, base.hash, changed, removed);
+            return delta.size() < fullPacket.size() ? delta : fullPacket;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package net.modificationstation.stationapi.impl.registry.sync;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.*;
@@ -9,6 +11,7 @@ import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.resource.language.I18n;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.NetworkHandler;
 import net.modificationstation.stationapi.api.event.registry.RegistryAttribute;
 import net.modificationstation.stationapi.api.event.registry.RegistryAttributeHolder;
 import net.modificationstation.stationapi.api.network.packet.PacketHelper;
@@ -23,6 +26,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
 
@@ -34,16 +38,205 @@ public final class RegistrySyncManager {
 	//Set to true after registry's bootstrap has completed
 	public static boolean postBootstrap = false;
 
+	/**
+	 * Registry mapping hashes reported by clients that are still logging in.
+	 */
+	private static final Map<NetworkHandler, Long> LOGIN_HASHES = Collections.synchronizedMap(new WeakHashMap<>());
+	private static final Map<String, Long> PLAYER_HASHES = new ConcurrentHashMap<>();
+
+	/**
+	 * Registry mappings last received from each server, by address.
+	 */
+	private static final Map<String, KnownMapping> KNOWN_MAPPINGS = new ConcurrentHashMap<>();
+	private static volatile boolean knownMappingsLoaded;
+	private static volatile boolean knownMappingsChanged;
+	private static volatile @Nullable String currentServer;
+	private static volatile boolean receivedMapping;
+
+	/**
+	 * Whether the registries are remapped to a server's mapping, and the hash of that mapping.
+	 * Registries are only restored when they're about to be used with a different mapping.
+	 */
+	private static volatile boolean remapped;
+	private static volatile long remappedHash;
+
 	private RegistrySyncManager() {}
 
 	@Environment(EnvType.SERVER)
 	public static void configureClient(PlayerEntity player) {
-		final Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map = RegistrySyncManager.createAndPopulateRegistryMap();
+		final RemapClientRegistryS2CPacket packet = RegistrySyncCache.getPacket(PLAYER_HASHES.remove(player.name));
 
 		// Don't send when there is nothing to map
-		if (map == null) return;
+		if (packet == null) return;
+
+		PacketHelper.sendTo(player, packet);
+	}
+
+	@Environment(EnvType.SERVER)
+	public static void onClientHash(NetworkHandler loginHandler, long hash) {
+		LOGIN_HASHES.put(loginHandler, hash);
+	}
+
+	@Environment(EnvType.SERVER)
+	public static void onLoginAttempt(NetworkHandler loginHandler, String username) {
+		final Long hash = LOGIN_HASHES.remove(loginHandler);
+
+		if (hash != null) PLAYER_HASHES.put(username, hash);
+		else PLAYER_HASHES.remove(username);
+	}
+
+	/**
+	 * A content hash of the registry mapping that doesn't depend on the order of registries and entries.
+	 */
+	public static long hash(Map<Identifier, ? extends Reference2IntMap<Identifier>> map) {
+		long hash = map.size();
+
+		for (Map.Entry<Identifier, ? extends Reference2IntMap<Identifier>> registry : map.entrySet())
+			hash += hashRegistry(registry.getKey(), registry.getValue());
+
+		return hash;
+	}
+
+	/**
+	 * A single registry's share of {@link #hash(Map)}, so that registries can be hashed separately.
+	 */
+	public static long hashRegistry(Identifier registryId, Reference2IntMap<Identifier> entries) {
+		final String id = registryId.toString();
+		long registryHash = entries.size();
+
+		for (Reference2IntMap.Entry<Identifier> entry : entries.reference2IntEntrySet())
+			registryHash += Hashing.murmur3_128().newHasher()
+					.putUnencodedChars(id)
+					.putUnencodedChars(entry.getKey().toString())
+					.putInt(entry.getIntValue())
+					.hash().asLong();
+
+		return HashCommon.mix(registryHash ^ id.hashCode());
+	}
+
+	/**
+	 * Called when connecting to a server.
+	 *
+	 * @return the hash of the mapping last received from this server, or {@code null} if there isn't one
+	 */
+	@Nullable
+	@Environment(EnvType.CLIENT)
+	public static Long onConnect(String server) {
+		loadKnownMappings();
+		currentServer = server;
+		receivedMapping = false;
+		final KnownMapping known = KNOWN_MAPPINGS.get(server);
+
+		// The server won't necessarily send a mapping, so the registries can only be left
+		// as they are if they're remapped to the one it's expected to confirm
+		if (remapped && (known == null || known.hash != remappedHash)) {
+			try {
+				restore();
+			} catch (RemapException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		return known == null ? null : known.hash;
+	}
+
+	/**
+	 * Remaps the registries to the mapping the packet describes, unless they're already remapped to it.
+	 */
+	@Environment(EnvType.CLIENT)
+	public static void applyRemote(RemapClientRegistryS2CPacket packet) throws RemapException {
+		final Map<Identifier, Reference2IntMap<Identifier>> map = resolveRemoteMap(packet);
+
+		if (remapped && remappedHash == packet.hash) {
+			LOGGER.info("Registry mapping is the same as the one already applied, skipping the remap.");
+			return;
+		}
 
-		PacketHelper.sendTo(player, new RemapClientRegistryS2CPacket(map));
+		restore();
+		// Set before applying, so that a partially applied mapping is still restored
+		remapped = true;
+		remappedHash = packet.hash;
+		apply(map, RemappableRegistry.RemapMode.REMOTE);
+	}
+
+	/**
+	 * Restores the registries to the local mapping if they're remapped to a server's one.
+	 */
+	@Environment(EnvType.CLIENT)
+	public static void restore() throws RemapException {
+		if (!remapped) return;
+		remapped = false;
+		unmap();
+	}
+
+	/**
+	 * Resolves the mapping the packet describes, using the mapping last received from the current server
+	 * if the packet only holds the difference from it.
+	 */
+	@Environment(EnvType.CLIENT)
+	public static Map<Identifier, Reference2IntMap<Identifier>> resolveRemoteMap(RemapClientRegistryS2CPacket packet) throws RemapException {
+		final String server = currentServer;
+		final KnownMapping known = server == null ? null : KNOWN_MAPPINGS.get(server);
+		final Map<Identifier, Reference2IntMap<Identifier>> map;
+
+		switch (packet.mode) {
+			case FULL -> map = packet.map;
+			case UNCHANGED -> {
+				if (known == null || known.hash != packet.hash) throw outOfSync(server);
+				map = known.map;
+			}
+			case DELTA -> {
+				if (known == null || known.hash != packet.baseHash) throw outOfSync(server);
+				final Map<Identifier, Reference2IntMap<Identifier>> patched = new Reference2ReferenceLinkedOpenHashMap<>();
+				known.map.forEach((registryId, entries) -> patched.put(registryId, new Reference2IntLinkedOpenHashMap<>(entries)));
+				packet.removed.forEach((registryId, ids) -> {
+					final Reference2IntMap<Identifier> entries = patched.get(registryId);
+					if (entries != null) ids.forEach(entries::removeInt);
+				});
+				packet.map.forEach((registryId, entries) -> patched.computeIfAbsent(registryId, id -> new Reference2IntLinkedOpenHashMap<>()).putAll(entries));
+				if (hash(patched) != packet.hash) throw outOfSync(server);
+				map = patched;
+			}
+			default -> throw new IllegalStateException("Unknown registry sync mode " + packet.mode);
+		}
+
+		receivedMapping = true;
+		if (server != null) {
+			final KnownMapping previous = KNOWN_MAPPINGS.put(server, new KnownMapping(packet.hash, map));
+			if (previous == null || previous.hash != packet.hash) knownMappingsChanged = true;
+		}
+		return map;
+	}
+
+	@Environment(EnvType.CLIENT)
+	private static RemapException outOfSync(@Nullable String server) {
+		if (server != null && KNOWN_MAPPINGS.remove(server) != null) knownMappingsChanged = true;
+		return new RemapException("Registry mapping is out of sync with the server, please reconnect.");
+	}
+
+	/**
+	 * Called when disconnecting from a server. If the server didn't send a mapping this time,
+	 * the last known one is forgotten, so that the client doesn't offer it again.
+	 *
+	 * <p>The registries are left remapped, in case the next server sends the same mapping.
+	 */
+	@Environment(EnvType.CLIENT)
+	public static void onDisconnect() {
+		final String server = currentServer;
+		if (server != null && !receivedMapping && KNOWN_MAPPINGS.remove(server) != null) knownMappingsChanged = true;
+		currentServer = null;
+
+		if (knownMappingsChanged) {
+			knownMappingsChanged = false;
+			KnownMappingsFile.write(KNOWN_MAPPINGS);
+		}
+	}
+
+	@Environment(EnvType.CLIENT)
+	private static void loadKnownMappings() {
+		if (knownMappingsLoaded) return;
+		knownMappingsLoaded = true;
+		KnownMappingsFile.read(KNOWN_MAPPINGS);
 	}
 
 	@Nullable
@@ -52,9 +245,9 @@ public final class RegistrySyncManager {
 		Reference2ReferenceMap<Identifier, Reference2IntMap<Identifier>> map = new Reference2ReferenceLinkedOpenHashMap<>();
 
 		for (Identifier registryId : Registries.REGISTRIES.getIds()) {
-			Registry<?> registry = Registries.REGISTRIES.get(registryId);
+			Reference2IntMap<Identifier> idMap = createRegistryMap(registryId, Registries.REGISTRIES.get(registryId));
 
-			storeRegistry(map, registryId, registry);
+			if (idMap != null) map.put(registryId, idMap);
 		}
 
 		if (map.isEmpty()) return null;
@@ -62,8 +255,12 @@ public final class RegistrySyncManager {
 		return map;
 	}
 
+	/**
+	 * {@return the raw IDs of the registry's entries, or {@code null} if the registry isn't synced}
+	 */
+	@Nullable
 	@Environment(EnvType.SERVER)
-	private static <T> void storeRegistry(Map<Identifier, Reference2IntMap<Identifier>> map, Identifier registryId, Registry<T> registry) {
+	public static <T> Reference2IntMap<Identifier> createRegistryMap(Identifier registryId, Registry<T> registry) {
 		if (DEBUG_WRITE_REGISTRY_DATA) {
 			File location = new File(".stationapi" + File.separatorChar + "debug" + File.separatorChar + "registry");
 			boolean c = true;
@@ -100,7 +297,7 @@ public final class RegistrySyncManager {
 
 		if (!attributeHolder.hasAttribute(RegistryAttribute.SYNCED)) {
 			LOGGER.debug("Not syncing registry: {}", registryId);
-			return;
+			return null;
 		}
 
 		/*
@@ -111,7 +308,7 @@ public final class RegistrySyncManager {
 		 */
 		if (!attributeHolder.hasAttribute(RegistryAttribute.MODDED)) {
 			LOGGER.debug("Skipping un-modded registry: " + registryId);
-			return;
+			return null;
 		}
 
 		LOGGER.debug("Syncing registry: " + registryId);
@@ -140,8 +337,10 @@ public final class RegistrySyncManager {
 				idMap.put(id, rawId);
 			}
 
-			map.put(registryId, idMap);
+			return idMap;
 		}
+
+		return null;
 	}
 
 	@Environment(EnvType.CLIENT)
@@ -249,4 +448,6 @@ public final class RegistrySyncManager {
 	public static void bootstrapRegistries() {
 		postBootstrap = true;
 	}
+
+	record KnownMapping(long hash, Map<Identifier, Reference2IntMap<Identifier>> map) {}
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package net.modificationstation.stationapi.mixin.registrysync.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.network.ClientNetworkHandler;
+import net.modificationstation.stationapi.impl.network.packet.c2s.login.RegistrySyncHashC2SPacket;
+import net.modificationstation.stationapi.impl.registry.sync.RegistrySyncManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientNetworkHandler.class)
+class ClientNetworkHandlerMixin {
+    @Inject(
+            method = "<init>",
+            at = @At("RETURN")
+    )
+    private void stationapi_sendRegistrySyncHash(Minecraft minecraft, String host, int port, CallbackInfo ci) {
+        Long hash = RegistrySyncManager.onConnect(host + ":" + port);
+        if (hash != null)
+            ((ClientNetworkHandler) (Object) this).sendPacket(new RegistrySyncHashC2SPacket(hash));
+    }
+}
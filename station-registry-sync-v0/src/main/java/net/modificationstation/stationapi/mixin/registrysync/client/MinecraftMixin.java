@@ -0,0 +1,19 @@
+package net.modificationstation.stationapi.mixin.registrysync.client;
+
+import net.minecraft.client.Minecraft;
+import net.modificationstation.stationapi.impl.client.registry.ClientRegistryRestorer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(Minecraft.class)
+class MinecraftMixin {
+    @Inject(
+            method = "method_2125",
+            at = @At("HEAD")
+    )
+    private void stationapi_restoreRegistries(CallbackInfo ci) {
+        ClientRegistryRestorer.onSingleplayerStart();
+    }
+}
@@ -0,0 +1,120 @@
+package net.modificationstation.stationapi.api.client.render.model;
+
+import net.modificationstation.stationapi.api.client.render.model.json.JsonUnbakedModel;
+import net.modificationstation.stationapi.api.client.resource.metadata.AnimationResourceMetadata;
+import net.modificationstation.stationapi.api.client.texture.NativeImage;
+import net.modificationstation.stationapi.api.client.texture.Sprite;
+import net.modificationstation.stationapi.api.client.texture.SpriteContents;
+import net.modificationstation.stationapi.api.client.texture.SpriteDimensions;
+import net.modificationstation.stationapi.api.client.texture.SpriteIdentifier;
+import net.modificationstation.stationapi.api.util.Identifier;
+import net.modificationstation.stationapi.api.util.math.Direction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Measures baking a few thousand synthetic block models, serially and in parallel,
+ * with and without sharing identical quads through a {@link QuadInterner}.
+ *
+ * <p>Models are cubes and slabs textured with one of a few dozen sprites, so many of their quads are equal,
+ * like the quads of the models of a block's states are. How many quads were baked and how many of them
+ * are distinct is printed once per fork. Loading the models and the blocks' states needs a running game,
+ * so it's left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBakeBenchmark {
+    private static final Identifier ATLAS = Identifier.of("benchmark:textures/atlas/blocks.png");
+    private static final int SPRITES = 64, SPRITE_SIZE = 16, ATLAS_SIZE = 128;
+    private static final String[] FACES = { "down", "up", "north", "south", "west", "east" };
+
+    @Param("4000")
+    public int models;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Param({"false", "true"})
+    public boolean intern;
+
+    private JsonUnbakedModel[] unbakedModels;
+    private Identifier[] ids;
+    private Function<SpriteIdentifier, Sprite> textureGetter;
+
+    @Setup
+    public void setup() {
+        Map<Identifier, Sprite> sprites = new HashMap<>();
+        for (int i = 0; i < SPRITES; i++) {
+            Identifier id = Identifier.of("benchmark:block/sprite_" + i);
+            SpriteContents contents = new SpriteContents(id, new SpriteDimensions(SPRITE_SIZE, SPRITE_SIZE), new NativeImage(SPRITE_SIZE, SPRITE_SIZE, false), AnimationResourceMetadata.EMPTY);
+            int cells = ATLAS_SIZE / SPRITE_SIZE;
+            sprites.put(id, new Sprite(ATLAS, contents, ATLAS_SIZE, ATLAS_SIZE, i % cells * SPRITE_SIZE, i / cells * SPRITE_SIZE) {});
+        }
+        textureGetter = spriteId -> sprites.get(spriteId.texture);
+
+        unbakedModels = new JsonUnbakedModel[models];
+        ids = new Identifier[models];
+        Random random = new Random(0);
+        for (int i = 0; i < models; i++) {
+            ids[i] = Identifier.of("benchmark:block/model_" + i);
+            unbakedModels[i] = JsonUnbakedModel.deserialize(model(random.nextInt(SPRITES), random.nextBoolean() ? 16 : 8));
+            unbakedModels[i].id = ids[i].toString();
+        }
+
+        QuadInterner interner = new QuadInterner();
+        int quads = 0;
+        Random quadRandom = new Random(0);
+        for (BakedModel model : bake(interner::intern, false)) {
+            quads += model.getQuads(null, null, quadRandom).size();
+            for (Direction face : Direction.values()) quads += model.getQuads(null, face, quadRandom).size();
+        }
+        System.out.printf("%n%d models baked %d quads, %d of them distinct%n", models, quads, interner.size());
+    }
+
+    private static String model(int sprite, int height) {
+        StringBuilder faces = new StringBuilder();
+        for (String face : FACES) {
+            if (faces.length() > 0) faces.append(',');
+            faces.append('"').append(face).append("\":{\"texture\":\"#all\",\"cullface\":\"").append(face).append("\"}");
+        }
+        return "{\"textures\":{\"particle\":\"benchmark:block/sprite_" + sprite + "\",\"all\":\"benchmark:block/sprite_" + sprite + "\"},"
+                + "\"elements\":[{\"from\":[0,0,0],\"to\":[16," + height + ",16],\"faces\":{" + faces + "}}]}";
+    }
+
+    @Benchmark
+    public BakedModel[] bake() {
+        QuadInterner interner = new QuadInterner();
+        return bake(intern ? interner::intern : Function.identity(), parallel);
+    }
+
+    private BakedModel[] bake(Function<BakedQuad, BakedQuad> interner, boolean parallel) {
+        Baker baker = new Baker() {
+            @Override
+            public UnbakedModel getOrLoadModel(Identifier id) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public BakedModel bake(Identifier id, ModelBakeSettings settings) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public BakedQuad intern(BakedQuad quad) {
+                return interner.apply(quad);
+            }
+        };
+        BakedModel[] baked = new BakedModel[models];
+        IntStream indices = IntStream.range(0, models);
+        (parallel ? indices.parallel() : indices).forEach(i -> baked[i] = unbakedModels[i].bake(baker, textureGetter, ModelBakeRotation.X0_Y0, ids[i]));
+        return baked;
+    }
+}
@@ -0,0 +1,97 @@
+package net.modificationstation.stationapi.api.client.texture;
+
+import net.modificationstation.stationapi.api.client.resource.metadata.AnimationResourceMetadata;
+import net.modificationstation.stationapi.api.util.Identifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures stitching an atlas of 8k synthetic sprites without a GL context,
+ * up to the point where the atlas image is ready for upload.
+ *
+ * <p>{@link #place} runs {@link TextureStitcher} alone, {@link #reuseLayout} places the sprites
+ * from an {@link AtlasLayout} of the same sprites instead, like reloads that don't change any sprite do.
+ * {@link #stitch} is what {@link SpriteLoader#stitch} costs in total, placing the sprites
+ * and copying them into the atlas image, with the copies on the calling thread or on the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AtlasStitchBenchmark {
+    private static final Identifier ATLAS = Identifier.of("benchmark:textures/atlas/blocks.png");
+    private static final int MAX_TEXTURE_SIZE = 8192;
+
+    @Param("8192")
+    public int sprites;
+
+    @Param({"serial", "parallel"})
+    public String executor;
+
+    private List<SpriteContents> contents;
+    private AtlasLayout layout;
+
+    @Setup
+    public void setup() {
+        contents = new ArrayList<>(sprites);
+        Random random = new Random(0);
+        for (int i = 0; i < sprites; i++) {
+            // mostly 16x16, some larger, and a few animations with their frames stacked up
+            int roll = random.nextInt(100);
+            int width = roll < 90 ? 16 : 32, height = roll < 95 ? width : width * 8;
+            NativeImage image = new NativeImage(width, height, false);
+            image.fillRect(0, 0, width, height, random.nextInt());
+            contents.add(new SpriteContents(Identifier.of("benchmark:block/sprite_" + i), new SpriteDimensions(width, height), image, AnimationResourceMetadata.EMPTY));
+        }
+        TextureStitcher<SpriteContents> stitcher = stitcher();
+        Map<Identifier, Sprite> placed = new HashMap<>();
+        stitcher.getStitchedSprites((sprite, x, y) -> placed.put(sprite.getId(), new Sprite(ATLAS, sprite, stitcher.getWidth(), stitcher.getHeight(), x, y)));
+        layout = AtlasLayout.of(stitcher.getWidth(), stitcher.getHeight(), placed);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contents.forEach(SpriteContents::close);
+    }
+
+    private TextureStitcher<SpriteContents> stitcher() {
+        TextureStitcher<SpriteContents> stitcher = new TextureStitcher<>(MAX_TEXTURE_SIZE, MAX_TEXTURE_SIZE);
+        contents.forEach(stitcher::add);
+        stitcher.stitch();
+        return stitcher;
+    }
+
+    @Benchmark
+    public Map<Identifier, Sprite> place() {
+        TextureStitcher<SpriteContents> stitcher = stitcher();
+        Map<Identifier, Sprite> placed = new HashMap<>();
+        stitcher.getStitchedSprites((sprite, x, y) -> placed.put(sprite.getId(), new Sprite(ATLAS, sprite, stitcher.getWidth(), stitcher.getHeight(), x, y)));
+        return placed;
+    }
+
+    @Benchmark
+    public Map<Identifier, Sprite> reuseLayout() {
+        if (!layout.matches(contents)) throw new IllegalStateException("The layout doesn't match its own sprites");
+        return layout.place(ATLAS, contents);
+    }
+
+    @Benchmark
+    public int stitch() {
+        Executor executor = "parallel".equals(this.executor) ? ForkJoinPool.commonPool() : Runnable::run;
+        SpriteLoader.StitchResult result = new SpriteLoader(ATLAS, MAX_TEXTURE_SIZE).stitch(contents, executor);
+        result.readyForUpload().join();
+        //noinspection DataFlowIssue
+        result.image().close();
+        return result.regions().size();
+    }
+}
@@ -1,7 +1,9 @@
 package net.modificationstation.stationapi.api.client.render.model;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.ObjectArrays;
+import com.google.common.collect.SetMultimap;
 import com.mojang.datafixers.util.Pair;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
@@ -46,6 +48,7 @@ import static net.modificationstation.stationapi.impl.client.texture.StationRend
 public class BakedModelManager implements IdentifiableResourceReloadListener, AutoCloseable {
 
     public static final Identifier MODELS = NAMESPACE.id("models");
+    private static final int MIN_DISPATCH_BATCH_SIZE = 16;
 
     private Map<Identifier, BakedModel> models;
     @SuppressWarnings("deprecation")
@@ -100,10 +103,11 @@ public class BakedModelManager implements IdentifiableResourceReloadListener, Au
         val atlases = atlasManager.reload(manager, prepareExecutor);
         return CompletableFuture
                 .allOf(ObjectArrays.concat(atlases.values().toArray(CompletableFuture[]::new), modelLoader))
-                .thenApplyAsync(void_ -> bake(
+                .thenComposeAsync(void_ -> bake(
                         prepareProfiler,
                         atlases.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().join())),
-                        modelLoader.join()
+                        modelLoader.join(),
+                        prepareExecutor
                 ), prepareExecutor)
                 .thenCompose(result -> result.readyForUpload.thenApply(void_ -> result))
                 .thenCompose(synchronizer::whenPrepared)
@@ -145,32 +149,48 @@ public class BakedModelManager implements IdentifiableResourceReloadListener, Au
         });
     }
 
-    private BakingResult bake(Profiler profiler, Map<Identifier, SpriteAtlasManager.AtlasPreparation> preparations, ModelLoader modelLoader) {
+    private CompletableFuture<BakingResult> bake(Profiler profiler, Map<Identifier, SpriteAtlasManager.AtlasPreparation> preparations, ModelLoader modelLoader, Executor executor) {
         profiler.push("load");
         profiler.swap("baking");
-        HashMultimap<Identifier, SpriteIdentifier> multimap = HashMultimap.create();
-        modelLoader.bake((id, spriteId) -> {
+        SetMultimap<Identifier, SpriteIdentifier> multimap = Multimaps.synchronizedSetMultimap(HashMultimap.create());
+        return modelLoader.bake((id, spriteId) -> {
             SpriteAtlasManager.AtlasPreparation atlasPreparation = preparations.get(spriteId.atlas);
             Sprite sprite = atlasPreparation.getSprite(spriteId.texture);
             if (sprite != null) return sprite;
             multimap.put(id, spriteId);
             return atlasPreparation.getMissingSprite();
-        });
-        multimap.asMap().forEach((modelId, spriteIds) -> LOGGER.warn("Missing textures in model {}:\n{}", modelId, spriteIds.stream().sorted(SpriteIdentifier.COMPARATOR).map(spriteIdentifier -> "    " + spriteIdentifier.atlas + ":" + spriteIdentifier.texture).collect(Collectors.joining("\n"))));
-        profiler.swap("dispatch");
-        Map<Identifier, BakedModel> map = modelLoader.getBakedModelMap();
-        BakedModel bakedModel = map.get(ModelLoader.MISSING_ID.asIdentifier());
-        Map<BlockState, BakedModel> map2 = new IdentityHashMap<>();
-        for (Block block : BlockRegistry.INSTANCE)
-            block.getStateManager().getStates().forEach(state -> {
-                Identifier identifier = state.getBlock().getRegistryEntry().registryKey().getValue();
-                BakedModel bakedModel2 = map.getOrDefault(BlockModels.getModelId(identifier, state).asIdentifier(), bakedModel);
-                map2.put(state, bakedModel2);
+        }, executor).thenCompose(void_ -> {
+            multimap.asMap().forEach((modelId, spriteIds) -> LOGGER.warn("Missing textures in model {}:\n{}", modelId, spriteIds.stream().sorted(SpriteIdentifier.COMPARATOR).map(spriteIdentifier -> "    " + spriteIdentifier.atlas + ":" + spriteIdentifier.texture).collect(Collectors.joining("\n"))));
+            profiler.swap("dispatch");
+            Map<Identifier, BakedModel> map = modelLoader.getBakedModelMap();
+            BakedModel bakedModel = map.get(ModelLoader.MISSING_ID.asIdentifier());
+            // model IDs of states are built from strings, so blocks are dispatched in parallel too
+            List<Block> blocks = new ArrayList<>();
+            BlockRegistry.INSTANCE.forEach(blocks::add);
+            int batchSize = Math.max(MIN_DISPATCH_BATCH_SIZE, blocks.size() / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+            List<CompletableFuture<Map<BlockState, BakedModel>>> batches = new ArrayList<>();
+            for (int start = 0; start < blocks.size(); start += batchSize) {
+                List<Block> batch = blocks.subList(start, Math.min(blocks.size(), start + batchSize));
+                batches.add(CompletableFuture.supplyAsync(() -> {
+                    Map<BlockState, BakedModel> map2 = new IdentityHashMap<>();
+                    for (Block block : batch)
+                        block.getStateManager().getStates().forEach(state -> {
+                            Identifier identifier = state.getBlock().getRegistryEntry().registryKey().getValue();
+                            BakedModel bakedModel2 = map.getOrDefault(BlockModels.getModelId(identifier, state).asIdentifier(), bakedModel);
+                            map2.put(state, bakedModel2);
+                        });
+                    return map2;
+                }, executor));
+            }
+            return Util.combineSafe(batches).thenApply(maps -> {
+                Map<BlockState, BakedModel> map2 = new IdentityHashMap<>();
+                maps.forEach(map2::putAll);
+                CompletableFuture<Void> completableFuture = CompletableFuture.allOf(preparations.values().stream().map(SpriteAtlasManager.AtlasPreparation::whenComplete).toArray(CompletableFuture[]::new));
+                profiler.pop();
+                profiler.endTick();
+                return new BakingResult(modelLoader, bakedModel, map2, preparations, completableFuture);
             });
-        CompletableFuture<Void> completableFuture = CompletableFuture.allOf(preparations.values().stream().map(SpriteAtlasManager.AtlasPreparation::whenComplete).toArray(CompletableFuture[]::new));
-        profiler.pop();
-        profiler.endTick();
-        return new BakingResult(modelLoader, bakedModel, map2, preparations, completableFuture);
+        });
     }
 
     private void upload(BakingResult bakingResult, Profiler profiler) {
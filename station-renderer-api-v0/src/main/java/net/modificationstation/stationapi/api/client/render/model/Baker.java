@@ -8,4 +8,11 @@ public interface Baker {
 
     @Nullable
     BakedModel bake(Identifier id, ModelBakeSettings settings);
+
+    /**
+     * {@return a quad equal to the given one that can be shared between models, or the given quad itself}
+     */
+    default BakedQuad intern(BakedQuad quad) {
+        return quad;
+    }
 }
@@ -43,6 +43,9 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -71,13 +74,15 @@ public class ModelLoader {
     public static final JsonUnbakedModel VANILLA_MARKER;
     private static final ItemModelGenerator ITEM_MODEL_GENERATOR;
     private static final Map<Identifier, StateManager<Block, BlockState>> STATIC_DEFINITIONS;
+    private static final int MIN_BAKE_BATCH_SIZE = 64;
     private final BlockColors blockColors;
     private final Map<Identifier, JsonUnbakedModel> jsonUnbakedModels;
     private final Map<Identifier, List<SourceTrackedData>> blockStates;
     private final Set<Identifier> modelsToLoad = Sets.newIdentityHashSet();
     private final ModelVariantMap.DeserializationContext variantMapDeserializationContext = new ModelVariantMap.DeserializationContext();
     private final Map<Identifier, UnbakedModel> unbakedModels = new IdentityHashMap<>();
-    private final Map<BakedModelCacheKey, BakedModel> bakedModelCache = new HashMap<>();
+    private final Map<BakedModelCacheKey, BakedModel> bakedModelCache = new ConcurrentHashMap<>();
+    private final QuadInterner quadInterner = new QuadInterner();
     private final Map<Identifier, UnbakedModel> modelsToBake = new IdentityHashMap<>();
     private final Map<Identifier, BakedModel> bakedModels = new IdentityHashMap<>();
     private int nextStateId = 1;
@@ -109,14 +114,39 @@ public class ModelLoader {
     }
 
     public void bake(BiFunction<Identifier, SpriteIdentifier, Sprite> spriteLoader) {
-        this.modelsToBake.keySet().forEach(modelId -> {
-            BakedModel bakedModel = null;
-            try {
-                bakedModel = new BakerImpl(spriteLoader, modelId).bake(modelId, ModelBakeRotation.X0_Y0);
-            } catch (Exception exception) {
-                LOGGER.warn("Unable to bake model: '{}': {}", modelId, exception);
-            }
-            if (bakedModel != null) this.bakedModels.put(modelId, bakedModel);
+        this.bake(spriteLoader, Runnable::run).join();
+    }
+
+    /**
+     * Bakes the models in batches on the given executor.
+     *
+     * <p>Models baked as parts of others are shared through a concurrent cache, and identical quads
+     * are shared between all models. The sprite loader is called from several threads at once.
+     */
+    public CompletableFuture<Void> bake(BiFunction<Identifier, SpriteIdentifier, Sprite> spriteLoader, Executor executor) {
+        List<Identifier> modelIds = new ArrayList<>(this.modelsToBake.keySet());
+        int batchSize = Math.max(MIN_BAKE_BATCH_SIZE, modelIds.size() / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        List<CompletableFuture<List<Pair<Identifier, BakedModel>>>> batches = new ArrayList<>();
+        for (int start = 0; start < modelIds.size(); start += batchSize) {
+            List<Identifier> batch = modelIds.subList(start, Math.min(modelIds.size(), start + batchSize));
+            batches.add(CompletableFuture.supplyAsync(() -> {
+                List<Pair<Identifier, BakedModel>> bakedBatch = new ArrayList<>(batch.size());
+                for (Identifier modelId : batch) {
+                    BakedModel bakedModel = null;
+                    try {
+                        bakedModel = new BakerImpl(spriteLoader, modelId).bake(modelId, ModelBakeRotation.X0_Y0);
+                    } catch (Exception exception) {
+                        LOGGER.warn("Unable to bake model: '{}': {}", modelId, exception);
+                    }
+                    if (bakedModel != null) bakedBatch.add(Pair.of(modelId, bakedModel));
+                }
+                return bakedBatch;
+            }, executor));
+        }
+        return Util.combineSafe(batches).thenAccept(bakedBatches -> {
+            bakedBatches.forEach(bakedBatch -> bakedBatch.forEach(pair -> this.bakedModels.put(pair.getFirst(), pair.getSecond())));
+            LOGGER.debug("Baked {} models with {} distinct quads", this.bakedModels.size(), this.quadInterner.size());
+            this.quadInterner.clear();
         });
     }
 
@@ -167,7 +197,10 @@ public class ModelLoader {
         return property.parse(string).orElse(null);
     }
 
-    public UnbakedModel getOrLoadModel(Identifier id) {
+    /**
+     * Synchronized, since models can still be loaded while baking.
+     */
+    public synchronized UnbakedModel getOrLoadModel(Identifier id) {
         if (this.unbakedModels.containsKey(id)) return this.unbakedModels.get(id);
         else if (this.modelsToLoad.contains(id))
             throw new IllegalStateException("Circular reference while loading " + id);
@@ -430,8 +463,15 @@ public class ModelLoader {
             if (unbakedModel instanceof JsonUnbakedModel jsonUnbakedModel && jsonUnbakedModel.getRootModel() == GENERATION_MARKER)
                 return ITEM_MODEL_GENERATOR.create(this.textureGetter, jsonUnbakedModel).bake(this, jsonUnbakedModel, this.textureGetter, settings, id, false);
             BakedModel bakedModel2 = unbakedModel.bake(this, this.textureGetter, settings, id);
-            ModelLoader.this.bakedModelCache.put(bakedModelCacheKey, bakedModel2);
-            return bakedModel2;
+            if (bakedModel2 == null) return null;
+            // another thread could've baked the same model in the meantime
+            BakedModel bakedModel3 = ModelLoader.this.bakedModelCache.putIfAbsent(bakedModelCacheKey, bakedModel2);
+            return bakedModel3 == null ? bakedModel2 : bakedModel3;
+        }
+
+        @Override
+        public BakedQuad intern(BakedQuad quad) {
+            return ModelLoader.this.quadInterner.intern(quad);
         }
     }
 
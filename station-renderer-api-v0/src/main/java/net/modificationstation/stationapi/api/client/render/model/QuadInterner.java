@@ -0,0 +1,64 @@
+package net.modificationstation.stationapi.api.client.render.model;
+
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares identical quads between the models baked in one reload.
+ *
+ * <p>Quads are compared by their contents, and sprites by identity.
+ * Only plain {@link BakedQuad}s are shared, subclasses may carry more than their contents.
+ */
+@Environment(EnvType.CLIENT)
+final class QuadInterner {
+    private final Map<QuadKey, BakedQuad> quads = new ConcurrentHashMap<>();
+
+    BakedQuad intern(BakedQuad quad) {
+        if (quad.getClass() != BakedQuad.class) return quad;
+        BakedQuad bakedQuad = quads.putIfAbsent(new QuadKey(quad), quad);
+        return bakedQuad == null ? quad : bakedQuad;
+    }
+
+    int size() {
+        return quads.size();
+    }
+
+    void clear() {
+        quads.clear();
+    }
+
+    private static final class QuadKey {
+        private final BakedQuad quad;
+        private final int hash;
+
+        private QuadKey(BakedQuad quad) {
+            this.quad = quad;
+            int hash = Arrays.hashCode(quad.vertexData);
+            hash = 31 * hash + quad.colorIndex;
+            hash = 31 * hash + Objects.hashCode(quad.face);
+            hash = 31 * hash + System.identityHashCode(quad.sprite);
+            hash = 31 * hash + Boolean.hashCode(quad.hasShade());
+            this.hash = 31 * hash + Float.hashCode(quad.getEmission());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QuadKey key) || hash != key.hash) return false;
+            BakedQuad other = key.quad;
+            return quad.colorIndex == other.colorIndex && quad.face == other.face && quad.sprite == other.sprite
+                    && quad.hasShade() == other.hasShade() && Float.compare(quad.getEmission(), other.getEmission()) == 0
+                    && Arrays.equals(quad.vertexData, other.vertexData);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
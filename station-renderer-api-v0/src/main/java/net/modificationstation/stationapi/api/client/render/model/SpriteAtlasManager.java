@@ -6,6 +6,7 @@ import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.modificationstation.stationapi.api.client.texture.Sprite;
 import net.modificationstation.stationapi.api.client.texture.SpriteAtlasTexture;
+import net.modificationstation.stationapi.api.client.texture.SpriteImageCache;
 import net.modificationstation.stationapi.api.client.texture.SpriteLoader;
 import net.modificationstation.stationapi.api.client.texture.StationTextureManager;
 import net.modificationstation.stationapi.api.util.Identifier;
@@ -39,10 +40,13 @@ public class SpriteAtlasManager implements AutoCloseable {
     }
 
     public Map<Identifier, CompletableFuture<AtlasPreparation>> reload(ResourceManager resourceManager, Executor executor) {
-        return atlases.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> {
+        SpriteImageCache.beginLoad();
+        Map<Identifier, CompletableFuture<AtlasPreparation>> preparations = atlases.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> {
             Atlas atlas = entry.getValue();
             return SpriteLoader.fromAtlas(atlas.atlas).load(resourceManager, atlas.atlasInfoLocation, executor).thenApply(stitchResult -> new AtlasPreparation(atlas.atlas, stitchResult));
         }));
+        CompletableFuture.allOf(preparations.values().toArray(CompletableFuture[]::new)).whenComplete((unused, throwable) -> SpriteImageCache.endLoad());
+        return preparations;
     }
 
     record Atlas(SpriteAtlasTexture atlas, Identifier atlasInfoLocation) implements AutoCloseable {
@@ -147,9 +147,9 @@ public final class JsonUnbakedModel implements UnbakedModel {
                     ModelElementFace modelElementFace = modelElement.faces.get(direction);
                     Sprite sprite2 = textureGetter.apply(this.resolveSprite(modelElementFace.textureId));
                     if (modelElementFace.cullFace == null)
-                        builder.addQuad(createQuad(modelElement, modelElementFace, sprite2, direction, settings, id));
+                        builder.addQuad(baker.intern(createQuad(modelElement, modelElementFace, sprite2, direction, settings, id)));
                     else
-                        builder.addQuad(Direction.transform(settings.getRotation().getMatrix(), modelElementFace.cullFace), createQuad(modelElement, modelElementFace, sprite2, direction, settings, id));
+                        builder.addQuad(Direction.transform(settings.getRotation().getMatrix(), modelElementFace.cullFace), baker.intern(createQuad(modelElement, modelElementFace, sprite2, direction, settings, id)));
                 }
 
             return builder.build();
@@ -0,0 +1,260 @@
+package net.modificationstation.stationapi.api.client.texture;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ticks the animated sprites of an atlas and uploads what changed in as few calls as it can.
+ *
+ * <p>Instead of each sprite uploading its own new frame, frames are written into copies
+ * of the parts of the atlas holding animated sprites, and the areas that changed are merged
+ * into larger rectangles that are uploaded from those copies once all sprites have ticked.
+ * Two areas are merged when the union doesn't cover much more than the two of them,
+ * since uploading a few unchanged pixels is cheaper than another upload call.
+ *
+ * <p>Animated sprites are grouped into clusters by the same rule when the uploader is made,
+ * and each cluster only gets a copy of its own bounds, so the copies take about as much memory
+ * as the animated sprites themselves, not the whole atlas. Areas are only merged within a cluster.
+ *
+ * <p>The copies are only up to date for sprites that were written into them this tick.
+ * Texture binders and animations that upload their frames themselves write straight
+ * into the texture, so a merged rectangle never covers any part of a sprite
+ * that wasn't written into a copy this tick.
+ */
+final class AnimationUploader implements AutoCloseable {
+    /**
+     * The most unchanged pixels a merge may add to the upload.
+     */
+    private static final int MAX_MERGE_WASTE = 64 * 64;
+    /**
+     * The size of the grid cells sprites are looked up by when checking a merge.
+     */
+    private static final int CELL_SHIFT = 4;
+
+    private final Sprite.TickableAnimation[] animations;
+    /**
+     * Areas of all sprites in the atlas, as {@code minX, minY, maxX, maxY} with exclusive maximums.
+     */
+    private final int[] spriteAreas;
+    /**
+     * The index into {@link #spriteAreas} of each animated sprite.
+     */
+    private final int[] animatedIndices;
+    /**
+     * The cluster of each animated sprite.
+     */
+    private final int[] animatedClusters;
+    /**
+     * Areas of the clusters, as {@code minX, minY, maxX, maxY} with exclusive maximums.
+     */
+    private final int[] clusterAreas;
+    /**
+     * Copies of the clusters' areas of the atlas.
+     */
+    private final NativeImage[] clusterImages;
+    /**
+     * The indices into {@link #spriteAreas} of the sprites overlapping each grid cell.
+     */
+    private final int[][] cells;
+    private final int gridWidth;
+    private final int channels;
+    /**
+     * The last tick each sprite was written into a copy on.
+     */
+    private final int[] writtenAt;
+    private int tickCount;
+    /**
+     * Changed areas of the current tick, as {@code minX, minY, maxX, maxY} with exclusive maximums.
+     */
+    private final int[] dirty;
+    /**
+     * The cluster of each changed area of the current tick.
+     */
+    private final int[] dirtyClusters;
+    private int dirtyCount;
+    private int uploads;
+    private long uploadedBytes;
+
+    AnimationUploader(int atlasWidth, int atlasHeight, Collection<Sprite> allSprites, List<Sprite> sprites, List<Sprite.TickableAnimation> animations) {
+        this.animations = animations.toArray(Sprite.TickableAnimation[]::new);
+        dirty = new int[this.animations.length * 4];
+        dirtyClusters = new int[this.animations.length];
+
+        Sprite[] all = allSprites.toArray(Sprite[]::new);
+        spriteAreas = new int[all.length * 4];
+        writtenAt = new int[all.length];
+        animatedIndices = new int[this.animations.length];
+        gridWidth = (atlasWidth >> CELL_SHIFT) + 1;
+        IntArrayList[] cellLists = new IntArrayList[gridWidth * ((atlasHeight >> CELL_SHIFT) + 1)];
+        Reference2IntMap<Sprite> indices = new Reference2IntOpenHashMap<>(all.length);
+        for (int i = 0; i < all.length; i++) {
+            Sprite sprite = all[i];
+            indices.put(sprite, i);
+            int offset = i * 4;
+            spriteAreas[offset] = sprite.x;
+            spriteAreas[offset + 1] = sprite.y;
+            spriteAreas[offset + 2] = sprite.x + sprite.getContents().getWidth();
+            spriteAreas[offset + 3] = sprite.y + sprite.getContents().getHeight();
+            for (int cy = sprite.y >> CELL_SHIFT; cy <= (spriteAreas[offset + 3] - 1) >> CELL_SHIFT; cy++)
+                for (int cx = sprite.x >> CELL_SHIFT; cx <= (spriteAreas[offset + 2] - 1) >> CELL_SHIFT; cx++) {
+                    int cell = cy * gridWidth + cx;
+                    if (cellLists[cell] == null) cellLists[cell] = new IntArrayList(1);
+                    cellLists[cell].add(i);
+                }
+        }
+        for (int i = 0; i < animatedIndices.length; i++) animatedIndices[i] = indices.getInt(sprites.get(i));
+        cells = new int[cellLists.length][];
+        for (int i = 0; i < cellLists.length; i++)
+            cells[i] = cellLists[i] == null ? new int[0] : cellLists[i].toIntArray();
+
+        animatedClusters = new int[animatedIndices.length];
+        int[] areas = new int[animatedIndices.length * 4];
+        for (int i = 0; i < animatedIndices.length; i++) {
+            System.arraycopy(spriteAreas, animatedIndices[i] * 4, areas, i * 4, 4);
+            animatedClusters[i] = i;
+        }
+        int clusterCount = clusterSprites(areas, animatedIndices.length);
+        clusterAreas = new int[clusterCount * 4];
+        System.arraycopy(areas, 0, clusterAreas, 0, clusterAreas.length);
+        clusterImages = new NativeImage[clusterCount];
+        for (int i = 0; i < clusterCount; i++) {
+            int offset = i * 4;
+            clusterImages[i] = new NativeImage(areas[offset + 2] - areas[offset], areas[offset + 3] - areas[offset + 1], false);
+        }
+        channels = clusterCount == 0 ? 4 : clusterImages[0].getFormat().getChannelCount();
+    }
+
+    /**
+     * Merges the areas of the animated sprites into clusters, keeping {@link #animatedClusters} up to date.
+     *
+     * @return the number of clusters, whose areas are left at the start of the array
+     */
+    private int clusterSprites(int[] areas, int count) {
+        boolean merged;
+        do {
+            merged = false;
+            for (int i = 0; i < count; i++)
+                for (int j = i + 1; j < count; j++) {
+                    int a = i * 4, b = j * 4;
+                    int minX = Math.min(areas[a], areas[b]), minY = Math.min(areas[a + 1], areas[b + 1]);
+                    int maxX = Math.max(areas[a + 2], areas[b + 2]), maxY = Math.max(areas[a + 3], areas[b + 3]);
+                    long union = (long) (maxX - minX) * (maxY - minY);
+                    if (union - area(areas, a) - area(areas, b) > MAX_MERGE_WASTE) continue;
+                    areas[a] = minX;
+                    areas[a + 1] = minY;
+                    areas[a + 2] = maxX;
+                    areas[a + 3] = maxY;
+                    System.arraycopy(areas, --count * 4, areas, b, 4);
+                    for (int k = 0; k < animatedClusters.length; k++)
+                        if (animatedClusters[k] == j) animatedClusters[k] = i;
+                        else if (animatedClusters[k] == count) animatedClusters[k] = j;
+                    j = i;
+                    merged = true;
+                }
+        } while (merged);
+        return count;
+    }
+
+    void tick() {
+        dirtyCount = 0;
+        tickCount++;
+        uploads = 0;
+        uploadedBytes = 0;
+        for (int i = 0; i < animations.length; i++) {
+            int index = animatedIndices[i];
+            int offset = index * 4;
+            if (animations[i].uploadsItself()) {
+                animations[i].tick();
+                // can't tell whether it uploaded anything, so it's counted as uploading its whole sprite
+                uploads++;
+                uploadedBytes += (long) (spriteAreas[offset + 2] - spriteAreas[offset]) * (spriteAreas[offset + 3] - spriteAreas[offset + 1]) * channels;
+                continue;
+            }
+            int cluster = animatedClusters[i];
+            if (!animations[i].tick(clusterImages[cluster], clusterAreas[cluster * 4], clusterAreas[cluster * 4 + 1])) continue;
+            writtenAt[index] = tickCount;
+            dirtyClusters[dirtyCount] = cluster;
+            System.arraycopy(spriteAreas, offset, dirty, dirtyCount++ * 4, 4);
+        }
+        mergeDirty();
+        uploads += dirtyCount;
+        for (int i = 0; i < dirtyCount; i++) {
+            int offset = i * 4;
+            int cluster = dirtyClusters[i];
+            int x = dirty[offset], y = dirty[offset + 1];
+            int width = dirty[offset + 2] - x, height = dirty[offset + 3] - y;
+            clusterImages[cluster].upload(0, x, y, x - clusterAreas[cluster * 4], y - clusterAreas[cluster * 4 + 1], width, height, false, false);
+            uploadedBytes += (long) width * height * channels;
+        }
+    }
+
+    private void mergeDirty() {
+        boolean merged;
+        do {
+            merged = false;
+            for (int i = 0; i < dirtyCount; i++)
+                for (int j = i + 1; j < dirtyCount; j++) {
+                    if (dirtyClusters[i] != dirtyClusters[j]) continue;
+                    int a = i * 4, b = j * 4;
+                    int minX = Math.min(dirty[a], dirty[b]), minY = Math.min(dirty[a + 1], dirty[b + 1]);
+                    int maxX = Math.max(dirty[a + 2], dirty[b + 2]), maxY = Math.max(dirty[a + 3], dirty[b + 3]);
+                    long union = (long) (maxX - minX) * (maxY - minY);
+                    if (union - area(dirty, a) - area(dirty, b) > MAX_MERGE_WASTE || coversUnwritten(minX, minY, maxX, maxY)) continue;
+                    dirty[a] = minX;
+                    dirty[a + 1] = minY;
+                    dirty[a + 2] = maxX;
+                    dirty[a + 3] = maxY;
+                    System.arraycopy(dirty, --dirtyCount * 4, dirty, b, 4);
+                    dirtyClusters[j] = dirtyClusters[dirtyCount];
+                    j = i;
+                    merged = true;
+                }
+        } while (merged);
+    }
+
+    /**
+     * {@return whether the area overlaps a sprite that wasn't written into a copy this tick}
+     */
+    private boolean coversUnwritten(int minX, int minY, int maxX, int maxY) {
+        for (int cy = minY >> CELL_SHIFT; cy <= (maxY - 1) >> CELL_SHIFT; cy++)
+            for (int cx = minX >> CELL_SHIFT; cx <= (maxX - 1) >> CELL_SHIFT; cx++)
+                for (int index : cells[cy * gridWidth + cx]) {
+                    if (writtenAt[index] == tickCount) continue;
+                    int offset = index * 4;
+                    if (spriteAreas[offset] < maxX && spriteAreas[offset + 2] > minX && spriteAreas[offset + 1] < maxY && spriteAreas[offset + 3] > minY)
+                        return true;
+                }
+        return false;
+    }
+
+    private static long area(int[] areas, int offset) {
+        return (long) (areas[offset + 2] - areas[offset]) * (areas[offset + 3] - areas[offset + 1]);
+    }
+
+    /**
+     * {@return the number of uploads the last tick made}
+     *
+     * <p>Animations that upload themselves count as one upload of their whole sprite.
+     */
+    int getUploads() {
+        return uploads;
+    }
+
+    /**
+     * {@return the number of bytes the last tick uploaded}
+     *
+     * <p>Animations that upload themselves count as one upload of their whole sprite.
+     */
+    long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    @Override
+    public void close() {
+        for (NativeImage image : clusterImages) image.close();
+    }
+}
@@ -3,6 +3,25 @@ package net.modificationstation.stationapi.api.client.texture;
 public interface Animator extends AutoCloseable {
     void tick(int x, int y);
 
+    /**
+     * Advances the animation by a tick, writing the sprite's new pixels into the given image
+     * at the given position instead of uploading them.
+     *
+     * @return whether any pixels were written
+     */
+    default boolean tick(int x, int y, NativeImage atlasImage) {
+        tick(x, y);
+        return false;
+    }
+
+    /**
+     * {@return whether {@link #tick(int, int, NativeImage)} uploads the sprite's new pixels itself
+     * instead of writing them, like the default implementation does}
+     */
+    default boolean uploadsItself() {
+        return true;
+    }
+
     @Override
     void close();
 }
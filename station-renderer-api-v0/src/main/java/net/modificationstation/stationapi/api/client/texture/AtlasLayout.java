@@ -0,0 +1,155 @@
+package net.modificationstation.stationapi.api.client.texture;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.modificationstation.stationapi.api.util.Identifier;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Where the sprites of an atlas were placed the last time it was stitched.
+ *
+ * <p>{@link TextureStitcher} places sprites only by their IDs and sizes,
+ * so as long as a reload doesn't add, remove or resize any sprite,
+ * stitching again would give the same placements and the stitcher can be skipped.
+ * Sprites whose pixels changed are still copied into the atlas like any other.
+ *
+ * <p>Layouts are also kept between launches by {@link AtlasLayoutCache}.
+ */
+final class AtlasLayout {
+    private static final int MAX_SPRITES = 1 << 20;
+
+    final int width;
+    final int height;
+    private final Object2LongMap<Identifier> sizes;
+    private final Object2LongMap<Identifier> positions;
+
+    private AtlasLayout(int width, int height, Object2LongMap<Identifier> sizes, Object2LongMap<Identifier> positions) {
+        this.width = width;
+        this.height = height;
+        this.sizes = sizes;
+        this.positions = positions;
+    }
+
+    static AtlasLayout of(int width, int height, Map<Identifier, Sprite> sprites) {
+        Object2LongMap<Identifier> sizes = new Object2LongOpenHashMap<>(sprites.size());
+        Object2LongMap<Identifier> positions = new Object2LongOpenHashMap<>(sprites.size());
+        sizes.defaultReturnValue(-1);
+        sprites.forEach((id, sprite) -> {
+            sizes.put(id, pack(sprite.getContents().getWidth(), sprite.getContents().getHeight()));
+            positions.put(id, pack(sprite.getX(), sprite.getY()));
+        });
+        return new AtlasLayout(width, height, sizes, positions);
+    }
+
+    private static long pack(int x, int y) {
+        return (long) x << 32 | y & 0xFFFFFFFFL;
+    }
+
+    /**
+     * {@return whether the sprites have exactly the IDs and sizes of the sprites this layout was made of}
+     */
+    boolean matches(List<SpriteContents> sprites) {
+        if (sprites.size() != sizes.size()) return false;
+        Set<Identifier> seen = new ObjectOpenHashSet<>(sprites.size());
+        for (SpriteContents sprite : sprites)
+            if (!seen.add(sprite.getId()) || sizes.getLong(sprite.getId()) != pack(sprite.getWidth(), sprite.getHeight())) return false;
+        return true;
+    }
+
+    /**
+     * {@return whether the layout fits into an atlas of the given maximum size,
+     * with every sprite inside the atlas and no two sprites overlapping}
+     *
+     * <p>Layouts made by the stitcher always do, but ones read from disk may not.
+     */
+    boolean isValid(int maxTextureSize) {
+        if (width <= 0 || height <= 0 || width > maxTextureSize || height > maxTextureSize) return false;
+        int count = sizes.size();
+        // minX, minY, maxX, maxY with exclusive maximums
+        long[] areas = new long[count * 2];
+        int i = 0;
+        for (Object2LongMap.Entry<Identifier> entry : Object2LongMaps.fastIterable(sizes)) {
+            long size = entry.getLongValue();
+            long position = positions.getLong(entry.getKey());
+            int x = (int) (position >> 32), y = (int) position;
+            int spriteWidth = (int) (size >> 32), spriteHeight = (int) size;
+            if (x < 0 || y < 0 || spriteWidth <= 0 || spriteHeight <= 0 || spriteWidth > width - x || spriteHeight > height - y) return false;
+            areas[i++] = pack(x, y);
+            areas[i++] = pack(x + spriteWidth, y + spriteHeight);
+        }
+        // sorted by minX, so only the areas that start before one ends can overlap it
+        Integer[] order = new Integer[count];
+        for (int j = 0; j < count; j++) order[j] = j;
+        Arrays.sort(order, Comparator.comparingLong(j -> areas[j * 2] >> 32));
+        for (int a = 0; a < count; a++) {
+            int first = order[a] * 2;
+            int maxX = (int) (areas[first + 1] >> 32);
+            int minY = (int) areas[first], maxY = (int) areas[first + 1];
+            for (int b = a + 1; b < count; b++) {
+                int second = order[b] * 2;
+                if ((int) (areas[second] >> 32) >= maxX) break;
+                if ((int) areas[second] < maxY && (int) areas[second + 1] > minY) return false;
+            }
+        }
+        return true;
+    }
+
+    Map<Identifier, Sprite> place(Identifier atlasId, List<SpriteContents> sprites) {
+        Map<Identifier, Sprite> map = new HashMap<>();
+        for (SpriteContents sprite : sprites) {
+            long position = positions.getLong(sprite.getId());
+            map.put(sprite.getId(), new Sprite(atlasId, sprite, width, height, (int) (position >> 32), (int) position));
+        }
+        return map;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(sizes.size());
+        for (Object2LongMap.Entry<Identifier> entry : Object2LongMaps.fastIterable(sizes)) {
+            out.writeUTF(entry.getKey().toString());
+            out.writeLong(entry.getLongValue());
+            out.writeLong(positions.getLong(entry.getKey()));
+        }
+    }
+
+    static AtlasLayout read(DataInput in) throws IOException {
+        int width = in.readInt();
+        int height = in.readInt();
+        int count = in.readInt();
+        if (count < 0 || count > MAX_SPRITES) throw new IOException("Invalid sprite count " + count);
+        Object2LongMap<Identifier> sizes = new Object2LongOpenHashMap<>(count);
+        Object2LongMap<Identifier> positions = new Object2LongOpenHashMap<>(count);
+        sizes.defaultReturnValue(-1);
+        for (int i = 0; i < count; i++) {
+            Identifier id = Identifier.of(in.readUTF());
+            sizes.put(id, in.readLong());
+            positions.put(id, in.readLong());
+        }
+        return new AtlasLayout(width, height, sizes, positions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof AtlasLayout layout
+                && width == layout.width && height == layout.height
+                && sizes.equals(layout.sizes) && positions.equals(layout.positions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + positions.hashCode();
+    }
+}
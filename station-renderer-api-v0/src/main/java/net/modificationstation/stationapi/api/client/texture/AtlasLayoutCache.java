@@ -0,0 +1,108 @@
+package net.modificationstation.stationapi.api.client.texture;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.modificationstation.stationapi.api.resource.ResourceManager;
+import net.modificationstation.stationapi.api.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static net.modificationstation.stationapi.impl.client.texture.StationRenderImpl.LOGGER;
+
+/**
+ * Keeps the {@linkplain AtlasLayout layouts} of atlases on disk between launches,
+ * so that the first reload of a launch doesn't have to run the stitcher either.
+ *
+ * <p>Layouts are stored under a key made of the names and modification times of the enabled packs,
+ * in order, and are dropped as soon as the packs change. A layout that is used is still checked
+ * against the sprites' IDs and sizes, so a pack that can't tell when it changed only costs a miss,
+ * and against the atlas' bounds, so a damaged file or a smaller maximum texture size only costs one too.
+ * Disabled with {@code -Dstationapi.atlasCache.disable=true}.
+ */
+@Environment(EnvType.CLIENT)
+final class AtlasLayoutCache {
+    private static final boolean ENABLED = !Boolean.getBoolean("stationapi.atlasCache.disable");
+    private static final Path FILE = Path.of(".stationapi", "cache", "atlases.bin");
+    private static final int MAGIC = 0x41544C53, VERSION = 1;
+
+    private static final Map<Identifier, AtlasLayout> LAYOUTS = new HashMap<>();
+    private static long packKey;
+    private static boolean opened;
+
+    private AtlasLayoutCache() {}
+
+    /**
+     * {@return the layout the atlas had the last time it was stitched with the same packs, or {@code null}}
+     */
+    static synchronized @Nullable AtlasLayout get(ResourceManager resourceManager, Identifier atlasId) {
+        if (!ENABLED) return null;
+        if (!opened) open();
+        long key = getPackKey(resourceManager);
+        if (key != packKey) {
+            LAYOUTS.clear();
+            packKey = key;
+        }
+        return LAYOUTS.get(atlasId);
+    }
+
+    /**
+     * Stores the atlas' layout under the packs last passed to {@link #get}, rewriting the file if it changed.
+     */
+    static synchronized void put(Identifier atlasId, AtlasLayout layout) {
+        if (!ENABLED || !opened || layout.equals(LAYOUTS.get(atlasId))) return;
+        LAYOUTS.put(atlasId, layout);
+        save();
+    }
+
+    private static long getPackKey(ResourceManager resourceManager) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        resourceManager.streamResourcePacks().forEachOrdered(pack -> hasher
+                .putUnencodedChars(pack.getName())
+                .putLong(pack.getLastModified()));
+        return hasher.hash().asLong();
+    }
+
+    private static void open() {
+        opened = true;
+        if (!Files.isRegularFile(FILE)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(FILE)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return;
+            packKey = in.readLong();
+            for (int i = in.readInt(); i > 0; i--) {
+                Identifier id = Identifier.of(in.readUTF());
+                LAYOUTS.put(id, AtlasLayout.read(in));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Couldn't read the atlas cache at {}, ignoring it", FILE.toAbsolutePath(), e);
+            LAYOUTS.clear();
+        }
+    }
+
+    private static void save() {
+        Path temp = FILE.resolveSibling(FILE.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(FILE.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(packKey);
+                out.writeInt(LAYOUTS.size());
+                for (Map.Entry<Identifier, AtlasLayout> entry : LAYOUTS.entrySet()) {
+                    out.writeUTF(entry.getKey().toString());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(temp, FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Couldn't write the atlas cache to {}", FILE.toAbsolutePath(), e);
+        }
+    }
+}
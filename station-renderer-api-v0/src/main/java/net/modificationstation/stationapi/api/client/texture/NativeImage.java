@@ -145,6 +145,20 @@ implements AutoCloseable {
         return directBuffer;
     }
 
+    /**
+     * {@return a view of the image's pixels, from the first one to the last one}
+     */
+    ByteBuffer getPixelBuffer() {
+        this.checkAllocated();
+        return buffer.duplicate().clear();
+    }
+
+    static boolean isAnaglyph() {
+        //noinspection deprecation
+        GameOptions gameOptions = ((Minecraft) FabricLoader.getInstance().getGameInstance()).options;
+        return gameOptions != null && gameOptions.anaglyph3d;
+    }
+
     private static void setTextureClamp(boolean clamp) {
         if (clamp) {
             GL11.glTexParameteri(3553, 10242, 10496);
@@ -310,6 +324,22 @@ implements AutoCloseable {
         buffer.position(0);
     }
 
+    /**
+     * Copies a rectangle of this image into the given image a row at a time.
+     *
+     * <p>Only absolute buffer operations are used, so several threads
+     * can copy into different parts of the same image at once.
+     */
+    void copyRectTo(NativeImage image, int x, int y, int destX, int destY, int width, int height) {
+        if (image.getFormat() != this.format) throw new UnsupportedOperationException("Image formats don't match.");
+        this.checkAllocated();
+        image.checkAllocated();
+        int i = this.format.getChannelCount();
+        int rowBytes = width * i;
+        for (int row = 0; row < height; ++row)
+            image.buffer.put(((destY + row) * image.width + destX) * i, buffer, ((y + row) * this.width + x) * i, rowBytes);
+    }
+
     public void fillRect(int x, int y, int width, int height, int color) {
         for (int i = y; i < y + height; ++i) for (int j = x; j < x + width; ++j) this.setColor(j, i, color);
     }
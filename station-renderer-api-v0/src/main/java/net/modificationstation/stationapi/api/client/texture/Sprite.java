@@ -54,6 +54,16 @@ public class Sprite {
                     animator.tick(Sprite.this.x, Sprite.this.y);
                 }
 
+                @Override
+                public boolean tick(NativeImage image, int originX, int originY) {
+                    return animator.tick(Sprite.this.x - originX, Sprite.this.y - originY, image);
+                }
+
+                @Override
+                public boolean uploadsItself() {
+                    return animator.uploadsItself();
+                }
+
                 @Override
                 public void close() {
                     animator.close();
@@ -106,6 +116,26 @@ public class Sprite {
     public interface TickableAnimation extends AutoCloseable {
         void tick();
 
+        /**
+         * Ticks the animation, writing the sprite's new pixels into the given image
+         * instead of uploading them. The image holds the part of the atlas
+         * that starts at the given origin.
+         *
+         * @return whether any pixels were written
+         */
+        default boolean tick(NativeImage image, int originX, int originY) {
+            tick();
+            return false;
+        }
+
+        /**
+         * {@return whether {@link #tick(NativeImage, int, int)} uploads the sprite's new pixels itself
+         * instead of writing them, like the default implementation does}
+         */
+        default boolean uploadsItself() {
+            return true;
+        }
+
         @Override
         void close();
     }
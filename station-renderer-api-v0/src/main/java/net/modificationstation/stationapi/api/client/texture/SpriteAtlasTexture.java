@@ -7,6 +7,7 @@ import net.modificationstation.stationapi.api.util.crash.CrashException;
 import net.modificationstation.stationapi.api.util.crash.CrashReport;
 import net.modificationstation.stationapi.api.util.crash.CrashReportSection;
 import net.modificationstation.stationapi.impl.client.render.SpriteFinderImpl;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
@@ -30,6 +31,10 @@ public class SpriteAtlasTexture extends AbstractTexture implements DynamicTextur
     @Getter
     private int height;
     private SpriteFinderImpl spriteFinder = null;
+    @Nullable
+    private AtlasLayout layout;
+    @Nullable
+    private AnimationUploader animationUploader;
 
     public SpriteAtlasTexture(Identifier id) {
         this.id = id;
@@ -47,10 +52,12 @@ public class SpriteAtlasTexture extends AbstractTexture implements DynamicTextur
         this.clear();
         this.sprites = Map.copyOf(stitchResult.regions());
         ArrayList<SpriteContents> list = new ArrayList<>();
+        ArrayList<Sprite> animated = new ArrayList<>();
         ArrayList<Sprite.TickableAnimation> list2 = new ArrayList<>();
+        NativeImage image = stitchResult.image();
         for (Sprite sprite : stitchResult.regions().values()) {
             list.add(sprite.getContents());
-            try {
+            if (image == null) try {
                 sprite.upload();
             } catch (Throwable throwable) {
                 CrashReport crashReport = CrashReport.create(throwable, "Stitching texture atlas");
@@ -61,10 +68,26 @@ public class SpriteAtlasTexture extends AbstractTexture implements DynamicTextur
             }
             Sprite.TickableAnimation tickableAnimation = sprite.createAnimation();
             if (tickableAnimation == null) continue;
+            animated.add(sprite);
             list2.add(tickableAnimation);
         }
+        if (image != null) {
+            try {
+                image.upload(0, 0, 0, true);
+            } catch (Throwable throwable) {
+                CrashReport crashReport = CrashReport.create(throwable, "Uploading texture atlas");
+                CrashReportSection crashReportSection = crashReport.addElement("Texture atlas being uploaded");
+                crashReportSection.add("Atlas path", this.id);
+                crashReportSection.add("Atlas size", this.width + "x" + this.height);
+                throw new CrashException(crashReport);
+            }
+        }
+        if (!list2.isEmpty())
+            this.animationUploader = new AnimationUploader(this.width, this.height, stitchResult.regions().values(), animated, list2);
         this.spritesToLoad = List.copyOf(list);
         this.animatedSprites = List.copyOf(list2);
+        this.layout = AtlasLayout.of(this.width, this.height, this.sprites);
+        AtlasLayoutCache.put(this.id, this.layout);
         spriteFinder = null;
     }
 
@@ -90,7 +113,22 @@ public class SpriteAtlasTexture extends AbstractTexture implements DynamicTextur
     @Override
     public void tick() {
         this.bindTexture();
-        for (Sprite.TickableAnimation tickableAnimation : this.animatedSprites) tickableAnimation.tick();
+        if (this.animationUploader != null) this.animationUploader.tick();
+        else for (Sprite.TickableAnimation tickableAnimation : this.animatedSprites) tickableAnimation.tick();
+    }
+
+    /**
+     * {@return the number of texture uploads animated sprites made on the last tick}
+     */
+    public int getAnimationUploads() {
+        return this.animationUploader != null ? this.animationUploader.getUploads() : 0;
+    }
+
+    /**
+     * {@return the number of bytes animated sprites uploaded on the last tick}
+     */
+    public long getAnimationUploadedBytes() {
+        return this.animationUploader != null ? this.animationUploader.getUploadedBytes() : 0;
     }
 
     public Sprite getSprite(Identifier id) {
@@ -102,6 +140,10 @@ public class SpriteAtlasTexture extends AbstractTexture implements DynamicTextur
     public void clear() {
         this.spritesToLoad.forEach(SpriteContents::close);
         this.animatedSprites.forEach(Sprite.TickableAnimation::close);
+        if (this.animationUploader != null) {
+            this.animationUploader.close();
+            this.animationUploader = null;
+        }
         this.spritesToLoad = List.of();
         this.animatedSprites = List.of();
         this.sprites = Map.of();
@@ -111,6 +153,11 @@ public class SpriteAtlasTexture extends AbstractTexture implements DynamicTextur
         return this.id;
     }
 
+    @Nullable
+    AtlasLayout getLayout() {
+        return this.layout;
+    }
+
     public int getMaxTextureSize() {
         return this.maxTextureSize;
     }
@@ -10,8 +10,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
 import static net.modificationstation.stationapi.impl.client.texture.StationRenderImpl.LOGGER;
@@ -124,6 +126,14 @@ public class SpriteContents implements TextureStitcher.Stitchable, AutoCloseable
         else upload(x, y, 0, 0, image);
     }
 
+    /**
+     * Copies the frame {@link #upload(int, int)} would upload into the given atlas image.
+     */
+    void copyTo(NativeImage atlasImage, int x, int y) {
+        if (this.animation != null) this.animation.copyTo(atlasImage, x, y, this.animation.frames.get(0).index);
+        else image.copyRectTo(atlasImage, 0, 0, x, y, width, height);
+    }
+
     @ApiStatus.Internal
     public NativeImage getBaseFrame() {
         return image;
@@ -154,8 +164,12 @@ public class SpriteContents implements TextureStitcher.Stitchable, AutoCloseable
             SpriteContents.this.upload(x, y, i, j, image);
         }
 
+        void copyTo(NativeImage atlasImage, int x, int y, int frame) {
+            image.copyRectTo(atlasImage, getFrameX(frame) * width, getFrameY(frame) * height, x, y, width, height);
+        }
+
         public Animator createAnimator() {
-            return new AnimatorImpl(this, interpolation ? new Interpolation() : null);
+            return new AnimatorImpl(this, interpolation ? new Interpolation(this) : null);
         }
 
         public void upload(int x, int y) {
@@ -184,6 +198,11 @@ public class SpriteContents implements TextureStitcher.Stitchable, AutoCloseable
 
         @Override
         public void tick(int x, int y) {
+            tick(x, y, null);
+        }
+
+        @Override
+        public boolean tick(int x, int y, @Nullable NativeImage atlasImage) {
             ++currentTime;
             AnimationFrame animationFrame = animation.frames.get(frame);
             if (currentTime >= animationFrame.time) {
@@ -191,8 +210,17 @@ public class SpriteContents implements TextureStitcher.Stitchable, AutoCloseable
                 frame = (frame + 1) % animation.frames.size();
                 currentTime = 0;
                 int j = animation.frames.get(frame).index;
-                if (i != j) animation.upload(x, y, j);
-            } else if (interpolation != null) interpolation.apply(x, y, this);
+                if (i == j) return false;
+                if (atlasImage == null) animation.upload(x, y, j);
+                else animation.copyTo(atlasImage, x, y, j);
+                return true;
+            } else if (interpolation != null) return interpolation.apply(x, y, this, atlasImage);
+            return false;
+        }
+
+        @Override
+        public boolean uploadsItself() {
+            return false;
         }
 
         @Override
@@ -201,30 +229,101 @@ public class SpriteContents implements TextureStitcher.Stitchable, AutoCloseable
         }
     }
 
+    /**
+     * Blends each frame into the next one over the frame's time.
+     *
+     * <p>The blended images only depend on the frame and the tick within it, so each one
+     * is kept the first time it's shown and reused on every later loop of the animation.
+     * They're kept in a single image per sprite, one sprite-sized tile per tick of the animation,
+     * stacked from the top. Keeping them is limited to {@link #MAX_SPRITE_BYTES} per sprite and
+     * {@link #MAX_TOTAL_BYTES} across all sprites, and sprites past either blend every tick instead.
+     * The total can be changed with {@code -Dstationapi.interpolationCache.maxBytes}.
+     */
     final class Interpolation implements AutoCloseable {
-        private final NativeImage interpImage = new NativeImage(width, height, false);
+        private static final long MAX_SPRITE_BYTES = 1 << 20;
+        private static final long MAX_TOTAL_BYTES = Long.getLong("stationapi.interpolationCache.maxBytes", 16 << 20);
+        private static final AtomicLong TOTAL_BYTES = new AtomicLong();
+
+        /**
+         * The first tile of each animation frame.
+         */
+        private final int[] frameTiles;
+        private final int tiles;
+        /**
+         * The bytes reserved for the blended images, or {@code 0} if they're blended every tick.
+         */
+        private long reservedBytes;
+        @Nullable
+        private final BitSet blended;
+        @Nullable
+        private NativeImage cache;
+        @Nullable
+        private NativeImage interpImage;
+
+        Interpolation(Animation animation) {
+            frameTiles = new int[animation.frames.size()];
+            long tiles = 0;
+            for (int i = 0; i < frameTiles.length; i++) {
+                frameTiles[i] = (int) Math.min(tiles, Integer.MAX_VALUE);
+                tiles += animation.frames.get(i).time;
+            }
+            long bytes = tiles * width * height * 4;
+            this.tiles = (int) Math.min(tiles, Integer.MAX_VALUE);
+            reservedBytes = bytes <= MAX_SPRITE_BYTES && reserve(bytes) ? bytes : 0;
+            blended = reservedBytes != 0 ? new BitSet(this.tiles) : null;
+        }
+
+        private static boolean reserve(long bytes) {
+            long total;
+            do {
+                total = TOTAL_BYTES.get();
+                if (total + bytes > MAX_TOTAL_BYTES) return false;
+            } while (!TOTAL_BYTES.compareAndSet(total, total + bytes));
+            return true;
+        }
 
-        void apply(int x, int y, AnimatorImpl animator) {
+        boolean apply(int x, int y, AnimatorImpl animator, @Nullable NativeImage atlasImage) {
             Animation animation = animator.animation;
             List<AnimationFrame> list = animation.frames;
             AnimationFrame animationFrame = list.get(animator.frame);
-            double d = 1.0 - (double)animator.currentTime / (double)animationFrame.time;
             int i = animationFrame.index;
             int j = list.get((animator.frame + 1) % list.size()).index;
-            if (i != j) {
-                for (int n = 0; n < height; ++n)
-                    for (int o = 0; o < width; ++o) {
-                        int p = getPixelColor(animation, i, o, n);
-                        int q = getPixelColor(animation, j, o, n);
-                        interpImage.setColor(o, n,
-                                p & 0xFF000000 |
-                                        lerp(d, p >> 16 & 0xFF, q >> 16 & 0xFF) << 16 |
-                                        lerp(d, p >> 8 & 0xFF, q >> 8 & 0xFF) << 8 |
-                                        lerp(d, p & 0xFF, q & 0xFF)
-                        );
-                    }
-                upload(x, y, 0, 0, interpImage);
+            if (i == j) return false;
+            NativeImage interpolated;
+            int row;
+            if (blended != null) {
+                if (cache == null) cache = new NativeImage(width, height * tiles, false);
+                int tile = frameTiles[animator.frame] + animator.currentTime;
+                interpolated = cache;
+                row = tile * height;
+                if (!blended.get(tile)) {
+                    interpolate(interpolated, row, animation, animator.currentTime, animationFrame.time, i, j);
+                    blended.set(tile);
+                }
+            } else {
+                if (interpImage == null) interpImage = new NativeImage(width, height, false);
+                interpolated = interpImage;
+                row = 0;
+                interpolate(interpolated, row, animation, animator.currentTime, animationFrame.time, i, j);
             }
+            if (atlasImage == null) upload(x, y, 0, row, interpolated);
+            else interpolated.copyRectTo(atlasImage, 0, row, x, y, width, height);
+            return true;
+        }
+
+        private void interpolate(NativeImage target, int row, Animation animation, int currentTime, int frameTime, int i, int j) {
+            double d = 1.0 - (double) currentTime / (double) frameTime;
+            for (int n = 0; n < height; ++n)
+                for (int o = 0; o < width; ++o) {
+                    int p = getPixelColor(animation, i, o, n);
+                    int q = getPixelColor(animation, j, o, n);
+                    target.setColor(o, row + n,
+                            p & 0xFF000000 |
+                                    lerp(d, p >> 16 & 0xFF, q >> 16 & 0xFF) << 16 |
+                                    lerp(d, p >> 8 & 0xFF, q >> 8 & 0xFF) << 8 |
+                                    lerp(d, p & 0xFF, q & 0xFF)
+                    );
+                }
         }
 
         private int getPixelColor(Animation animation, int frameIndex, int x, int y) {
@@ -237,8 +336,11 @@ public class SpriteContents implements TextureStitcher.Stitchable, AutoCloseable
 
         @Override
         public void close() {
-            interpImage.close();
+            if (cache != null) cache.close();
+            if (interpImage != null) interpImage.close();
+            cache = interpImage = null;
+            TOTAL_BYTES.addAndGet(-reservedBytes);
+            reservedBytes = 0;
         }
     }
 }
-
@@ -0,0 +1,277 @@
+package net.modificationstation.stationapi.api.client.texture;
+
+import com.google.common.hash.Hashing;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.modificationstation.stationapi.api.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.modificationstation.stationapi.impl.client.texture.StationRenderImpl.LOGGER;
+
+/**
+ * Keeps decoded sprite images on disk between launches, so that textures that didn't change
+ * don't have to be decoded again.
+ *
+ * <p>Images are keyed by the sprite's ID and a hash of the image file's bytes, so a changed
+ * or replaced texture is simply a miss. The file holds raw RGBA pixels followed by an index,
+ * and pixels are read straight into the image's buffer with positional reads.
+ *
+ * <p>The cache is only used during a round, which a resource reload begins before its atlases
+ * start loading and ends once all of them are done. Images decoded during a round are written
+ * to the next version of the file as soon as they're decoded, so none of them are kept in memory.
+ * Once the round ends, the images that were read from the old file are copied over, and the new file
+ * replaces the old one, with only the images used in the round. If nothing changed, the old file is kept.
+ * Disabled with {@code -Dstationapi.spriteCache.disable=true}.
+ */
+@Environment(EnvType.CLIENT)
+public final class SpriteImageCache {
+    private static final boolean ENABLED = !Boolean.getBoolean("stationapi.spriteCache.disable");
+    private static final Path FILE = Path.of(".stationapi", "cache", "sprites.bin");
+    private static final Path TEMP_FILE = FILE.resolveSibling(FILE.getFileName() + ".tmp");
+    private static final int MAGIC = 0x53505254, VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private static final Map<Identifier, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final Map<Identifier, Entry> USED = new ConcurrentHashMap<>();
+    private static @Nullable FileChannel channel;
+    /**
+     * The next version of the file, opened once the first image of a round is decoded.
+     */
+    private static volatile @Nullable FileChannel out;
+    private static final AtomicLong OUT_POSITION = new AtomicLong();
+    private static volatile boolean outFailed;
+    private static volatile boolean opened;
+    private static volatile int activeLoads;
+    private static volatile boolean changed;
+
+    private SpriteImageCache() {}
+
+    /**
+     * Decodes the image from the stream, or reads it from the cache if the stream's bytes didn't change.
+     */
+    static NativeImage read(Identifier id, InputStream inputStream) throws IOException {
+        if (!ENABLED || activeLoads == 0) return NativeImage.read(inputStream);
+        byte[] bytes = inputStream.readAllBytes();
+        long hash = Hashing.murmur3_128().newHasher()
+                .putBytes(bytes)
+                .putBoolean(NativeImage.isAnaglyph())
+                .hash().asLong();
+
+        NativeImage image = get(id, hash);
+        if (image != null) return image;
+        image = NativeImage.read(new ByteArrayInputStream(bytes));
+        if (image.getFormat() == NativeImage.Format.RGBA) write(id, hash, image);
+        return image;
+    }
+
+    /**
+     * Appends the image's pixels to the next version of the file. Several loading threads
+     * can write at once, each to the range it reserved.
+     */
+    private static void write(Identifier id, long hash, NativeImage image) {
+        FileChannel out = getOut();
+        if (out == null) return;
+        ByteBuffer pixels = image.getPixelBuffer();
+        long offset = OUT_POSITION.getAndAdd(pixels.remaining());
+        try {
+            long position = offset;
+            while (pixels.hasRemaining()) position += out.write(pixels, position);
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't write sprite {} to the sprite cache, it won't be updated this time", id, e);
+            outFailed = true;
+            return;
+        }
+        USED.put(id, new Entry(hash, image.getWidth(), image.getHeight(), offset, true));
+        changed = true;
+    }
+
+    private static @Nullable FileChannel getOut() {
+        FileChannel out = SpriteImageCache.out;
+        if (out != null || outFailed) return outFailed ? null : out;
+        synchronized (SpriteImageCache.class) {
+            if (SpriteImageCache.out == null && !outFailed) try {
+                Files.createDirectories(FILE.getParent());
+                SpriteImageCache.out = FileChannel.open(TEMP_FILE, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                OUT_POSITION.set(HEADER_SIZE);
+            } catch (IOException e) {
+                LOGGER.warn("Couldn't create the sprite cache at {}", TEMP_FILE.toAbsolutePath(), e);
+                outFailed = true;
+            }
+            return outFailed ? null : SpriteImageCache.out;
+        }
+    }
+
+    private static @Nullable NativeImage get(Identifier id, long hash) {
+        if (!opened) open();
+        Entry entry = ENTRIES.get(id);
+        FileChannel channel = SpriteImageCache.channel;
+        if (entry == null || entry.hash != hash || channel == null) return null;
+        NativeImage image = new NativeImage(entry.width, entry.height, false);
+        ByteBuffer pixels = image.getPixelBuffer();
+        try {
+            long position = entry.offset;
+            while (pixels.hasRemaining()) {
+                int read = channel.read(pixels, position);
+                if (read < 0) throw new EOFException();
+                position += read;
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't read cached sprite {}, decoding it instead", id, e);
+            image.close();
+            return null;
+        }
+        USED.put(id, entry);
+        return image;
+    }
+
+    /**
+     * Begins a round, called before any atlas of a reload starts loading its sprites.
+     */
+    @ApiStatus.Internal
+    public static synchronized void beginLoad() {
+        if (!ENABLED) return;
+        if (activeLoads++ == 0) {
+            USED.clear();
+            outFailed = false;
+        }
+    }
+
+    /**
+     * Ends the round, called once every atlas of the reload finished loading its sprites.
+     */
+    @ApiStatus.Internal
+    public static synchronized void endLoad() {
+        if (!ENABLED || --activeLoads > 0) return;
+        if (!outFailed && (changed || USED.size() != ENTRIES.size())) save();
+        close();
+        closeOut();
+        USED.clear();
+        changed = false;
+    }
+
+    private static synchronized void open() {
+        if (opened) return;
+        opened = true;
+        if (!Files.isRegularFile(FILE)) return;
+        try {
+            FileChannel channel = FileChannel.open(FILE, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0);
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                channel.close();
+                return;
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(header.getLong()))));
+            for (int i = in.readInt(); i > 0; i--) {
+                Identifier id = Identifier.of(in.readUTF());
+                ENTRIES.put(id, new Entry(in.readLong(), in.readInt(), in.readInt(), in.readLong(), false));
+            }
+            SpriteImageCache.channel = channel;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Couldn't read the sprite cache at {}, ignoring it", FILE.toAbsolutePath(), e);
+            close();
+            opened = true;
+        }
+    }
+
+    /**
+     * Copies the images read from the old file into the next version of it, after the images
+     * decoded this round, writes the index and replaces the old file with it.
+     */
+    private static void save() {
+        FileChannel out = getOut();
+        if (out == null) return;
+        try {
+            long position = OUT_POSITION.get();
+            Map<Identifier, Long> offsets = new LinkedHashMap<>();
+            for (Map.Entry<Identifier, Entry> used : USED.entrySet()) {
+                Entry entry = used.getValue();
+                if (entry.written) {
+                    offsets.put(used.getKey(), entry.offset);
+                    continue;
+                }
+                FileChannel channel = SpriteImageCache.channel;
+                if (channel == null) continue;
+                long size = (long) entry.width * entry.height * 4;
+                long copied = 0;
+                while (copied < size) {
+                    long transferred = channel.transferTo(entry.offset + copied, size - copied, out.position(position + copied));
+                    if (transferred <= 0) throw new EOFException();
+                    copied += transferred;
+                }
+                offsets.put(used.getKey(), position);
+                position += size;
+            }
+
+            long indexOffset = position;
+            DataOutputStream index = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out.position(indexOffset))));
+            index.writeInt(offsets.size());
+            for (Map.Entry<Identifier, Long> offset : offsets.entrySet()) {
+                Entry entry = USED.get(offset.getKey());
+                index.writeUTF(offset.getKey().toString());
+                index.writeLong(entry.hash);
+                index.writeInt(entry.width);
+                index.writeInt(entry.height);
+                index.writeLong(offset.getValue());
+            }
+            index.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(indexOffset).flip();
+            while (header.hasRemaining()) out.write(header, header.position());
+            SpriteImageCache.out = null;
+            out.close();
+            // the old file has to be closed before it can be replaced on some systems
+            close();
+            Files.move(TEMP_FILE, FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Couldn't write the sprite cache to {}", FILE.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Closes the next version of the file, and deletes it if it didn't replace the old one.
+     */
+    private static void closeOut() {
+        FileChannel out = SpriteImageCache.out;
+        SpriteImageCache.out = null;
+        if (out == null) return;
+        try {
+            out.close();
+            Files.deleteIfExists(TEMP_FILE);
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't delete {}", TEMP_FILE.toAbsolutePath(), e);
+        }
+    }
+
+    private static void close() {
+        FileChannel channel = SpriteImageCache.channel;
+        SpriteImageCache.channel = null;
+        ENTRIES.clear();
+        opened = false;
+        if (channel != null) try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Couldn't close the sprite cache", e);
+        }
+    }
+
+    /**
+     * An image at the given offset, in the old file, or in the next version of it if it was decoded this round.
+     */
+    private record Entry(long hash, int width, int height, long offset, boolean written) {}
+}
@@ -23,19 +23,70 @@ import java.util.stream.Collectors;
 import static net.modificationstation.stationapi.impl.client.texture.StationRenderImpl.LOGGER;
 
 public class SpriteLoader {
+    private static final int MIN_COPY_BATCH_SIZE = 64;
     private final Identifier id;
     private final int maxTextureSize;
+    @Nullable
+    private final AtlasLayout previousLayout;
 
     public SpriteLoader(Identifier id, int maxTextureSize) {
+        this(id, maxTextureSize, null);
+    }
+
+    private SpriteLoader(Identifier id, int maxTextureSize, @Nullable AtlasLayout previousLayout) {
         this.id = id;
         this.maxTextureSize = maxTextureSize;
+        this.previousLayout = previousLayout;
     }
 
     public static SpriteLoader fromAtlas(SpriteAtlasTexture atlasTexture) {
-        return new SpriteLoader(atlasTexture.getId(), atlasTexture.getMaxTextureSize());
+        return new SpriteLoader(atlasTexture.getId(), atlasTexture.getMaxTextureSize(), atlasTexture.getLayout());
     }
 
+    /**
+     * Places the sprites in the atlas and copies their pixels into an atlas-sized image
+     * on the given executor, a batch of sprites per task, so that the atlas
+     * can be uploaded in one go once {@link StitchResult#readyForUpload()} completes.
+     *
+     * <p>If the sprites have the same IDs and sizes as the last time the atlas was stitched,
+     * the previous placements are reused instead of running {@link TextureStitcher} again.
+     */
     public StitchResult stitch(List<SpriteContents> sprites, Executor executor) {
+        return this.stitch(sprites, this.previousLayout, executor);
+    }
+
+    private StitchResult stitch(List<SpriteContents> sprites, @Nullable AtlasLayout previousLayout, Executor executor) {
+        int width, height;
+        Map<Identifier, Sprite> map;
+        if (previousLayout != null && previousLayout.matches(sprites)) {
+            LOGGER.debug("Reusing the previous layout of {}-atlas", this.id);
+            width = previousLayout.width;
+            height = previousLayout.height;
+            map = previousLayout.place(this.id, sprites);
+        } else {
+            TextureStitcher<SpriteContents> textureStitcher = this.placeSprites(sprites);
+            width = textureStitcher.getWidth();
+            height = textureStitcher.getHeight();
+            map = this.collectStitchedSprites(textureStitcher, width, height);
+        }
+        Sprite sprite2 = map.get(MissingSprite.getMissingSpriteId());
+        NativeImage image = new NativeImage(width, height, false);
+        List<Sprite> regions = new ArrayList<>(map.values());
+        int batchSize = Math.max(MIN_COPY_BATCH_SIZE, regions.size() / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int start = 0; start < regions.size(); start += batchSize) {
+            List<Sprite> batch = regions.subList(start, Math.min(regions.size(), start + batchSize));
+            batches.add(CompletableFuture.runAsync(() -> {
+                for (Sprite sprite : batch) sprite.getContents().copyTo(image, sprite.getX(), sprite.getY());
+            }, executor));
+        }
+        CompletableFuture<Void> readyForUpload = Util.combineSafe(batches).whenComplete((copied, throwable) -> {
+            if (throwable != null) image.close();
+        }).thenAccept(copied -> {});
+        return new StitchResult(width, height, sprite2, map, readyForUpload, image);
+    }
+
+    private TextureStitcher<SpriteContents> placeSprites(List<SpriteContents> sprites) {
         int i = this.maxTextureSize;
         TextureStitcher<SpriteContents> textureStitcher = new TextureStitcher<>(i, i);
         for (SpriteContents spriteContents : sprites) {
@@ -50,11 +101,7 @@ public class SpriteLoader {
             crashReportSection.add("Max Texture Size", i);
             throw new CrashException(crashReport);
         }
-        int width = textureStitcher.getWidth();
-        int height = textureStitcher.getHeight();
-        Map<Identifier, Sprite> map = this.collectStitchedSprites(textureStitcher, width, height);
-        Sprite sprite2 = map.get(MissingSprite.getMissingSpriteId());
-        return new StitchResult(width, height, sprite2, map, CompletableFuture.completedFuture(null));
+        return textureStitcher;
     }
 
     public static CompletableFuture<List<SpriteContents>> loadAll(List<Supplier<SpriteContents>> sources, Executor executor) {
@@ -62,8 +109,19 @@ public class SpriteLoader {
         return Util.combineSafe(list).thenApply(sprites -> sprites.stream().filter(Objects::nonNull).toList());
     }
 
+    /**
+     * Loads and stitches the atlas' sprites. If this loader wasn't made from an atlas that was
+     * already stitched, the layout {@link AtlasLayoutCache} kept for the current packs is tried instead.
+     */
     public CompletableFuture<StitchResult> load(ResourceManager resourceManager, Identifier path, Executor executor) {
-        return CompletableFuture.supplyAsync(() -> AtlasLoader.of(resourceManager, path).loadSources(resourceManager), executor).thenCompose(sources -> SpriteLoader.loadAll(sources, executor)).thenApply(sprites -> this.stitch(sprites, executor));
+        return CompletableFuture.supplyAsync(() -> AtlasLoader.of(resourceManager, path).loadSources(resourceManager), executor).thenCompose(sources -> SpriteLoader.loadAll(sources, executor)).thenApply(sprites -> {
+            AtlasLayout cachedLayout = AtlasLayoutCache.get(resourceManager, this.id);
+            if (cachedLayout != null && !cachedLayout.isValid(this.maxTextureSize)) {
+                LOGGER.warn("Ignoring the cached layout of {}-atlas, it doesn't fit into the atlas", this.id);
+                cachedLayout = null;
+            }
+            return this.stitch(sprites, this.previousLayout != null ? this.previousLayout : cachedLayout, executor);
+        });
     }
 
     @Nullable
@@ -77,7 +135,7 @@ public class SpriteLoader {
             return null;
         }
         try (InputStream inputStream = resource.getInputStream()){
-            nativeImage = NativeImage.read(inputStream);
+            nativeImage = SpriteImageCache.read(id, inputStream);
         } catch (IOException iOException) {
             LOGGER.error("Using missing texture, unable to load {}", id, iOException);
             return null;
@@ -97,6 +155,14 @@ public class SpriteLoader {
         return map;
     }
 
-    public record StitchResult(int width, int height, Sprite missing, Map<Identifier, Sprite> regions, CompletableFuture<Void> readyForUpload) {}
+    /**
+     * @param image the atlas with all sprites copied into it once {@link #readyForUpload} completes,
+     *              or {@code null} if the sprites should be uploaded one by one
+     */
+    public record StitchResult(int width, int height, Sprite missing, Map<Identifier, Sprite> regions, CompletableFuture<Void> readyForUpload, @Nullable NativeImage image) {
+        public StitchResult(int width, int height, Sprite missing, Map<Identifier, Sprite> regions, CompletableFuture<Void> readyForUpload) {
+            this(width, height, missing, regions, readyForUpload, null);
+        }
+    }
 }
 
@@ -0,0 +1,98 @@
+package net.modificationstation.stationapi.impl.resource;
+
+import net.modificationstation.stationapi.api.resource.ResourceType;
+import net.modificationstation.stationapi.api.util.Identifier;
+import net.modificationstation.stationapi.api.util.Namespace;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups a resource reload makes in a directory pack of 10k files,
+ * answered from a {@link ResourcePathIndex} like they are now, and by walking the pack
+ * and probing the file system like they were before.
+ *
+ * <p>Each invocation is one reload: a fresh pack lists its namespaces, finds the files under
+ * a few directories of each, and probes for a file next to every texture, most of which don't exist,
+ * like animation metadata. Run with {@code -prof perfnorm:events=raw_syscalls:sys_enter} on Linux
+ * to get the number of system calls per reload, the files stay in the OS' cache either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackLookupBenchmark {
+    private static final String[] DIRECTORIES = { "textures/block", "textures/item", "models/block", "models/item", "blockstates" };
+    private static final ResourceType TYPE = ResourceType.CLIENT_RESOURCES;
+
+    @Param("20")
+    public int namespaces;
+
+    @Param("100")
+    public int filesPerDirectory;
+
+    private Path root;
+
+    @Setup
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("stationapi-pack");
+        for (int namespace = 0; namespace < namespaces; namespace++)
+            for (String directory : DIRECTORIES) {
+                Path path = root.resolve(TYPE.getDirectory()).resolve("mod" + namespace).resolve(directory);
+                Files.createDirectories(path);
+                for (int file = 0; file < filesPerDirectory; file++) {
+                    String name = "file_" + file + (directory.startsWith("textures") ? ".png" : ".json");
+                    Files.writeString(path.resolve(name), name);
+                    if (file % 10 == 0 && directory.startsWith("textures")) Files.writeString(path.resolve(name + ".mcmeta"), "{}");
+                }
+            }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (var paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public int indexed() {
+        int[] found = new int[1];
+        DirectoryResourcePack pack = new DirectoryResourcePack("benchmark", root, true);
+        for (Namespace namespace : pack.getNamespaces(TYPE))
+            for (String directory : DIRECTORIES)
+                pack.findResources(TYPE, namespace, directory, (id, supplier) -> {
+                    found[0]++;
+                    if (id.path.endsWith(".png") && pack.open(TYPE, Identifier.of(id.namespace, id.path + ".mcmeta")) != null)
+                        found[0]++;
+                });
+        pack.close();
+        return found[0];
+    }
+
+    @Benchmark
+    public int walked() throws IOException {
+        int[] found = new int[1];
+        Path typeDirectory = root.resolve(TYPE.getDirectory());
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(typeDirectory)) {
+            for (Path namespaceDirectory : stream) {
+                Namespace namespace = Namespace.of(namespaceDirectory.getFileName().toString());
+                for (String directory : DIRECTORIES)
+                    DirectoryResourcePack.findResources(namespace, namespaceDirectory, List.of(directory.split("/")), (id, supplier) -> {
+                        found[0]++;
+                        if (id.path.endsWith(".png") && DirectoryResourcePack.open(Identifier.of(id.namespace, id.path + ".mcmeta"), namespaceDirectory) != null)
+                            found[0]++;
+                    });
+            }
+        }
+        return found[0];
+    }
+}
@@ -33,6 +33,14 @@ public interface ResourcePack extends AutoCloseable {
         return false;
     }
 
+    /**
+     * {@return the last time the pack's resources changed, in milliseconds since the epoch,
+     * or {@code 0} if the pack can't tell}
+     */
+    default long getLastModified() {
+        return 0;
+    }
+
     void close();
 
     @FunctionalInterface
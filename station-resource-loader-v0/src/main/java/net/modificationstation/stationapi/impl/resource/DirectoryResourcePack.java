@@ -12,7 +12,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
@@ -27,12 +26,22 @@ import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
 public class DirectoryResourcePack extends AbstractFileResourcePack {
     private static final Joiner SEPARATOR_JOINER = Joiner.on("/");
     private final Path root;
+    @Nullable
+    private volatile ResourcePathIndex<Path> index;
 
     public DirectoryResourcePack(String name, Path root, boolean alwaysStable) {
         super(name, alwaysStable);
         this.root = root;
     }
 
+    private ResourcePathIndex<Path> getIndex() {
+        ResourcePathIndex<Path> index = this.index;
+        if (index == null) synchronized (this) {
+            if ((index = this.index) == null) this.index = index = ResourcePathIndex.walk(List.of(this.root));
+        }
+        return index;
+    }
+
     @Override
     @Nullable
     public InputSupplier<InputStream> openRoot(String ... segments) {
@@ -51,8 +60,8 @@ public class DirectoryResourcePack extends AbstractFileResourcePack {
     @Override
     @Nullable
     public InputSupplier<InputStream> open(ResourceType type, Identifier id) {
-        Path path = this.root.resolve(type.getDirectory()).resolve(id.namespace.toString());
-        return DirectoryResourcePack.open(id, path);
+        Path path = this.getIndex().get(type.getDirectory() + "/" + id.namespace + "/" + id.path);
+        return path == null ? null : InputSupplier.create(path);
     }
 
     public static InputSupplier<InputStream> open(Identifier id, Path path) {
@@ -75,10 +84,9 @@ public class DirectoryResourcePack extends AbstractFileResourcePack {
 
     @Override
     public void findResources(ResourceType type, Namespace namespace, String prefix, ResourcePack.ResultConsumer consumer) {
-        PathUtil.split(prefix).get().ifLeft(prefixSegments -> {
-            Path path = this.root.resolve(type.getDirectory()).resolve(namespace.toString());
-            DirectoryResourcePack.findResources(namespace, path, prefixSegments, consumer);
-        }).ifRight(result -> LOGGER.error("Invalid path {}: {}", prefix, result.message()));
+        PathUtil.split(prefix).get()
+                .ifLeft(prefixSegments -> this.getIndex().forEach(type, namespace, prefix, (path, foundPath) -> consumer.accept(Identifier.of(namespace, path), InputSupplier.create(foundPath))))
+                .ifRight(result -> LOGGER.error("Invalid path {}: {}", prefix, result.message()));
     }
 
     public static void findResources(Namespace namespace, Path path, List<String> prefixSegments, ResourcePack.ResultConsumer consumer) {
@@ -103,24 +111,23 @@ public class DirectoryResourcePack extends AbstractFileResourcePack {
     @Override
     public Set<Namespace> getNamespaces(ResourceType type) {
         HashSet<Namespace> set = Sets.newHashSet();
-        Path path = this.root.resolve(type.getDirectory());
-        try (DirectoryStream<Path> directoryStream2 = Files.newDirectoryStream(path)){
-            for (Path path2 : directoryStream2) {
-                String string = path2.getFileName().toString();
-                if (string.equals(string.toLowerCase(Locale.ROOT))) {
-                    set.add(Namespace.of(string));
-                    continue;
-                }
-                LOGGER.warn("Ignored non-lowercase namespace: {} in {}", string, this.root);
+        for (String string : this.getIndex().getNamespaces(type)) {
+            if (string.equals(string.toLowerCase(Locale.ROOT))) {
+                set.add(Namespace.of(string));
+                continue;
             }
-        } catch (NoSuchFileException ignored) {
-        } catch (IOException iOException) {
-            LOGGER.error("Failed to list path {}", path, iOException);
+            LOGGER.warn("Ignored non-lowercase namespace: {} in {}", string, this.root);
         }
         return set;
     }
 
     @Override
-    public void close() {}
-}
+    public long getLastModified() {
+        return this.getIndex().getLastModified();
+    }
 
+    @Override
+    public void close() {
+        this.index = null;
+    }
+}
@@ -104,6 +104,13 @@ public abstract class GroupResourcePack implements ResourcePack {
         return this.getName() + " (" + this.packs.stream().map(ResourcePack::getName).collect(Collectors.joining(", ")) + ")";
     }
 
+    @Override
+    public long getLastModified() {
+        long lastModified = 0;
+        for (ResourcePack pack : this.packs) lastModified = Math.max(lastModified, pack.getLastModified());
+        return lastModified;
+    }
+
     @Override
     public void close() {
         this.packs.forEach(ResourcePack::close);
@@ -35,6 +35,7 @@ public class ModNioResourcePack implements ModResourcePack {
     private final AutoCloseable closer;
     private final ResourcePackActivationType activationType;
     private final Map<ResourceType, Set<Namespace>> namespaces;
+    private volatile ResourcePathIndex<Path> index;
 
     public static ModNioResourcePack create(Identifier id, String name, ModContainer mod, String subPath, ResourceType type, ResourcePackActivationType activationType) {
         List<Path> rootPaths = mod.getRootPaths();
@@ -112,9 +113,19 @@ public class ModNioResourcePack implements ModResourcePack {
         return ret;
     }
 
+    private ResourcePathIndex<Path> getIndex() {
+        ResourcePathIndex<Path> index = this.index;
+        if (index == null) synchronized (this) {
+            if ((index = this.index) == null) this.index = index = ResourcePathIndex.walk(basePaths);
+        }
+        return index;
+    }
+
     private Path getPath(String filename) {
         if (hasAbsentNs(filename)) return null;
 
+        if (ResourcePathIndex.isIndexed(filename)) return getIndex().get(filename);
+
         for (Path basePath : basePaths) {
             Path childPath = basePath.resolve(filename.replace("/", basePath.getFileSystem().getSeparator())).toAbsolutePath().normalize();
 
@@ -173,18 +184,20 @@ public class ModNioResourcePack implements ModResourcePack {
     @Override
     public void findResources(ResourceType type, Namespace namespace, String path, ResultConsumer visitor) {
         val atRoot = path.startsWith("/");
-        if (!atRoot && !namespaces.getOrDefault(type, Collections.emptySet()).contains(namespace)) return;
+        if (!atRoot) {
+            if (namespaces.getOrDefault(type, Collections.emptySet()).contains(namespace))
+                getIndex().forEach(type, namespace, path, (filename, file) -> visitor.accept(namespace.id(filename), InputSupplier.create(file)));
+            return;
+        }
         for (Path basePath : basePaths) {
             String separator = basePath.getFileSystem().getSeparator();
-            Path nsPath = atRoot ? basePath : basePath.resolve(type.getDirectory()).resolve(namespace.toString());
-            Path searchPath = nsPath.resolve((atRoot ? path.substring(1) : path).replace("/", separator)).normalize();
+            Path searchPath = basePath.resolve(path.substring(1).replace("/", separator)).normalize();
             if (!exists(searchPath)) continue;
             try {
                 Files.walkFileTree(searchPath, new SimpleFileVisitor<>() {
                     @Override
                     public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                        String filename = nsPath.relativize(file).toString().replace(separator, "/");
-                        if (atRoot) filename = "/" + filename;
+                        String filename = "/" + basePath.relativize(file).toString().replace(separator, "/");
                         Identifier identifier = namespace.id(filename);
                         visitor.accept(identifier, InputSupplier.create(file));
                         return FileVisitResult.CONTINUE;
@@ -208,8 +221,14 @@ public class ModNioResourcePack implements ModResourcePack {
         }
     }
 
+    @Override
+    public long getLastModified() {
+        return getIndex().getLastModified();
+    }
+
     @Override
     public void close() {
+        index = null;
         if (closer != null) try {
             closer.close();
         } catch (Exception e) {
@@ -0,0 +1,168 @@
+package net.modificationstation.stationapi.impl.resource;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.modificationstation.stationapi.api.resource.ResourceType;
+import net.modificationstation.stationapi.api.util.Namespace;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static net.modificationstation.stationapi.api.StationAPI.LOGGER;
+
+/**
+ * An immutable index of the files under a pack's {@link ResourceType} directories,
+ * so that packs don't have to walk their file tree for every
+ * {@linkplain net.modificationstation.stationapi.api.resource.ResourcePack#findResources lookup}
+ * or check the file system for every resource they're asked to open.
+ *
+ * <p>Paths are relative to the pack's root and use {@code /} as the separator.
+ * They're kept sorted, so a file is found with a binary search,
+ * and the files under a directory form a single range.
+ *
+ * <p>Packs build their index the first time they're queried and drop it when they're closed,
+ * so it's rebuilt on the next resource reload. The index also keeps the latest modification time
+ * of the files it was built from, which packs report as their own.
+ *
+ * @param <S> the type of the pack's handle of a file
+ */
+final class ResourcePathIndex<S> {
+    private static final ResourceType[] TYPES = ResourceType.values();
+
+    private final String[] paths;
+    private final S[] sources;
+    private final Map<ResourceType, Set<String>> namespaces = new EnumMap<>(ResourceType.class);
+    private final long lastModified;
+
+    @SuppressWarnings("unchecked")
+    private ResourcePathIndex(Map<String, S> entries, long lastModified) {
+        this.lastModified = lastModified;
+        paths = entries.keySet().toArray(String[]::new);
+        Arrays.sort(paths);
+        sources = (S[]) new Object[paths.length];
+        for (ResourceType type : TYPES) namespaces.put(type, new ObjectOpenHashSet<>());
+        for (int i = 0; i < paths.length; i++) {
+            String path = paths[i];
+            sources[i] = entries.get(path);
+            ResourceType type = getType(path);
+            int nsStart = type.getDirectory().length() + 1;
+            int nsEnd = path.indexOf('/', nsStart);
+            if (nsEnd > nsStart) namespaces.get(type).add(path.substring(nsStart, nsEnd));
+        }
+    }
+
+    /**
+     * {@return whether the path is under one of the directories the index covers}
+     */
+    static boolean isIndexed(String path) {
+        return getType(path) != null;
+    }
+
+    private static @Nullable ResourceType getType(String path) {
+        for (ResourceType type : TYPES) {
+            String directory = type.getDirectory();
+            if (path.length() > directory.length() && path.charAt(directory.length()) == '/' && path.startsWith(directory))
+                return type;
+        }
+        return null;
+    }
+
+    /**
+     * {@return the file at the given path, or {@code null} if there's no such file}
+     */
+    @Nullable S get(String path) {
+        int index = Arrays.binarySearch(paths, path);
+        return index < 0 ? null : sources[index];
+    }
+
+    /**
+     * Passes every file under the given directory of the namespace, or the file itself
+     * if the prefix names one, to the consumer along with its path relative to the namespace.
+     */
+    void forEach(ResourceType type, Namespace namespace, String prefix, BiConsumer<String, S> consumer) {
+        String base = type.getDirectory() + "/" + namespace + "/";
+        if (prefix.endsWith("/")) prefix = prefix.substring(0, prefix.length() - 1);
+        String directory = prefix.isEmpty() ? base : base + prefix + "/";
+        if (!prefix.isEmpty()) {
+            S file = get(base + prefix);
+            if (file != null) consumer.accept(prefix, file);
+        }
+        int index = Arrays.binarySearch(paths, directory);
+        for (int i = index < 0 ? -index - 1 : index; i < paths.length && paths[i].startsWith(directory); i++)
+            consumer.accept(paths[i].substring(base.length()), sources[i]);
+    }
+
+    /**
+     * {@return the names of the directories that contain files under the type's directory}
+     */
+    Set<String> getNamespaces(ResourceType type) {
+        return namespaces.get(type);
+    }
+
+    /**
+     * {@return the latest modification time of the indexed files, in milliseconds since the epoch, or {@code 0} if unknown}
+     */
+    long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Indexes the files under the {@link ResourceType} directories of the given roots.
+     * If several roots have a file at the same path, the first one's is kept.
+     */
+    static ResourcePathIndex<Path> walk(List<Path> roots) {
+        Builder<Path> builder = new Builder<>();
+        for (Path root : roots) {
+            String separator = root.getFileSystem().getSeparator();
+            for (ResourceType type : TYPES) {
+                Path directory = root.resolve(type.getDirectory());
+                if (!Files.isDirectory(directory)) continue;
+                String prefix = type.getDirectory() + "/";
+                try {
+                    Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                        @Override
+                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                            if (attrs.isRegularFile())
+                                builder.add(prefix + directory.relativize(file).toString().replace(separator, "/"), file)
+                                        .modifiedAt(attrs.lastModifiedTime().toMillis());
+                            return FileVisitResult.CONTINUE;
+                        }
+                    });
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to index path " + directory, e);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    static final class Builder<S> {
+        private final Map<String, S> entries = new Object2ObjectOpenHashMap<>();
+        private long lastModified;
+
+        /**
+         * Adds the file if it's under one of the directories the index covers
+         * and no file was added at the same path before.
+         */
+        Builder<S> add(String path, S source) {
+            if (isIndexed(path)) entries.putIfAbsent(path, source);
+            return this;
+        }
+
+        /**
+         * Records that one of the pack's files was modified at the given time.
+         */
+        Builder<S> modifiedAt(long time) {
+            lastModified = Math.max(lastModified, time);
+            return this;
+        }
+
+        ResourcePathIndex<S> build() {
+            return new ResourcePathIndex<>(entries, lastModified);
+        }
+    }
+}
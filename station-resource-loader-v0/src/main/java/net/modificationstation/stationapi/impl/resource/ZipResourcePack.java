@@ -1,7 +1,6 @@
 package net.modificationstation.stationapi.impl.resource;
 
 import com.google.common.base.Splitter;
-import com.google.common.collect.Lists;
 import net.modificationstation.stationapi.api.util.Identifier;
 import net.modificationstation.stationapi.api.util.Namespace;
 import net.modificationstation.stationapi.api.resource.InputSupplier;
@@ -25,6 +24,8 @@ public class ZipResourcePack extends AbstractFileResourcePack {
     @Nullable
     private ZipFile file;
     private boolean failedToOpen;
+    @Nullable
+    private volatile ResourcePathIndex<ZipEntry> index;
 
     public ZipResourcePack(String name, File backingZipFile, boolean alwaysStable) {
         super(name, alwaysStable);
@@ -48,6 +49,27 @@ public class ZipResourcePack extends AbstractFileResourcePack {
         return this.file;
     }
 
+    @Nullable
+    private ResourcePathIndex<ZipEntry> getIndex() {
+        ResourcePathIndex<ZipEntry> index = this.index;
+        if (index == null) synchronized (this) {
+            if ((index = this.index) == null) {
+                ZipFile zipFile = this.getZipFile();
+                if (zipFile == null) {
+                    return null;
+                }
+                ResourcePathIndex.Builder<ZipEntry> builder = new ResourcePathIndex.Builder<>();
+                Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+                while (enumeration.hasMoreElements()) {
+                    ZipEntry zipEntry = enumeration.nextElement();
+                    if (!zipEntry.isDirectory()) builder.add(zipEntry.getName(), zipEntry);
+                }
+                this.index = index = builder.build();
+            }
+        }
+        return index;
+    }
+
     private static String toPath(ResourceType type, Identifier id) {
         return String.format(Locale.ROOT, "%s/%s/%s", type.getDirectory(), id.namespace, id.path);
     }
@@ -69,7 +91,13 @@ public class ZipResourcePack extends AbstractFileResourcePack {
         if (zipFile == null) {
             return null;
         }
-        ZipEntry zipEntry = zipFile.getEntry(path);
+        ZipEntry zipEntry;
+        if (ResourcePathIndex.isIndexed(path)) {
+            ResourcePathIndex<ZipEntry> index = this.getIndex();
+            zipEntry = index == null ? null : index.get(path);
+        } else {
+            zipEntry = zipFile.getEntry(path);
+        }
         if (zipEntry == null) {
             return null;
         }
@@ -78,23 +106,17 @@ public class ZipResourcePack extends AbstractFileResourcePack {
 
     @Override
     public Set<Namespace> getNamespaces(ResourceType type) {
-        ZipFile zipFile = this.getZipFile();
-        if (zipFile == null) {
+        ResourcePathIndex<ZipEntry> index = this.getIndex();
+        if (index == null) {
             return Set.of();
         }
-        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
         HashSet<Namespace> set = new HashSet<>();
-        while (enumeration.hasMoreElements()) {
-            ArrayList<String> list;
-            ZipEntry zipEntry = enumeration.nextElement();
-            String string = zipEntry.getName();
-            if (!string.startsWith(type.getDirectory() + "/") || (list = Lists.newArrayList(TYPE_NAMESPACE_SPLITTER.split(string))).size() <= 1) continue;
-            String string2 = list.get(1);
-            if (string2.equals(string2.toLowerCase(Locale.ROOT))) {
-                set.add(Namespace.of(string2));
+        for (String string : index.getNamespaces(type)) {
+            if (string.equals(string.toLowerCase(Locale.ROOT))) {
+                set.add(Namespace.of(string));
                 continue;
             }
-            LOGGER.warn("Ignored non-lowercase namespace: {} in {}", string2, this.backingZipFile);
+            LOGGER.warn("Ignored non-lowercase namespace: {} in {}", string, this.backingZipFile);
         }
         return set;
     }
@@ -106,8 +128,14 @@ public class ZipResourcePack extends AbstractFileResourcePack {
         super.finalize();
     }
 
+    @Override
+    public long getLastModified() {
+        return this.backingZipFile.lastModified();
+    }
+
     @Override
     public void close() {
+        this.index = null;
         if (this.file != null) {
             IOUtils.closeQuietly(this.file);
             this.file = null;
@@ -117,20 +145,10 @@ public class ZipResourcePack extends AbstractFileResourcePack {
     @Override
     public void findResources(ResourceType type, Namespace namespace, String prefix, ResourcePack.ResultConsumer consumer) {
         ZipFile zipFile = this.getZipFile();
-        if (zipFile == null) {
+        ResourcePathIndex<ZipEntry> index = this.getIndex();
+        if (zipFile == null || index == null) {
             return;
         }
-        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
-        String string = type.getDirectory() + "/" + namespace + "/";
-        String string2 = string + prefix + "/";
-        while (enumeration.hasMoreElements()) {
-            String string3;
-            ZipEntry zipEntry = enumeration.nextElement();
-            if (zipEntry.isDirectory() || !(string3 = zipEntry.getName()).startsWith(string2)) continue;
-            String string4 = string3.substring(string.length());
-            Identifier identifier = Identifier.of(namespace, string4);
-            consumer.accept(identifier, InputSupplier.create(zipFile, zipEntry));
-        }
+        index.forEach(type, namespace, prefix, (path, zipEntry) -> consumer.accept(Identifier.of(namespace, path), InputSupplier.create(zipFile, zipEntry)));
     }
 }
-
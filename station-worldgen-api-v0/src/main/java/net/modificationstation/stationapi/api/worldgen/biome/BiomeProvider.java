@@ -16,6 +16,25 @@ public interface BiomeProvider {
      */
     Biome getBiome(int x, int z, float temperature, float downfall);
 
+    /**
+     * Fills {@code biomes} with the biomes of a {@code width} by {@code depth} area starting at {@code x}, {@code z}.
+     * The biome of {@code x + dx}, {@code z + dz} goes to index {@code dx * depth + dz}, the same as in biome sources,
+     * and temperatures and downfalls are laid out the same way.
+     *
+     * <p>Must give the same biomes as {@link #getBiome(int, int, float, float)}. Providers that can
+     * sample a whole area at once faster than position by position should override this.
+     *
+     * @param biomes       the array to fill, at least {@code width * depth} long
+     * @param temperatures temperatures of the area
+     * @param downfalls    wetness (downfall) of the area
+     */
+    default void fillBiomes(Biome[] biomes, int x, int z, int width, int depth, double[] temperatures, double[] downfalls) {
+        int index = 0;
+        for (int dx = 0; dx < width; dx++)
+            for (int dz = 0; dz < depth; dz++, index++)
+                biomes[index] = getBiome(x + dx, z + dz, (float) temperatures[index], (float) downfalls[index]);
+    }
+
     Collection<Biome> getBiomes();
     
     default void setSeed(long seed) {}
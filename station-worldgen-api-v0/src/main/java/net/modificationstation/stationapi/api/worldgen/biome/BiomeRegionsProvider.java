@@ -11,7 +11,7 @@ import java.util.Random;
 import java.util.Set;
 
 public class BiomeRegionsProvider implements BiomeProvider {
-    private final double[] buffer = new double[1];
+    private final ThreadLocal<double[][]> buffers = ThreadLocal.withInitial(() -> new double[2][1]);
     private final List<BiomeProvider> providers;
 
     private IDVoronoiNoise idNoise;
@@ -24,11 +24,32 @@ public class BiomeRegionsProvider implements BiomeProvider {
 
     @Override
     public Biome getBiome(int x, int z, float temperature, float downfall) {
+        double[] buffer = buffers.get()[0];
         double px = x * 0.01 + distortX.method_1516(buffer, x, z, 1, 1, 0.1, 0.1, 0.25)[0] * 0.1;
         double pz = z * 0.01 + distortZ.method_1516(buffer, x, z, 1, 1, 0.1, 0.1, 0.25)[0] * 0.1;
         int id = idNoise.getID(px, pz, providers.size());
         return providers.get(id).getBiome(x, z, temperature, downfall);
     }
+
+    /**
+     * Samples the region distortion noise for the whole area in one pass per axis,
+     * and lets the provider of every position pick its biome.
+     */
+    @Override
+    public void fillBiomes(Biome[] biomes, int x, int z, int width, int depth, double[] temperatures, double[] downfalls) {
+        double[][] buffers = this.buffers.get();
+        double[] offsetsX = buffers[0] = distortX.method_1516(buffers[0], x, z, width, depth, 0.1, 0.1, 0.25);
+        double[] offsetsZ = buffers[1] = distortZ.method_1516(buffers[1], x, z, width, depth, 0.1, 0.1, 0.25);
+        int count = providers.size();
+        int index = 0;
+        for (int dx = 0; dx < width; dx++) {
+            double px = (x + dx) * 0.01;
+            for (int dz = 0; dz < depth; dz++, index++) {
+                int id = idNoise.getID(px + offsetsX[index] * 0.1, (z + dz) * 0.01 + offsetsZ[index] * 0.1, count);
+                biomes[index] = providers.get(id).getBiome(x + dx, z + dz, (float) temperatures[index], (float) downfalls[index]);
+            }
+        }
+    }
     
     @Override
     public Collection<Biome> getBiomes() {
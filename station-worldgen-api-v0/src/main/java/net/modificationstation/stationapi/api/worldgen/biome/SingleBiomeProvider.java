@@ -2,6 +2,7 @@ package net.modificationstation.stationapi.api.worldgen.biome;
 
 import net.minecraft.world.biome.Biome;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -20,6 +21,11 @@ public class SingleBiomeProvider implements BiomeProvider {
         return biome;
     }
     
+    @Override
+    public void fillBiomes(Biome[] biomes, int x, int z, int width, int depth, double[] temperatures, double[] downfalls) {
+        Arrays.fill(biomes, 0, width * depth, biome);
+    }
+
     @Override
     public Collection<Biome> getBiomes() {
         return Collections.singleton(biome);
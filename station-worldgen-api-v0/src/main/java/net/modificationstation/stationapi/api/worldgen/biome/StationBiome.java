@@ -57,6 +57,10 @@ public interface StationBiome {
         Util.assertImpl();
     }
 
+    default List<SurfaceRule> getSurfaceRules() {
+        return Util.assertImpl();
+    }
+
     default boolean noSurfaceRules() {
         return Util.assertImpl();
     }
@@ -12,7 +12,7 @@ import java.util.*;
  */
 public class VoronoiBiomeProvider implements BiomeProvider {
     private final List<Biome> biomes = new ArrayList<>();
-    private final double[] buffer = new double[1];
+    private final ThreadLocal<double[][]> buffers = ThreadLocal.withInitial(() -> new double[2][1]);
 
     private IDVoronoiNoise idNoise;
     private class_458 distortX;
@@ -41,11 +41,31 @@ public class VoronoiBiomeProvider implements BiomeProvider {
 
     @Override
     public Biome getBiome(int x, int z, float temperature, float downfall) {
+        double[] buffer = buffers.get()[0];
         double px = x * s1 + distortX.method_1516(buffer, x, z, 1, 1, s2, s2, 0.25)[0] * distortion;
         double pz = z * s1 + distortZ.method_1516(buffer, x, z, 1, 1, s2, s2, 0.25)[0] * distortion;
         int id = idNoise.getID(px, pz, biomes.size());
         return biomes.get(id);
     }
+
+    /**
+     * Samples the distortion noise for the whole area in one pass per axis.
+     */
+    @Override
+    public void fillBiomes(Biome[] biomes, int x, int z, int width, int depth, double[] temperatures, double[] downfalls) {
+        double[][] buffers = this.buffers.get();
+        double[] offsetsX = buffers[0] = distortX.method_1516(buffers[0], x, z, width, depth, s2, s2, 0.25);
+        double[] offsetsZ = buffers[1] = distortZ.method_1516(buffers[1], x, z, width, depth, s2, s2, 0.25);
+        int count = this.biomes.size();
+        int index = 0;
+        for (int dx = 0; dx < width; dx++) {
+            double px = (x + dx) * s1;
+            for (int dz = 0; dz < depth; dz++, index++) {
+                int id = idNoise.getID(px + offsetsX[index] * distortion, (z + dz) * s1 + offsetsZ[index] * distortion, count);
+                biomes[index] = this.biomes.get(id);
+            }
+        }
+    }
     
     @Override
     public Collection<Biome> getBiomes() {
@@ -10,6 +10,10 @@ public class StateSurfaceRule extends SurfaceRule {
         this.state = state;
     }
 
+    public BlockState getState() {
+        return state;
+    }
+
     @Override
     public void apply(World world, int x, int y, int z) {
         world.setBlockState(x, y, z, state);
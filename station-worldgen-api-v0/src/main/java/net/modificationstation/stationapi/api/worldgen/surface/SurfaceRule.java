@@ -5,6 +5,7 @@ import net.modificationstation.stationapi.api.block.BlockState;
 import net.modificationstation.stationapi.api.worldgen.surface.condition.SurfaceCondition;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public abstract class SurfaceRule {
@@ -22,4 +23,8 @@ public abstract class SurfaceRule {
     public void addCondition(SurfaceCondition condition) {
         conditions.add(condition);
     }
+
+    public List<SurfaceCondition> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
 }
@@ -10,7 +10,7 @@ import java.util.Random;
 
 public class DepthSurfaceCondition implements SurfaceCondition {
     private static final class_458 NOISE = new class_458(new Random(0), 2);
-    private static final double[] BUFFER = new double[1];
+    private static final ThreadLocal<double[]> BUFFER = ThreadLocal.withInitial(() -> new double[1]);
     private final AxisDirection direction;
     private final int minDepth;
     private final int maxDepth;
@@ -27,11 +27,31 @@ public class DepthSurfaceCondition implements SurfaceCondition {
 
     @Override
     public boolean canApply(World world, int x, int y, int z, BlockState state) {
+        return isOpen(world.getBlockState(x, y - getOffset(x, z), z));
+    }
+
+    /**
+     * {@return the vertical offset of the checked block below the surface block, depending only on the column}
+     */
+    public int getOffset(int x, int z) {
         int depth = minDepth;
         if (minDepth != maxDepth) {
-            depth = MathHelper.lerp(NOISE.method_1516(BUFFER, x, z, 1, 1, 0.1, 0.1, 0.25)[0], minDepth, maxDepth);
+            depth = MathHelper.lerp(NOISE.method_1516(BUFFER.get(), x, z, 1, 1, 0.1, 0.1, 0.25)[0], minDepth, maxDepth);
         }
-        state = world.getBlockState(x, y - depth * direction.offset(), z);
+        return depth * direction.offset();
+    }
+
+    /**
+     * {@return the furthest the checked block can be from the surface block}
+     */
+    public int getMaxDepth() {
+        return Math.max(Math.abs(minDepth), Math.abs(maxDepth));
+    }
+
+    /**
+     * {@return whether the checked block lets the surface through}
+     */
+    public static boolean isOpen(BlockState state) {
         return state.isAir() || state.getMaterial().method_893() || state.getMaterial().method_896() || !state.getMaterial().method_907();
     }
 }
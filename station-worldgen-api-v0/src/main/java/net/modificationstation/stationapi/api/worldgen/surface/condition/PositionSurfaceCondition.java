@@ -8,7 +8,7 @@ import net.modificationstation.stationapi.api.util.math.MutableBlockPos;
 import java.util.function.Predicate;
 
 public class PositionSurfaceCondition implements SurfaceCondition {
-    private final MutableBlockPos pos = new MutableBlockPos(0, 0, 0);
+    private static final ThreadLocal<MutableBlockPos> POS = ThreadLocal.withInitial(() -> new MutableBlockPos(0, 0, 0));
     private final Predicate<BlockPos> predicate;
 
     public PositionSurfaceCondition(Predicate<BlockPos> predicate) {
@@ -17,7 +17,6 @@ public class PositionSurfaceCondition implements SurfaceCondition {
 
     @Override
     public boolean canApply(World world, int x, int y, int z, BlockState state) {
-        pos.set(x, y, z);
-        return predicate.test(pos);
+        return predicate.test(POS.get().set(x, y, z));
     }
 }
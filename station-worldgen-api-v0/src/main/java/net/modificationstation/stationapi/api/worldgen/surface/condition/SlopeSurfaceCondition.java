@@ -5,8 +5,6 @@ import net.modificationstation.stationapi.api.block.BlockState;
 import net.modificationstation.stationapi.api.util.math.Vec3f;
 
 public class SlopeSurfaceCondition implements SurfaceCondition {
-    private final Vec3f a = new Vec3f();
-    private final Vec3f b = new Vec3f();
     private final boolean greater;
     private final float angle;
 
@@ -17,10 +15,19 @@ public class SlopeSurfaceCondition implements SurfaceCondition {
 
     @Override
     public boolean canApply(World world, int x, int y, int z, BlockState state) {
-        a.set(2, world.getTopY(x + 1, z) - world.getTopY(x - 1, z), 0);
+        return canApply(world.getTopY(x + 1, z), world.getTopY(x - 1, z), world.getTopY(x, z + 1), world.getTopY(x, z - 1));
+    }
+
+    /**
+     * Checks the slope given the heights of the neighbouring columns. Doesn't depend on the Y of the surface block.
+     */
+    public boolean canApply(int topPositiveX, int topNegativeX, int topPositiveZ, int topNegativeZ) {
+        Vec3f a = new Vec3f();
+        Vec3f b = new Vec3f();
+        a.set(2, topPositiveX - topNegativeX, 0);
         a.normalize();
 
-        b.set(0, world.getTopY(x, z + 1) - world.getTopY(x, z - 1), 2);
+        b.set(0, topPositiveZ - topNegativeZ, 2);
         b.normalize();
 
         a.cross(b);
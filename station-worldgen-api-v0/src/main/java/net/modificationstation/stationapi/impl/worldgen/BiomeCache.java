@@ -0,0 +1,62 @@
+package net.modificationstation.stationapi.impl.worldgen;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import net.minecraft.class_519;
+import net.minecraft.world.biome.Biome;
+
+/**
+ * A bounded cache of the biomes of 16x16 regions, sampled from a biome source in batches.
+ *
+ * <p>Terrain height interpolation and decoration ask for the same biomes many times,
+ * for the chunk being generated and for its neighbours, so keeping recently sampled
+ * regions saves running the biome source and providers again for every position.
+ * Biome sources give the same biomes for the same seed, so regions stay valid as long as
+ * the source does, and the cache is dropped as soon as it's asked about another source.
+ *
+ * <p>Not thread-safe, each {@link WorldgenContext} has its own.
+ */
+final class BiomeCache {
+    private static final int MAX_REGIONS = 256;
+
+    private final Long2ObjectLinkedOpenHashMap<Biome[]> regions = new Long2ObjectLinkedOpenHashMap<>(MAX_REGIONS);
+    private class_519 source;
+
+    Biome get(class_519 source, int x, int z) {
+        return getRegion(source, x >> 4, z >> 4)[(x & 15) << 4 | z & 15];
+    }
+
+    /**
+     * Fills {@code biomes} the same way {@link class_519#method_1791(Biome[], int, int, int, int)} would.
+     */
+    Biome[] fill(class_519 source, Biome[] biomes, int x, int z, int width, int depth) {
+        int index = 0;
+        for (int dx = 0; dx < width; dx++) {
+            int worldX = x + dx;
+            int localX = (worldX & 15) << 4;
+            Biome[] region = null;
+            int regionZ = Integer.MIN_VALUE;
+            for (int dz = 0; dz < depth; dz++) {
+                int worldZ = z + dz;
+                if (region == null || worldZ >> 4 != regionZ)
+                    region = getRegion(source, worldX >> 4, regionZ = worldZ >> 4);
+                biomes[index++] = region[localX | worldZ & 15];
+            }
+        }
+        return biomes;
+    }
+
+    private Biome[] getRegion(class_519 source, int regionX, int regionZ) {
+        if (source != this.source) {
+            regions.clear();
+            this.source = source;
+        }
+        long key = (long) regionX << 32 | regionZ & 0xFFFFFFFFL;
+        Biome[] region = regions.getAndMoveToFirst(key);
+        if (region == null) {
+            region = source.method_1791(new Biome[256], regionX << 4, regionZ << 4, 16, 16);
+            if (regions.size() >= MAX_REGIONS) regions.removeLast();
+            regions.putAndMoveToFirst(key, region);
+        }
+        return region;
+    }
+}
@@ -14,18 +14,20 @@ public class BiomeDataInterpolator {
     private final int radius;
     private final int count;
     private final int distance;
+    private final BiomeCache biomeCache;
 
-    private boolean initiated;
+    private class_519 lastSource;
     private int lastX;
     private int lastZ;
 
-    public BiomeDataInterpolator(Function<Biome, Number> provider, int side, int radius, int distance) {
+    BiomeDataInterpolator(Function<Biome, Number> provider, int side, int radius, int distance, BiomeCache biomeCache) {
         this.side = side;
         this.radius = radius;
         this.distance = distance;
         this.count = (radius << 1 | 1) * (radius << 1 | 1);
         this.bitShift = MathHelper.floor(Math.log(side) / Math.log(2));
         this.provider = provider;
+        this.biomeCache = biomeCache;
     }
 
     public float get(class_519 source, int x, int z) {
@@ -35,8 +37,8 @@ public class BiomeDataInterpolator {
         float dx = (float) (x - (x1 << bitShift)) / side;
         float dz = (float) (z - (z1 << bitShift)) / side;
 
-        if (!initiated || x1 != lastX || z1 != lastZ) {
-            initiated = true;
+        if (source != lastSource || x1 != lastX || z1 != lastZ) {
+            lastSource = source;
             lastX = x1;
             lastZ = z1;
 
@@ -62,7 +64,7 @@ public class BiomeDataInterpolator {
         float value = 0;
         for (int dx = -radius; dx <= radius; dx++) {
             for (int dz = -radius; dz <= radius; dz++) {
-                Biome biome = source.method_1787(x + dx * distance, z + dz * distance);
+                Biome biome = biomeCache.get(source, x + dx * distance, z + dz * distance);
                 value += provider.apply(biome).floatValue();
             }
         }
@@ -3,11 +3,16 @@ package net.modificationstation.stationapi.impl.worldgen;
 import net.minecraft.class_152;
 import net.minecraft.world.biome.Biome;
 import net.modificationstation.stationapi.api.worldgen.BiomeAPI;
-import net.modificationstation.stationapi.api.worldgen.biome.BiomeProvider;
+
+import java.util.Arrays;
 
 public class NetherBiomeSourceImpl extends class_152 {
     private static final NetherBiomeSourceImpl INSTANCE = new NetherBiomeSourceImpl();
-    private static final Biome[] BUFFER = new Biome[1];
+    private static final ThreadLocal<Biome[]> BUFFER = ThreadLocal.withInitial(() -> new Biome[1]);
+    /**
+     * The nether's constant temperatures and downfalls, as passed to the provider.
+     */
+    private static final ThreadLocal<double[][]> CLIMATE = ThreadLocal.withInitial(() -> new double[][] { { 1.0 }, { 0.0 } });
 
     private NetherBiomeSourceImpl() {
         super(Biome.HELL, 1.0, 0.0);
@@ -15,21 +20,21 @@ public class NetherBiomeSourceImpl extends class_152 {
     
     @Override
     public Biome method_1787(int x, int z) {
-        return method_1791(BUFFER, x, z, 1, 1)[0];
+        return method_1791(BUFFER.get(), x, z, 1, 1)[0];
     }
     
     @Override
     public Biome[] method_1791(Biome[] data, int x, int z, int dx, int dz) {
         data = super.method_1791(data, x, z, dx, dz);
 
-        BiomeProvider provider = BiomeAPI.getNetherProvider();
-
-        int index = 0;
-        for (int bx = 0; bx < dx; bx++) {
-            for (int bz = 0; bz < dz; bz++) {
-                data[index++] = provider.getBiome(x + bx, z + bz, 1.0F, 0.0F);
-            }
+        int size = dx * dz;
+        double[][] climate = CLIMATE.get();
+        if (climate[0].length < size) {
+            climate[0] = new double[size];
+            climate[1] = new double[size];
+            Arrays.fill(climate[0], 1.0);
         }
+        BiomeAPI.getNetherProvider().fillBiomes(data, x, z, dx, dz, climate[0], climate[1]);
 
         return data;
     }
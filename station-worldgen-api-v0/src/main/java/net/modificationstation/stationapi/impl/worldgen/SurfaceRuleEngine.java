@@ -0,0 +1,225 @@
+package net.modificationstation.stationapi.impl.worldgen;
+
+import net.minecraft.world.World;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.Chunk;
+import net.modificationstation.stationapi.api.block.BlockState;
+import net.modificationstation.stationapi.api.worldgen.surface.StateSurfaceRule;
+import net.modificationstation.stationapi.api.worldgen.surface.SurfaceRule;
+import net.modificationstation.stationapi.api.worldgen.surface.condition.*;
+import net.modificationstation.stationapi.impl.world.chunk.BlockEditBatch;
+import net.modificationstation.stationapi.impl.world.chunk.FlattenedChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Applies biome surface rules to the area decorated for a chunk, one column at a time.
+ *
+ * <p>Each biome's rules are compiled once into a flat table of condition opcodes.
+ * The built-in conditions are then checked against a buffer of the column's block states
+ * read straight from the chunk's sections, and the parts that only depend on the column
+ * (neighbour heights for slopes, noise for depths) are computed once per column
+ * instead of once per block. Changes are collected per chunk and written in bulk
+ * with {@link FlattenedChunk#setBlockStates(BlockEditBatch)}.
+ *
+ * <p>Columns of biomes that use custom rules or conditions are applied block by block
+ * through the world like before, since those can look at anything in it.
+ */
+final class SurfaceRuleEngine {
+    private static final byte
+            OP_POSITION = 0,
+            OP_STATE = 1,
+            OP_BLOCK = 2,
+            OP_TAG = 3,
+            OP_DEPTH = 4,
+            OP_SLOPE = 5;
+
+    private final Map<Biome, CompiledRules> compiledRules = new IdentityHashMap<>();
+    /**
+     * Heights of the decorated area and a one block border around it, for slopes.
+     */
+    private final int[] heights = new int[18 * 18];
+    private final FlattenedChunk[] chunks = new FlattenedChunk[4];
+    private final BlockEditBatch[] batches = { new BlockEditBatch(), new BlockEditBatch(), new BlockEditBatch(), new BlockEditBatch() };
+    private BlockState[] column = new BlockState[0];
+
+    void apply(World world, Biome[] biomes, int x1, int z1) {
+        int bottomY = world.getBottomY();
+        boolean hasCeiling = world.dimension.field_2177;
+        for (int x = -1; x < 17; x++)
+            for (int z = -1; z < 17; z++)
+                heights[(x + 1) * 18 + z + 1] = world.getTopY(x1 + x, z1 + z);
+        int chunkX = x1 >> 4, chunkZ = z1 >> 4;
+        for (int i = 0; i < 4; i++) {
+            Chunk chunk = world.method_214(chunkX + (i >> 1), chunkZ + (i & 1));
+            chunks[i] = chunk instanceof FlattenedChunk flattenedChunk ? flattenedChunk : null;
+        }
+
+        int index = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                Biome biome = biomes[index++];
+                int worldX = x1 + x, worldZ = z1 + z;
+                int maxY = hasCeiling ? world.getTopY() : heights[(x + 1) * 18 + z + 1];
+                int chunkIndex = ((worldX >> 4) - chunkX) << 1 | (worldZ >> 4) - chunkZ;
+                CompiledRules rules = getCompiledRules(biome);
+                FlattenedChunk chunk = chunks[chunkIndex];
+                if (rules == null || chunk == null) {
+                    flush();
+                    for (int y = bottomY; y < maxY; y++)
+                        biome.applySurfaceRules(world, worldX, y, worldZ, world.getBlockState(worldX, y, worldZ));
+                    continue;
+                }
+                if (rules.rules.length == 0) continue;
+                applyColumn(world, rules, chunk, batches[chunkIndex], x, z, worldX, worldZ, bottomY, maxY);
+            }
+        }
+        flush();
+        Arrays.fill(chunks, null);
+    }
+
+    private void applyColumn(World world, CompiledRules rules, FlattenedChunk chunk, BlockEditBatch batch, int x, int z, int worldX, int worldZ, int bottomY, int maxY) {
+        int localX = worldX & 15, localZ = worldZ & 15;
+        int bufferTop = Math.min(world.getTopY(), maxY + rules.maxDepth + 1);
+        int size = bufferTop - bottomY;
+        if (size <= 0) return;
+        if (column.length < size) column = new BlockState[size];
+        BlockState[] column = this.column;
+        for (int y = bottomY; y < bufferTop; y++)
+            column[y - bottomY] = chunk.getBlockState(localX, y, localZ);
+
+        int[] depthOffsets = rules.depthOffsets;
+        for (int i = 0; i < rules.depthConditions.length; i++)
+            depthOffsets[i] = rules.depthConditions[i].getOffset(worldX, worldZ);
+        boolean[] slopes = rules.slopes;
+        for (int i = 0; i < rules.slopeConditions.length; i++)
+            slopes[i] = rules.slopeConditions[i].canApply(
+                    heights[(x + 2) * 18 + z + 1], heights[x * 18 + z + 1],
+                    heights[(x + 1) * 18 + z + 2], heights[(x + 1) * 18 + z]
+            );
+
+        for (int y = bottomY; y < maxY; y++) {
+            BlockState state = column[y - bottomY];
+            for (CompiledRule rule : rules.rules) {
+                if (!rule.test(world, worldX, y, worldZ, state, column, bottomY, bufferTop, depthOffsets, slopes)) continue;
+                if (state != rule.state) {
+                    column[y - bottomY] = rule.state;
+                    batch.set(localX, y, localZ, rule.state, 0);
+                }
+                break;
+            }
+        }
+    }
+
+    private void flush() {
+        for (int i = 0; i < 4; i++) {
+            BlockEditBatch batch = batches[i];
+            if (batch.isEmpty()) continue;
+            chunks[i].setBlockStates(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * {@return the biome's rules compiled into opcodes, or {@code null} if they can't be compiled}
+     */
+    private @Nullable CompiledRules getCompiledRules(Biome biome) {
+        List<SurfaceRule> surfaceRules = biome.getSurfaceRules();
+        CompiledRules rules = compiledRules.get(biome);
+        if (rules == null || rules.sourceSize != surfaceRules.size()) {
+            rules = compile(surfaceRules);
+            compiledRules.put(biome, rules);
+        }
+        return rules.rules == null ? null : rules;
+    }
+
+    private static CompiledRules compile(List<SurfaceRule> surfaceRules) {
+        List<DepthSurfaceCondition> depthConditions = new ArrayList<>();
+        List<SlopeSurfaceCondition> slopeConditions = new ArrayList<>();
+        CompiledRule[] rules = new CompiledRule[surfaceRules.size()];
+        int maxDepth = 0;
+        for (int i = 0; i < rules.length; i++) {
+            if (!(surfaceRules.get(i) instanceof StateSurfaceRule stateRule) || stateRule.getClass() != StateSurfaceRule.class)
+                return new CompiledRules(surfaceRules.size(), null, null, null, 0);
+            List<SurfaceCondition> conditions = stateRule.getConditions();
+            byte[] ops = new byte[conditions.size()];
+            Object[] args = new Object[conditions.size()];
+            for (int j = 0; j < ops.length; j++) {
+                SurfaceCondition condition = conditions.get(j);
+                Class<?> type = condition.getClass();
+                args[j] = condition;
+                if (type == PositionSurfaceCondition.class || type == HeightSurfaceCondition.class) ops[j] = OP_POSITION;
+                else if (type == StateSurfaceCondition.class) ops[j] = OP_STATE;
+                else if (type == BlockSurfaceCondition.class) ops[j] = OP_BLOCK;
+                else if (type == TagSurfaceCondition.class) ops[j] = OP_TAG;
+                else if (type == DepthSurfaceCondition.class) {
+                    DepthSurfaceCondition depthCondition = (DepthSurfaceCondition) condition;
+                    ops[j] = OP_DEPTH;
+                    args[j] = depthConditions.size();
+                    depthConditions.add(depthCondition);
+                    maxDepth = Math.max(maxDepth, depthCondition.getMaxDepth());
+                } else if (type == SlopeSurfaceCondition.class) {
+                    ops[j] = OP_SLOPE;
+                    args[j] = slopeConditions.size();
+                    slopeConditions.add((SlopeSurfaceCondition) condition);
+                } else return new CompiledRules(surfaceRules.size(), null, null, null, 0);
+            }
+            rules[i] = new CompiledRule(stateRule.getState(), ops, args);
+        }
+        return new CompiledRules(
+                surfaceRules.size(), rules,
+                depthConditions.toArray(DepthSurfaceCondition[]::new),
+                slopeConditions.toArray(SlopeSurfaceCondition[]::new),
+                maxDepth
+        );
+    }
+
+    private static final class CompiledRules {
+        private final int sourceSize;
+        /**
+         * {@code null} if the rules can't be compiled.
+         */
+        private final CompiledRule[] rules;
+        private final DepthSurfaceCondition[] depthConditions;
+        private final SlopeSurfaceCondition[] slopeConditions;
+        private final int maxDepth;
+        private final int[] depthOffsets;
+        private final boolean[] slopes;
+
+        private CompiledRules(int sourceSize, CompiledRule[] rules, DepthSurfaceCondition[] depthConditions, SlopeSurfaceCondition[] slopeConditions, int maxDepth) {
+            this.sourceSize = sourceSize;
+            this.rules = rules;
+            this.depthConditions = depthConditions;
+            this.slopeConditions = slopeConditions;
+            this.maxDepth = maxDepth;
+            depthOffsets = depthConditions == null ? null : new int[depthConditions.length];
+            slopes = slopeConditions == null ? null : new boolean[slopeConditions.length];
+        }
+    }
+
+    private record CompiledRule(BlockState state, byte[] ops, Object[] args) {
+        private boolean test(World world, int x, int y, int z, BlockState state, BlockState[] column, int bottomY, int bufferTop, int[] depthOffsets, boolean[] slopes) {
+            for (int i = 0; i < ops.length; i++) {
+                Object arg = args[i];
+                boolean passed = switch (ops[i]) {
+                    case OP_POSITION -> ((SurfaceCondition) arg).canApply(world, x, y, z, state);
+                    case OP_STATE -> ((StateSurfaceCondition) arg).canApply(world, x, y, z, state);
+                    case OP_BLOCK -> ((BlockSurfaceCondition) arg).canApply(world, x, y, z, state);
+                    case OP_TAG -> ((TagSurfaceCondition) arg).canApply(world, x, y, z, state);
+                    case OP_DEPTH -> {
+                        int checkedY = y - depthOffsets[(int) arg];
+                        yield DepthSurfaceCondition.isOpen(checkedY >= bottomY && checkedY < bufferTop ?
+                                column[checkedY - bottomY] :
+                                world.getBlockState(x, checkedY, z)
+                        );
+                    }
+                    case OP_SLOPE -> slopes[(int) arg];
+                    default -> throw new IllegalStateException("Unknown surface condition opcode " + ops[i]);
+                };
+                if (!passed) return false;
+            }
+            return true;
+        }
+    }
+}
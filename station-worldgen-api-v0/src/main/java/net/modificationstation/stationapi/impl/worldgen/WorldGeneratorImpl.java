@@ -2,14 +2,12 @@ package net.modificationstation.stationapi.impl.worldgen;
 
 import net.minecraft.class_519;
 import net.minecraft.world.World;
-import net.minecraft.world.biome.Biome;
 import net.modificationstation.stationapi.api.util.math.MathHelper;
 
 public class WorldGeneratorImpl {
-    private static final BiomeDataInterpolator MIN_HEIGHT_INTERPOLATOR = new BiomeDataInterpolator(Biome::getMinHeight, 16, 4, 8);
-    private static final BiomeDataInterpolator MAX_HEIGHT_INTERPOLATOR = new BiomeDataInterpolator(Biome::getMaxHeight, 16, 4, 8);
-
-    public static void updateNoise(World world, int cx, int cz, double[] data) {
+    public static void updateNoise(WorldgenContext context, World world, int cx, int cz, double[] data) {
+        BiomeDataInterpolator minHeightInterpolator = context.minHeightInterpolator;
+        BiomeDataInterpolator maxHeightInterpolator = context.maxHeightInterpolator;
         float min = 0;
         float max = 0;
         float n = 0;
@@ -27,8 +25,8 @@ public class WorldGeneratorImpl {
             if (y == 0) {
                 int x = ((i / dx) << 2) + cx;
                 int z = (((i / sideY) % 5) << 2) + cz;
-                min = MIN_HEIGHT_INTERPOLATOR.get(biomeSource, x, z) / 8F;
-                max = MAX_HEIGHT_INTERPOLATOR.get(biomeSource, x, z) / 8F;
+                min = minHeightInterpolator.get(biomeSource, x, z) / 8F;
+                max = maxHeightInterpolator.get(biomeSource, x, z) / 8F;
             }
             
             y += bottom;
@@ -0,0 +1,23 @@
+package net.modificationstation.stationapi.impl.worldgen;
+
+import net.minecraft.world.biome.Biome;
+
+import java.util.Random;
+
+/**
+ * The scratch state of StationAPI's chunk generation steps: the biome buffer, the feature random,
+ * the surface rule engine, the biome cache and the terrain height interpolators.
+ *
+ * <p>Each world source owns a context and passes it to the steps it runs, so the terrain
+ * and surface steps can run for several chunks at once as long as each thread has its own
+ * world source. Feature placement writes into neighbouring chunks, so chunks that are
+ * populated at the same time must not be adjacent.
+ */
+public final class WorldgenContext {
+    final Biome[] biomes = new Biome[256];
+    final Random random = new Random();
+    final SurfaceRuleEngine surfaceRules = new SurfaceRuleEngine();
+    final BiomeCache biomeCache = new BiomeCache();
+    final BiomeDataInterpolator minHeightInterpolator = new BiomeDataInterpolator(Biome::getMinHeight, 16, 4, 8, biomeCache);
+    final BiomeDataInterpolator maxHeightInterpolator = new BiomeDataInterpolator(Biome::getMaxHeight, 16, 4, 8, biomeCache);
+}
@@ -15,6 +15,7 @@ import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Mixin(Biome.class)
@@ -79,6 +80,11 @@ class BiomeMixin implements StationBiome {
         }
     }
 
+    @Override
+    public List<SurfaceRule> getSurfaceRules() {
+        return Collections.unmodifiableList(surfaceRules);
+    }
+
     @Override
     public boolean noSurfaceRules() {
         return surfaceRules.isEmpty();
@@ -6,8 +6,10 @@ import net.minecraft.class_51;
 import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.modificationstation.stationapi.impl.worldgen.WorldDecoratorImpl;
+import net.modificationstation.stationapi.impl.worldgen.WorldgenContext;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.At.Shift;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -16,13 +18,15 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(class_359.class)
 class NetherWorldSourceMixin {
     @Shadow private World field_1350;
+    @Unique
+    private final WorldgenContext stationapi_worldgenContext = new WorldgenContext();
 
     @Inject(
             method = "method_1803",
             at = @At("HEAD")
     )
     private void stationapi_makeSurface(class_51 source, int cx, int cz, CallbackInfo info) {
-        WorldDecoratorImpl.decorate(this.field_1350, cx, cz);
+        WorldDecoratorImpl.decorate(stationapi_worldgenContext, this.field_1350, cx, cz);
     }
     
     @Inject(
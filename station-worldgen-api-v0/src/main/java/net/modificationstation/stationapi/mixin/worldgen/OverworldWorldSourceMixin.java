@@ -9,8 +9,10 @@ import net.minecraft.world.World;
 import net.minecraft.world.biome.Biome;
 import net.modificationstation.stationapi.impl.worldgen.WorldDecoratorImpl;
 import net.modificationstation.stationapi.impl.worldgen.WorldGeneratorImpl;
+import net.modificationstation.stationapi.impl.worldgen.WorldgenContext;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.At.Shift;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -22,13 +24,15 @@ class OverworldWorldSourceMixin {
     private World field_2260;
     @Shadow
     private double[] field_2261;
+    @Unique
+    private final WorldgenContext stationapi_worldgenContext = new WorldgenContext();
 
     @Inject(
             method = "method_1803",
             at = @At("HEAD")
     )
     private void stationapi_decorateSurface(class_51 source, int cx, int cz, CallbackInfo info) {
-        WorldDecoratorImpl.decorate(this.field_2260, cx, cz);
+        WorldDecoratorImpl.decorate(stationapi_worldgenContext, this.field_2260, cx, cz);
     }
     
     @Inject(
@@ -63,6 +67,6 @@ class OverworldWorldSourceMixin {
             )
     )
     private void stationapi_changeHeight(int cx, int cz, byte[] args, Biome[] biomes, double[] par5, CallbackInfo info) {
-        WorldGeneratorImpl.updateNoise(field_2260, cx, cz, this.field_2261);
+        WorldGeneratorImpl.updateNoise(stationapi_worldgenContext, field_2260, cx, cz, this.field_2261);
     }
 }